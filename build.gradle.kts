@@ -43,6 +43,8 @@ dependencies {
 
     // Plugin initializes SQLite on enable; include driver for clean test runs
     testRuntimeOnly("org.xerial:sqlite-jdbc:3.46.1.0")
+    // Optional H2 backend; the server downloads it via plugin.yml libraries
+    testRuntimeOnly("com.h2database:h2:2.2.224")
 }
 
 tasks.withType<JavaCompile> {
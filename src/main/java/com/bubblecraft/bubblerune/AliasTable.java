@@ -0,0 +1,166 @@
+package com.bubblecraft.bubblerune;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted random choice in constant time (Vose's alias method).
+ *
+ * Each of the n columns holds its own value with probability {@code probability[i]} and its
+ * {@code alias} otherwise, so a sample is one uniform column plus one biased coin, whatever the
+ * number or spread of the weights. Building is O(n). Tables are immutable and sample from the
+ * caller's generator ({@link ThreadLocalRandom} by default), so threads never contend.
+ */
+public final class AliasTable<T> {
+    private static final AliasTable<?> EMPTY = new AliasTable<>(Collections.emptyList(), new double[0]);
+
+    private final List<T> values;
+    private final double[] shares;
+    // cumulative[i] = share of values 0..i, for inverse-CDF draws; the last is exactly 1
+    private final double[] cumulative;
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param values  choices, in any order
+     * @param weights relative weight of each value; every weight must be positive and finite
+     */
+    public AliasTable(List<T> values, double[] weights) {
+        int n = values.size();
+        if (weights.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " weights, got " + weights.length);
+        }
+        double total = 0.0;
+        for (double weight : weights) {
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be positive and finite: " + weight);
+            }
+            total += weight;
+        }
+
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        this.shares = new double[n];
+        this.cumulative = new double[n];
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        // Scale so the average column is 1, then pair each short column with a tall one
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            shares[i] = weights[i] / total;
+            scaled[i] = shares[i] * n;
+            if (scaled[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        double running = 0.0;
+        for (int i = 0; i < n; i++) {
+            running += shares[i];
+            cumulative[i] = running;
+        }
+        if (n > 0) cumulative[n - 1] = 1.0;
+
+        // Whatever is left is full up to rounding error
+        while (largeSize > 0) {
+            int i = large[--largeSize];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallSize > 0) {
+            int i = small[--smallSize];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> AliasTable<T> empty() {
+        return (AliasTable<T>) EMPTY;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * All values, in the order they were given.
+     */
+    public List<T> getValues() {
+        return values;
+    }
+
+    /**
+     * Probability of drawing the value at {@code index}: its weight over the total.
+     */
+    public double getShare(int index) {
+        return shares[index];
+    }
+
+    /**
+     * Draws a value, or null if the table is empty.
+     */
+    public T sample() {
+        return sample(ThreadLocalRandom.current());
+    }
+
+    public T sample(RandomGenerator random) {
+        int n = probability.length;
+        if (n == 0) return null;
+        int column = random.nextInt(n);
+        return values.get(random.nextDouble() < probability[column] ? column : alias[column]);
+    }
+
+    /**
+     * Draws from the distribution of the best of {@code draws} samples, where later values rank
+     * higher, or null if the table is empty. {@code draws} may be fractional and values below 1
+     * count as 1.
+     */
+    public T sampleBest(double draws) {
+        return sampleBest(draws, ThreadLocalRandom.current());
+    }
+
+    public T sampleBest(double draws, RandomGenerator random) {
+        int n = cumulative.length;
+        if (n == 0) return null;
+        if (!(draws > 1.0)) return sample(random);
+        // The best of k draws is at or below index i with probability F(i)^k, so invert that CDF
+        // with one uniform: the first i where F(i) > u^(1/k)
+        double target = Math.pow(random.nextDouble(), 1.0 / draws);
+        int low = 0;
+        int high = n - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return values.get(low);
+    }
+}
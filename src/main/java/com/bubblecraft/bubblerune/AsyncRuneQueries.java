@@ -0,0 +1,199 @@
+package com.bubblecraft.bubblerune;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking read API over a {@link RuneStorage}.
+ *
+ * Each query runs on its own virtual thread ({@code BubbleRune-Query-N}), but at most
+ * {@code maxConcurrent} touch the database at once, so a burst of admin commands queues up
+ * here instead of competing with the roll writer for SQLite. At most {@code maxPending} queries
+ * may be waiting or running; beyond that new ones fail fast with
+ * {@link RejectedExecutionException}. Every future fails with {@link TimeoutException} after
+ * {@code timeoutMillis}.
+ *
+ * Futures complete on the query thread; use {@link #mainThread()} with the {@code *Async}
+ * stages to get back onto the server thread before touching Bukkit.
+ */
+public class AsyncRuneQueries {
+
+    /**
+     * A blocking storage call.
+     */
+    @FunctionalInterface
+    public interface Query<T> {
+        T run(RuneStorage storage) throws SQLException;
+    }
+
+    private final RuneStorage storage;
+    private final Executor mainThread;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxPending;
+    private final long timeoutMillis;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public AsyncRuneQueries(RuneStorage storage, Executor mainThread, int maxConcurrent, int maxPending,
+                            long timeoutMillis) {
+        this.storage = storage;
+        this.mainThread = mainThread;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.maxPending = Math.max(1, maxPending);
+        this.timeoutMillis = Math.max(1L, timeoutMillis);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("BubbleRune-Query-", 0).factory());
+    }
+
+    /**
+     * Executor that runs tasks on the server thread.
+     */
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * Runs {@code query} against the storage within the concurrency limit and timeout.
+     */
+    public <T> CompletableFuture<T> submit(Query<T> query) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejected.increment();
+            future.completeExceptionally(new RejectedExecutionException("Too many database queries pending"));
+            return future;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            executor.execute(() -> run(query, future, deadline));
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            rejected.increment();
+            future.completeExceptionally(e);
+            return future;
+        }
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error instanceof TimeoutException) {
+                timedOut.increment();
+            }
+        });
+    }
+
+    private <T> void run(Query<T> query, CompletableFuture<T> future, long deadline) {
+        boolean acquired = false;
+        try {
+            // Don't start work the caller has already given up on
+            acquired = permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (acquired && !future.isDone()) {
+                T result = query.run(storage);
+                // Counted before completing so a woken caller sees it, and taken back if the
+                // caller timed out meanwhile
+                completed.increment();
+                if (!future.complete(result)) {
+                    completed.decrement();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+            pending.decrementAndGet();
+        }
+    }
+
+    public CompletableFuture<RuneStorage.PlayerStats> getPlayerStats(UUID playerId) {
+        return submit(s -> s.getPlayerStats(playerId));
+    }
+
+    public CompletableFuture<List<RuneStorage.PlayerStats>> getTopPlayers(int limit) {
+        return submit(s -> s.getTopPlayers(limit));
+    }
+
+    public CompletableFuture<List<RuneStorage.RollRecord>> getRecentRolls(UUID playerId, int limit) {
+        return submit(s -> s.getRecentRolls(playerId, limit));
+    }
+
+    public CompletableFuture<List<RuneStorage.PlayerStats>> getTopPlayers(RuneStorage.PlayerCursor after, int limit) {
+        return submit(s -> s.getTopPlayers(after, limit));
+    }
+
+    public CompletableFuture<List<RuneStorage.RollRecord>> getRecentRolls(UUID playerId, RuneStorage.RollCursor before,
+                                                                          int limit) {
+        return submit(s -> s.getRecentRolls(playerId, before, limit));
+    }
+
+    public CompletableFuture<RuneStorage.GlobalStats> getGlobalStats() {
+        return submit(RuneStorage::getGlobalStats);
+    }
+
+    public CompletableFuture<Map<RuneTier, Integer>> getTierDistribution() {
+        return submit(RuneStorage::getTierDistribution);
+    }
+
+    public CompletableFuture<Long> getUniquePlayers(LocalDate from, LocalDate to) {
+        return submit(s -> s.getUniquePlayers(from, to));
+    }
+
+    public CompletableFuture<Integer> getPlayerRank(UUID playerId) {
+        return submit(s -> s.getPlayerRank(playerId));
+    }
+
+    /**
+     * Stops accepting queries and waits briefly for running ones; whatever is left is interrupted.
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+}
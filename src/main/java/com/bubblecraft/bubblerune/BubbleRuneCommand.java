@@ -11,11 +11,47 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
     private final BubbleRunePlugin plugin;
 
+    // Paging state for /history and /top, per sender; only touched on the main thread
+    private final Map<String, PageSession<RuneStorage.RollCursor>> historyPages = pageSessions();
+    private final Map<String, PageSession<RuneStorage.PlayerCursor>> leaderboardPages = pageSessions();
+
+    /**
+     * Where a sender is in a paged listing. {@code starts} holds the cursor each visited page was
+     * fetched after (null for page 1), so "prev" re-runs the previous page's keyset query.
+     * {@code loading} is set while a page is being fetched: {@code starts} only moves when the
+     * reply arrives, so a second next/prev sent before then would reuse the same cursor.
+     */
+    private static final class PageSession<C> {
+        final int limit;
+        final List<C> starts = new ArrayList<>();
+        C next;
+        boolean loading;
+
+        PageSession(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    private static <C> Map<String, PageSession<C>> pageSessions() {
+        return new LinkedHashMap<String, PageSession<C>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PageSession<C>> eldest) {
+                return size() > 256;
+            }
+        };
+    }
+
     public BubbleRuneCommand(BubbleRunePlugin plugin) {
         this.plugin = plugin;
     }
@@ -35,8 +71,10 @@ public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
                 "&7  /%label% quests - View weekly quests\n" +
                 "&7  /%label% debug [on|off|toggle] - Toggle debug logging\n" +
                 "&7  /%label% stats - View your statistics\n" +
-                "&7  /%label% history [limit] - View roll history\n" +
-                "&7  /%label% leaderboard [limit] - View top rollers");
+                "&7  /%label% history [limit|next|prev] - View roll history\n" +
+                "&7  /%label% leaderboard [limit|next|prev] - View top rollers\n" +
+                "&7  /%label% dbstats - View database write queue metrics\n" +
+                "&7  /%label% export <rolls|players> [csv|ndjson] [gzip] [from:date] [to:date] - Export data");
             help = help
                 .replace("%version%", plugin.getDescription().getVersion())
                 .replace("%label%", label);
@@ -305,99 +343,94 @@ public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
             
             Player player = (Player) sender;
             
-            if (plugin.getDatabaseManager() == null) {
+            AsyncRuneQueries queries = plugin.getQueries();
+            if (queries == null) {
                 sender.sendMessage(TextFormatter.format(plugin.getMessage(
                     "command.databaseNotAvailable",
                     "&cDatabase not available.")));
                 return true;
             }
             
-            // Fetch stats asynchronously
-            org.bukkit.Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                try {
-                    DatabaseManager.PlayerStats stats = plugin.getDatabaseManager().getPlayerStats(player.getUniqueId());
-                    
-                    org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                        if (stats == null) {
-                            sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                                "command.noRollsYet",
-                                "&cYou haven't rolled any runes yet!")));
-                            return;
-                        }
+            // Fetch stats asynchronously, reply on the main thread
+            queries.getPlayerStats(player.getUniqueId()).whenCompleteAsync((stats, error) -> {
+                if (error != null) {
+                    String err = plugin.getMessage(
+                        "command.errorLoadingStats",
+                        "&cError loading stats: %error%");
+                    sender.sendMessage(TextFormatter.format(err.replace("%error%", describeQueryError(error))));
+                    return;
+                }
+                if (stats == null) {
+                    sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                        "command.noRollsYet",
+                        "&cYou haven't rolled any runes yet!")));
+                    return;
+                }
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsHeader",
-                            "&6&l━━━━━━ Your Rune Statistics ━━━━━━")));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsHeader",
+                    "&6&l━━━━━━ Your Rune Statistics ━━━━━━")));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTotalRolls",
-                            "&7Total Rolls: &e%value%"
-                        ).replace("%value%", String.valueOf(stats.totalRolls))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTotalRolls",
+                    "&7Total Rolls: &e%value%"
+                ).replace("%value%", String.valueOf(stats.totalRolls))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTotalXpSpent",
-                            "&7Total XP Spent: &e%value%"
-                        ).replace("%value%", String.valueOf(stats.totalXpSpent))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTotalXpSpent",
+                    "&7Total XP Spent: &e%value%"
+                ).replace("%value%", String.valueOf(stats.totalXpSpent))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTotalCoinsSpent",
-                            "&7Total Coins Spent: &e%value%"
-                        ).replace("%value%", String.valueOf(stats.totalCoinsSpent))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTotalCoinsSpent",
+                    "&7Total Coins Spent: &e%value%"
+                ).replace("%value%", String.valueOf(stats.totalCoinsSpent))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage("command.blankLine", "")));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage("command.blankLine", "")));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTierBreakdownHeader",
-                            "&7Tier Breakdown:")));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTierBreakdownHeader",
+                    "&7Tier Breakdown:")));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTierCommon",
-                            "  &fCommon: &7%value%"
-                        ).replace("%value%", String.valueOf(stats.commonRolls))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTierCommon",
+                    "  &fCommon: &7%value%"
+                ).replace("%value%", String.valueOf(stats.commonRolls))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTierUncommon",
-                            "  &aUncommon: &7%value%"
-                        ).replace("%value%", String.valueOf(stats.uncommonRolls))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTierUncommon",
+                    "  &aUncommon: &7%value%"
+                ).replace("%value%", String.valueOf(stats.uncommonRolls))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTierRare",
-                            "  &9Rare: &7%value%"
-                        ).replace("%value%", String.valueOf(stats.rareRolls))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTierRare",
+                    "  &9Rare: &7%value%"
+                ).replace("%value%", String.valueOf(stats.rareRolls))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTierEpic",
-                            "  &5Epic: &7%value%"
-                        ).replace("%value%", String.valueOf(stats.epicRolls))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTierEpic",
+                    "  &5Epic: &7%value%"
+                ).replace("%value%", String.valueOf(stats.epicRolls))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTierLegendary",
-                            "  &6Legendary: &7%value%"
-                        ).replace("%value%", String.valueOf(stats.legendaryRolls))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTierLegendary",
+                    "  &6Legendary: &7%value%"
+                ).replace("%value%", String.valueOf(stats.legendaryRolls))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTierSpecial",
-                            "  &bSpecial: &7%value%"
-                        ).replace("%value%", String.valueOf(stats.specialRolls))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTierSpecial",
+                    "  &bSpecial: &7%value%"
+                ).replace("%value%", String.valueOf(stats.specialRolls))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.statsTierVerySpecial",
-                            "  &dVery Special: &7%value%"
-                        ).replace("%value%", String.valueOf(stats.verySpecialRolls))));
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.statsTierVerySpecial",
+                    "  &dVery Special: &7%value%"
+                ).replace("%value%", String.valueOf(stats.verySpecialRolls))));
 
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.sectionFooter",
-                            "&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━")));
-                    });
-                } catch (Exception e) {
-                    org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                        String err = plugin.getMessage(
-                            "command.errorLoadingStats",
-                            "&cError loading stats: %error%");
-                        sender.sendMessage(TextFormatter.format(err.replace("%error%", e.getMessage())));
-                    });
-                }
-            });
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.sectionFooter",
+                    "&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━")));
+            }, queries.mainThread());
             
             return true;
         }
@@ -412,70 +445,114 @@ public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
             
             Player player = (Player) sender;
             
-            if (plugin.getDatabaseManager() == null) {
+            AsyncRuneQueries queries = plugin.getQueries();
+            if (queries == null) {
                 sender.sendMessage(TextFormatter.format(plugin.getMessage(
                     "command.databaseNotAvailable",
                     "&cDatabase not available.")));
                 return true;
             }
             
-            int limit = 10;
-            if (args.length >= 2) {
-                try {
-                    limit = Integer.parseInt(args[1]);
-                    if (limit <= 0) limit = 10;
-                    if (limit > 50) limit = 50;
-                } catch (NumberFormatException e) {
+            String key = player.getUniqueId().toString();
+            String page = args.length >= 2 ? args[1].toLowerCase() : "";
+            PageSession<RuneStorage.RollCursor> session;
+            RuneStorage.RollCursor cursor;
+            if (page.equals("next") || page.equals("prev")) {
+                session = historyPages.get(key);
+                if (session == null) {
                     sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                        "command.invalidNumberUsingDefaultLimit",
-                        "&cInvalid number. Using default limit of 10.")));
+                        "command.noPageSession",
+                        "&cRun the command without next/prev first.")));
+                    return true;
                 }
+                if (session.loading) {
+                    sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                        "command.pageLoading",
+                        "&cStill loading the last page, please wait.")));
+                    return true;
+                }
+                if (page.equals("next") && session.next == null) {
+                    sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                        "command.noNextPage",
+                        "&cThere are no more pages.")));
+                    return true;
+                }
+                if (page.equals("prev") && session.starts.size() <= 1) {
+                    sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                        "command.noPreviousPage",
+                        "&cYou are on the first page.")));
+                    return true;
+                }
+                cursor = page.equals("next") ? session.next : session.starts.get(session.starts.size() - 2);
+            } else {
+                int limit = 10;
+                if (args.length >= 2) {
+                    try {
+                        limit = Integer.parseInt(args[1]);
+                        if (limit <= 0) limit = 10;
+                        if (limit > 50) limit = 50;
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                            "command.invalidNumberUsingDefaultLimit",
+                            "&cInvalid number. Using default limit of 10.")));
+                    }
+                }
+                session = new PageSession<>(limit);
+                historyPages.put(key, session);
+                cursor = null;
             }
             
-            final int finalLimit = limit;
+            final PageSession<RuneStorage.RollCursor> finalSession = session;
+            session.loading = true;
             
-            // Fetch history asynchronously
-            org.bukkit.Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                try {
-                    List<DatabaseManager.RollRecord> rolls = plugin.getDatabaseManager().getRecentRolls(player.getUniqueId(), finalLimit);
-                    
-                    org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                        if (rolls.isEmpty()) {
-                            sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                                "command.noRollsYet",
-                                "&cYou haven't rolled any runes yet!")));
-                            return;
-                        }
-
-                        String header = plugin.getMessage(
-                            "command.historyHeader",
-                            "&6&l━━━━━━ Recent Rolls (%count%) ━━━━━━");
-                        sender.sendMessage(TextFormatter.format(header.replace("%count%", String.valueOf(rolls.size()))));
-                        
-                        for (DatabaseManager.RollRecord roll : rolls) {
-                            String tierColor = getTierColor(roll.tier);
-                            long timeAgo = System.currentTimeMillis() - roll.timestamp;
-                            String timeStr = formatTimeAgo(timeAgo);
-                            
-                            sender.sendMessage(TextFormatter.format(
-                                tierColor + roll.tier.name() + " &7- &f" + roll.enchantName + 
-                                " &7(" + roll.xpCost + " XP, " + roll.coinCost + " coins) - &8" + timeStr
-                            ));
-                        }
-
+            // Fetch one extra row to know whether a next page exists
+            queries.getRecentRolls(player.getUniqueId(), cursor, session.limit + 1).whenCompleteAsync((rolls, error) -> {
+                finalSession.loading = false;
+                if (error != null) {
+                    String err = plugin.getMessage(
+                        "command.errorLoadingHistory",
+                        "&cError loading history: %error%");
+                    sender.sendMessage(TextFormatter.format(err.replace("%error%", describeQueryError(error))));
+                    return;
+                }
+                if (historyPages.get(key) != finalSession) {
+                    return; // superseded by a newer /history
+                }
+                if (rolls.isEmpty()) {
+                    if (cursor != null) {
+                        // The rows after the cursor are gone, e.g. pruned by retention
+                        finalSession.next = null;
+                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                            "command.noNextPage",
+                            "&cThere are no more pages.")));
+                    } else {
                         sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.sectionFooter",
-                            "&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━")));
-                    });
-                } catch (Exception e) {
-                    org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                        String err = plugin.getMessage(
-                            "command.errorLoadingHistory",
-                            "&cError loading history: %error%");
-                        sender.sendMessage(TextFormatter.format(err.replace("%error%", e.getMessage())));
-                    });
+                            "command.noRollsYet",
+                            "&cYou haven't rolled any runes yet!")));
+                    }
+                    return;
                 }
-            });
+                List<RuneStorage.RollRecord> shown = turnPage(finalSession, page, cursor, rolls,
+                    RuneStorage.RollCursor::of);
+
+                String header = plugin.getMessage(
+                    "command.historyHeader",
+                    "&6&l━━━━━━ Recent Rolls (%count%) ━━━━━━");
+                sender.sendMessage(TextFormatter.format(header.replace("%count%", String.valueOf(shown.size()))));
+                
+                for (RuneStorage.RollRecord roll : shown) {
+                    String tierColor = getTierColor(roll.tier);
+                    long timeAgo = System.currentTimeMillis() - roll.timestamp;
+                    String timeStr = formatTimeAgo(timeAgo);
+                    
+                    sender.sendMessage(TextFormatter.format(
+                        tierColor + roll.tier.name() + " &7- &f" + roll.enchantName + 
+                        " &7(" + roll.xpCost + " XP, " + roll.coinCost + " coins) - &8" + timeStr
+                    ));
+                }
+
+                sendPageFooter(sender, label, "history", finalSession);
+            }, queries.mainThread());
             
             return true;
         }
@@ -488,71 +565,292 @@ public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
                 return true;
             }
             
-            if (plugin.getDatabaseManager() == null) {
+            AsyncRuneQueries queries = plugin.getQueries();
+            if (queries == null) {
                 sender.sendMessage(TextFormatter.format(plugin.getMessage(
                     "command.databaseNotAvailable",
                     "&cDatabase not available.")));
                 return true;
             }
             
-            int limit = 10;
-            if (args.length >= 2) {
-                try {
-                    limit = Integer.parseInt(args[1]);
-                    if (limit <= 0) limit = 10;
-                    if (limit > 25) limit = 25;
-                } catch (NumberFormatException e) {
+            String key = sender instanceof Player ? ((Player) sender).getUniqueId().toString() : sender.getName();
+            String subcommand = args[0].toLowerCase();
+            String page = args.length >= 2 ? args[1].toLowerCase() : "";
+            PageSession<RuneStorage.PlayerCursor> session;
+            RuneStorage.PlayerCursor cursor;
+            if (page.equals("next") || page.equals("prev")) {
+                session = leaderboardPages.get(key);
+                if (session == null) {
                     sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                        "command.invalidNumberUsingDefaultLimit",
-                        "&cInvalid number. Using default limit of 10.")));
+                        "command.noPageSession",
+                        "&cRun the command without next/prev first.")));
+                    return true;
                 }
+                if (session.loading) {
+                    sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                        "command.pageLoading",
+                        "&cStill loading the last page, please wait.")));
+                    return true;
+                }
+                if (page.equals("next") && session.next == null) {
+                    sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                        "command.noNextPage",
+                        "&cThere are no more pages.")));
+                    return true;
+                }
+                if (page.equals("prev") && session.starts.size() <= 1) {
+                    sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                        "command.noPreviousPage",
+                        "&cYou are on the first page.")));
+                    return true;
+                }
+                cursor = page.equals("next") ? session.next : session.starts.get(session.starts.size() - 2);
+            } else {
+                int limit = 10;
+                if (args.length >= 2) {
+                    try {
+                        limit = Integer.parseInt(args[1]);
+                        if (limit <= 0) limit = 10;
+                        if (limit > 25) limit = 25;
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                            "command.invalidNumberUsingDefaultLimit",
+                            "&cInvalid number. Using default limit of 10.")));
+                    }
+                }
+                session = new PageSession<>(limit);
+                leaderboardPages.put(key, session);
+                cursor = null;
             }
             
-            final int finalLimit = limit;
+            final PageSession<RuneStorage.PlayerCursor> finalSession = session;
+            session.loading = true;
             
-            // Fetch leaderboard asynchronously
-            org.bukkit.Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                try {
-                    List<DatabaseManager.PlayerStats> topPlayers = plugin.getDatabaseManager().getTopPlayers(finalLimit);
-                    
-                    org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.leaderboardHeader",
-                            "&6&l━━━━━━ Top Rune Rollers ━━━━━━")));
-                        
-                        int rank = 1;
-                        for (DatabaseManager.PlayerStats stats : topPlayers) {
-                            String rankColor = rank <= 3 ? "&6" : "&7";
-                            sender.sendMessage(TextFormatter.format(
-                                rankColor + "#" + rank + " &f" + stats.playerName + 
-                                " &7- &e" + stats.totalRolls + " rolls &7(" + stats.totalXpSpent + " XP)"
-                            ));
-                            rank++;
-                        }
-                        
-                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
-                            "command.sectionFooter",
-                            "&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━")));
-                    });
-                } catch (Exception e) {
-                    org.bukkit.Bukkit.getScheduler().runTask(plugin, () -> {
-                        String err = plugin.getMessage(
-                            "command.errorLoadingLeaderboard",
-                            "&cError loading leaderboard: %error%");
-                        sender.sendMessage(TextFormatter.format(err.replace("%error%", e.getMessage())));
-                    });
+            // Fetch one extra row to know whether a next page exists
+            queries.getTopPlayers(cursor, session.limit + 1).whenCompleteAsync((topPlayers, error) -> {
+                finalSession.loading = false;
+                if (error != null) {
+                    String err = plugin.getMessage(
+                        "command.errorLoadingLeaderboard",
+                        "&cError loading leaderboard: %error%");
+                    sender.sendMessage(TextFormatter.format(err.replace("%error%", describeQueryError(error))));
+                    return;
+                }
+                if (leaderboardPages.get(key) != finalSession) {
+                    return; // superseded by a newer /top
                 }
-            });
+                List<RuneStorage.PlayerStats> shown = turnPage(finalSession, page, cursor, topPlayers,
+                    RuneStorage.PlayerCursor::of);
+
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.leaderboardHeader",
+                    "&6&l━━━━━━ Top Rune Rollers ━━━━━━")));
+                
+                int rank = (finalSession.starts.size() - 1) * finalSession.limit + 1;
+                for (RuneStorage.PlayerStats stats : shown) {
+                    String rankColor = rank <= 3 ? "&6" : "&7";
+                    sender.sendMessage(TextFormatter.format(
+                        rankColor + "#" + rank + " &f" + stats.playerName + 
+                        " &7- &e" + stats.totalRolls + " rolls &7(" + stats.totalXpSpent + " XP)"
+                    ));
+                    rank++;
+                }
+                
+                sendPageFooter(sender, label, subcommand, finalSession);
+            }, queries.mainThread());
             
             return true;
         }
 
+        if (args[0].equalsIgnoreCase("dbstats")) {
+            if (!sender.hasPermission("bubblerune.admin")) {
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.noPermission",
+                    "&cNo permission.")));
+                return true;
+            }
+
+            RuneStorage storage = plugin.getStorage();
+            RollWriteQueue queue = storage != null ? storage.getWriteQueue() : null;
+            if (queue == null) {
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.databaseNotAvailable",
+                    "&cDatabase not available.")));
+                return true;
+            }
+
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.dbStatsHeader",
+                "&6&l━━━━━━ Database Statistics ━━━━━━")));
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.dbStatsBackend",
+                "&7Backend: &e%backend%")
+                .replace("%backend%", storage.getName())));
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.dbStatsQueue",
+                "&7Write queue: &e%depth%&7/&e%capacity% &7(peak &e%peak%&7)")
+                .replace("%depth%", String.valueOf(queue.getQueueDepth()))
+                .replace("%capacity%", String.valueOf(queue.getCapacity()))
+                .replace("%peak%", String.valueOf(queue.getHighWaterMark()))));
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.dbStatsWritten",
+                "&7Rolls queued: &e%enqueued% &7written: &e%written%")
+                .replace("%enqueued%", String.valueOf(queue.getEnqueuedCount()))
+                .replace("%written%", String.valueOf(queue.getWrittenCount()))));
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.dbStatsRejected",
+                "&7Rolls rejected: &c%rejected% &7failed: &c%failed%")
+                .replace("%rejected%", String.valueOf(queue.getRejectedCount()))
+                .replace("%failed%", String.valueOf(queue.getFailedCount()))));
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.dbStatsBatches",
+                "&7Batches: &e%batches% &7(last: &e%lastSize% &7rolls in &e%lastMillis%ms&7)")
+                .replace("%batches%", String.valueOf(queue.getBatchCount()))
+                .replace("%lastSize%", String.valueOf(queue.getLastBatchSize()))
+                .replace("%lastMillis%", String.valueOf(queue.getLastBatchMillis()))));
+            RetentionJob retention = storage.getRetentionJob();
+            if (retention != null) {
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.dbStatsRetention",
+                    "&7Archived rolls: &e%archived% &7(last run moved &e%lastRun%&7)")
+                    .replace("%archived%", String.valueOf(retention.getArchivedCount()))
+                    .replace("%lastRun%", String.valueOf(retention.getLastRunRolls()))));
+            }
+            RollJournal journal = plugin.getDatabaseManager() != null ? plugin.getDatabaseManager().getJournal() : null;
+            if (journal != null) {
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.dbStatsJournal",
+                    "&7Journal: &e%pending% &7rolls pending, &e%size% &7KB on disk")
+                    .replace("%pending%", String.valueOf(journal.getPendingCount()))
+                    .replace("%size%", String.valueOf(journal.getSizeBytes() / 1024L))));
+            }
+            AsyncRuneQueries queries = plugin.getQueries();
+            if (queries != null) {
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.dbStatsQueries",
+                    "&7Queries: &e%pending% &7pending (max &e%concurrent% &7at once), timed out: &c%timedOut% &7rejected: &c%rejected%")
+                    .replace("%pending%", String.valueOf(queries.getPendingCount()))
+                    .replace("%concurrent%", String.valueOf(queries.getMaxConcurrent()))
+                    .replace("%timedOut%", String.valueOf(queries.getTimedOutCount()))
+                    .replace("%rejected%", String.valueOf(queries.getRejectedCount()))));
+            }
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.sectionFooter",
+                "&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━")));
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("export")) {
+            if (!sender.hasPermission("bubblerune.admin")) {
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.noPermission",
+                    "&cNo permission.")));
+                return true;
+            }
+
+            RollExporter exporter = plugin.getDatabaseManager() != null ? plugin.getDatabaseManager().getExporter() : null;
+            if (exporter == null) {
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.databaseNotAvailable",
+                    "&cDatabase not available.")));
+                return true;
+            }
+
+            RollExporter.Request request = parseExportRequest(args);
+            if (request == null) {
+                sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.exportUsage",
+                    "&cUsage: /%label% export <rolls|players> [csv|ndjson] [gzip] [from:YYYY-MM-DD] [to:YYYY-MM-DD]")
+                    .replace("%label%", label)));
+                return true;
+            }
+
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.exportStarted",
+                "&7Exporting &e%what%&7...")
+                .replace("%what%", RollExporter.describe(request))));
+            exporter.export(request, rows -> sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                    "command.exportProgress",
+                    "&7Export: &e%rows% &7rows written...")
+                    .replace("%rows%", String.valueOf(rows)))))
+                .whenCompleteAsync((result, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                        if (cause instanceof IllegalStateException) {
+                            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                                "command.exportBusy",
+                                "&cAn export is already running.")));
+                            return;
+                        }
+                        plugin.getLogger().log(java.util.logging.Level.WARNING, "Export failed", cause);
+                        sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                            "command.exportFailed",
+                            "&cExport failed: %error%")
+                            .replace("%error%", String.valueOf(cause.getMessage()))));
+                        return;
+                    }
+                    sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                        "command.exportDone",
+                        "&aExported &e%rows% &arows to &e%file% &7(%seconds%s)")
+                        .replace("%rows%", String.valueOf(result.rows))
+                        .replace("%file%", result.file.getName())
+                        .replace("%seconds%", String.format(Locale.ROOT, "%.1f", result.millis / 1000.0))));
+                }, exporter.mainThread());
+            return true;
+        }
+
         sender.sendMessage(TextFormatter.format(plugin.getMessage(
             "command.unknownSubcommand",
             "&cUnknown subcommand.")));
         return true;
     }
     
+    /**
+     * Records that the page fetched after {@code cursor} is now showing and trims the look-ahead
+     * row. {@code rows} holds up to {@code limit + 1} rows.
+     */
+    private static <C, R> List<R> turnPage(PageSession<C> session, String page, C cursor, List<R> rows,
+                                           java.util.function.Function<R, C> cursorOf) {
+        if (page.equals("prev")) {
+            session.starts.remove(session.starts.size() - 1);
+        } else {
+            session.starts.add(cursor);
+        }
+        List<R> shown = rows.size() > session.limit ? rows.subList(0, session.limit) : rows;
+        session.next = rows.size() > session.limit ? cursorOf.apply(shown.get(shown.size() - 1)) : null;
+        return shown;
+    }
+
+    private void sendPageFooter(CommandSender sender, String label, String subcommand, PageSession<?> session) {
+        if (session.next == null && session.starts.size() <= 1) {
+            sender.sendMessage(TextFormatter.format(plugin.getMessage(
+                "command.sectionFooter",
+                "&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━")));
+            return;
+        }
+        sender.sendMessage(TextFormatter.format(plugin.getMessage(
+            "command.pageFooter",
+            "&6&l━━━━━━ &7Page &e%page% &8- &7/%label% %subcommand% next|prev &6&l━━━━━━")
+            .replace("%page%", String.valueOf(session.starts.size()))
+            .replace("%label%", label)
+            .replace("%subcommand%", subcommand)));
+    }
+
+    /**
+     * Message for a failed {@link AsyncRuneQueries} future.
+     */
+    private String describeQueryError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return plugin.getMessage("command.queryTimedOut", "the database took too long to respond");
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return plugin.getMessage("command.queryBusy", "the database is busy, try again shortly");
+        }
+        return String.valueOf(cause.getMessage());
+    }
+
     private String getTierColor(RuneTier tier) {
         switch (tier) {
             case COMMON: return "&f";
@@ -577,6 +875,47 @@ public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
         return days + "d ago";
     }
 
+    /**
+     * {@code export <rolls|players> [csv|ndjson] [gzip] [from:YYYY-MM-DD] [to:YYYY-MM-DD]}; the
+     * date range is inclusive, in the server time zone. Returns null if the arguments are invalid.
+     */
+    private static RollExporter.Request parseExportRequest(String[] args) {
+        if (args.length < 2) return null;
+        RollExporter.Table table;
+        switch (args[1].toLowerCase(Locale.ROOT)) {
+            case "rolls": table = RollExporter.Table.ROLLS; break;
+            case "players": table = RollExporter.Table.PLAYERS; break;
+            default: return null;
+        }
+
+        RollExporter.Format format = RollExporter.Format.CSV;
+        boolean gzip = false;
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        java.time.ZoneId zone = java.time.ZoneId.systemDefault();
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i].toLowerCase(Locale.ROOT);
+            try {
+                if (arg.equals("csv")) {
+                    format = RollExporter.Format.CSV;
+                } else if (arg.equals("ndjson") || arg.equals("json")) {
+                    format = RollExporter.Format.NDJSON;
+                } else if (arg.equals("gzip") || arg.equals("gz")) {
+                    gzip = true;
+                } else if (arg.startsWith("from:")) {
+                    from = java.time.LocalDate.parse(arg.substring(5)).atStartOfDay(zone).toInstant().toEpochMilli();
+                } else if (arg.startsWith("to:")) {
+                    to = java.time.LocalDate.parse(arg.substring(3)).plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+                } else {
+                    return null;
+                }
+            } catch (java.time.format.DateTimeParseException e) {
+                return null;
+            }
+        }
+        return new RollExporter.Request(table, format, gzip, from, to);
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (!command.getName().equalsIgnoreCase("bubblerune")) {
@@ -586,7 +925,7 @@ public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            List<String> options = Arrays.asList("reload", "settable", "gui", "giverune", "testroll", "quests", "debug", "stats", "history", "leaderboard", "top");
+            List<String> options = Arrays.asList("reload", "settable", "gui", "giverune", "testroll", "quests", "debug", "stats", "history", "leaderboard", "top", "dbstats", "export");
             String current = args[0].toLowerCase();
             for (String opt : options) {
                 if (opt.startsWith(current)) {
@@ -596,6 +935,19 @@ public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
             return completions;
         }
 
+        if (args.length >= 2 && args[0].equalsIgnoreCase("export")) {
+            String current = args[args.length - 1].toLowerCase();
+            List<String> opts = args.length == 2
+                ? Arrays.asList("rolls", "players")
+                : Arrays.asList("csv", "ndjson", "gzip", "from:", "to:");
+            for (String opt : opts) {
+                if (opt.startsWith(current)) {
+                    completions.add(opt);
+                }
+            }
+            return completions;
+        }
+
         if (args.length == 2 && args[0].equalsIgnoreCase("debug")) {
             String current = args[1].toLowerCase();
             for (String opt : Arrays.asList("on", "off", "toggle")) {
@@ -606,6 +958,17 @@ public class BubbleRuneCommand implements CommandExecutor, TabCompleter {
             return completions;
         }
 
+        if (args.length == 2 && (args[0].equalsIgnoreCase("history") || args[0].equalsIgnoreCase("leaderboard")
+                || args[0].equalsIgnoreCase("top"))) {
+            String current = args[1].toLowerCase();
+            for (String opt : Arrays.asList("next", "prev")) {
+                if (opt.startsWith(current)) {
+                    completions.add(opt);
+                }
+            }
+            return completions;
+        }
+
         if (args.length == 2 && args[0].equalsIgnoreCase("settable")) {
             // Tab complete table names from config
             String current = args[1].toLowerCase();
@@ -4,13 +4,40 @@ import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each distinct params string is parsed once into a {@link Resolver} with its tier, position or
+ * quest id already bound, and cached; after that a request is one map lookup plus the value read.
+ */
 public class BubbleRunePlaceholderExpansion extends PlaceholderExpansion {
+    private static final int[] MILESTONES = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    // Params are free text from other plugins' configs; stop caching past this many distinct strings
+    private static final int MAX_CACHED_PARAMS = 1024;
+
+    @FunctionalInterface
+    private interface Resolver {
+        String resolve(OfflinePlayer player);
+    }
+
+    private static final Resolver UNKNOWN = player -> null;
+
     private final BubbleRunePlugin plugin;
     private final String identifier;
+    // Placeholders without arguments, keyed by lower-case name (they match case-insensitively)
+    private final Map<String, Resolver> fixed = new HashMap<>();
+    private final Map<String, Resolver> resolvers = new ConcurrentHashMap<>();
 
     public BubbleRunePlaceholderExpansion(BubbleRunePlugin plugin, String identifier) {
         this.plugin = plugin;
         this.identifier = (identifier == null || identifier.isBlank()) ? "bubblerune" : identifier;
+        registerFixed();
     }
 
     private PlaceholderStatsCache cache() {
@@ -39,177 +66,268 @@ public class BubbleRunePlaceholderExpansion extends PlaceholderExpansion {
 
     @Override
     public String onRequest(OfflinePlayer player, @NotNull String params) {
-        StatsManager stats = plugin.getStatsManager();
-        PlaceholderStatsCache cache = cache();
-        
+        Resolver resolver = resolvers.get(params);
+        if (resolver == null) {
+            resolver = parse(params);
+            if (resolvers.size() < MAX_CACHED_PARAMS) {
+                resolvers.put(params, resolver);
+            }
+        }
+        return resolver.resolve(player);
+    }
+
+    private void registerFixed() {
         // Basic stats
-        if (params.equalsIgnoreCase("total_rolls")) {
+        fixed.put("total_rolls", player -> {
+            PlaceholderStatsCache cache = cache();
             if (cache != null) return String.valueOf(cache.getGlobalTotalRolls());
-            return String.valueOf(stats.getTotalRolls());
-        }
-        
-        if (params.equalsIgnoreCase("player_rolls")) {
+            return String.valueOf(plugin.getStatsManager().getTotalRolls());
+        });
+        fixed.put("unique_players_today", player -> {
+            PlaceholderStatsCache cache = cache();
+            return cache != null ? String.valueOf(cache.getUniquePlayersToday()) : "0";
+        });
+        fixed.put("unique_players_week", player -> {
+            PlaceholderStatsCache cache = cache();
+            return cache != null ? String.valueOf(cache.getUniquePlayersWeek()) : "0";
+        });
+        fixed.put("unique_players_month", player -> {
+            PlaceholderStatsCache cache = cache();
+            return cache != null ? String.valueOf(cache.getUniquePlayersMonth()) : "0";
+        });
+        fixed.put("player_rolls", player -> {
             if (player == null) return "0";
-            if (cache != null) return String.valueOf(cache.getPlayerRolls(player.getUniqueId()));
-            return String.valueOf(stats.getPlayerRolls(player.getUniqueId()));
-        }
-        
-        if (params.startsWith("tier_")) {
-            String tierName = params.substring(5).toUpperCase();
-            try {
-                RuneTier tier = RuneTier.valueOf(tierName);
-                if (cache != null) return String.valueOf(cache.getGlobalTierCount(tier));
-                return String.valueOf(stats.getTierCount(tier));
-            } catch (IllegalArgumentException e) {
-                return "0";
-            }
-        }
-        
-        if (params.equalsIgnoreCase("cooldown")) {
+            return String.valueOf(playerRolls(player.getUniqueId()));
+        });
+        fixed.put("cooldown", player -> {
             if (player == null) return "0";
-            CooldownManager cooldown = plugin.getCooldownManager();
-            return String.valueOf(cooldown.getRemainingCooldown(player.getUniqueId()));
-        }
-        
-        // Leaderboard positions (1-10)
-        if (params.startsWith("leaderboard_")) {
-            String[] parts = params.split("_");
-            if (parts.length == 2) {
-                try {
-                    int position = Integer.parseInt(parts[1]);
-                    if (position < 1 || position > 10) return "N/A";
-                    if (cache != null) return cache.getTopPlayerName(position);
-                    return stats.getTopPlayerName(position);
-                } catch (NumberFormatException e) {
-                    return "N/A";
-                }
-            }
-        }
-        
-        if (params.startsWith("leaderboard_rolls_")) {
-            String[] parts = params.split("_");
-            if (parts.length == 3) {
-                try {
-                    int position = Integer.parseInt(parts[2]);
-                    if (position < 1 || position > 10) return "0";
-                    if (cache != null) return String.valueOf(cache.getTopPlayerRolls(position));
-                    return String.valueOf(stats.getTopPlayerRolls(position));
-                } catch (NumberFormatException e) {
-                    return "0";
-                }
-            }
-        }
-        
+            return String.valueOf(plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId()));
+        });
+
         // Player rank
-        if (params.equalsIgnoreCase("rank")) {
+        fixed.put("rank", player -> {
             if (player == null) return "N/A";
+            PlaceholderStatsCache cache = cache();
             if (cache != null) {
                 Integer rank = cache.getPlayerRank(player.getUniqueId());
                 return rank != null ? String.valueOf(rank) : "N/A";
             }
-            return String.valueOf(stats.getPlayerRank(player.getUniqueId()));
-        }
-        
+            return String.valueOf(plugin.getStatsManager().getPlayerRank(player.getUniqueId()));
+        });
+
         // Milestones
-        if (params.equalsIgnoreCase("next_milestone")) {
+        fixed.put("next_milestone", player -> {
             if (player == null) return "0";
-            int rolls = (cache != null) ? cache.getPlayerRolls(player.getUniqueId()) : stats.getPlayerRolls(player.getUniqueId());
-            int[] milestones = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
-            for (int milestone : milestones) {
-                if (rolls < milestone) {
-                    return String.valueOf(milestone);
-                }
-            }
-            return "MAX";
-        }
-        
-        if (params.equalsIgnoreCase("milestone_progress")) {
+            int milestone = nextMilestone(playerRolls(player.getUniqueId()));
+            return milestone > 0 ? String.valueOf(milestone) : "MAX";
+        });
+        fixed.put("milestone_progress", player -> {
             if (player == null) return "0";
-            int rolls = (cache != null) ? cache.getPlayerRolls(player.getUniqueId()) : stats.getPlayerRolls(player.getUniqueId());
-            int[] milestones = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
-            for (int milestone : milestones) {
-                if (rolls < milestone) {
-                    return rolls + "/" + milestone;
-                }
-            }
-            return "MAX";
-        }
-        
-        if (params.equalsIgnoreCase("milestone_percent")) {
+            int rolls = playerRolls(player.getUniqueId());
+            int milestone = nextMilestone(rolls);
+            return milestone > 0 ? rolls + "/" + milestone : "MAX";
+        });
+        fixed.put("milestone_percent", player -> {
             if (player == null) return "0";
-            int rolls = (cache != null) ? cache.getPlayerRolls(player.getUniqueId()) : stats.getPlayerRolls(player.getUniqueId());
-            int[] milestones = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
-            for (int milestone : milestones) {
-                if (rolls < milestone) {
-                    return String.valueOf((int) ((double) rolls / milestone * 100));
-                }
-            }
-            return "100";
-        }
-        
+            int rolls = playerRolls(player.getUniqueId());
+            int milestone = nextMilestone(rolls);
+            return milestone > 0 ? String.valueOf((int) ((double) rolls / milestone * 100)) : "100";
+        });
+
         // Weekly quests
-        if (params.equalsIgnoreCase("quest_count")) {
+        fixed.put("quest_count", player -> {
             if (player == null) return "0";
             WeeklyQuestManager questManager = plugin.getQuestManager();
             if (questManager == null) return "0";
+            List<String> questIds = questManager.getAllQuestIds();
             int completed = 0;
-            for (String questId : questManager.getAllQuestIds()) {
-                if (questManager.isCompleted(player.getUniqueId(), questId)) {
+            for (int i = 0; i < questIds.size(); i++) {
+                if (questManager.isCompleted(player.getUniqueId(), questIds.get(i))) {
                     completed++;
                 }
             }
-            return completed + "/" + questManager.getAllQuestIds().size();
-        }
-        
-        if (params.equalsIgnoreCase("quest_reset")) {
+            return completed + "/" + questIds.size();
+        });
+        fixed.put("quest_reset", player -> {
             WeeklyQuestManager questManager = plugin.getQuestManager();
             if (questManager == null) return "N/A";
             return questManager.getFormattedTimeUntilReset();
+        });
+
+        // Rarest rune obtained
+        fixed.put("rarest_rune", player -> {
+            if (player == null) return "None";
+            PlaceholderStatsCache cache = cache();
+            if (cache != null) return cache.getRarestRuneObtained(player.getUniqueId());
+            return plugin.getStatsManager().getRarestRuneObtained(player.getUniqueId());
+        });
+
+        // Total XP spent on runes
+        fixed.put("total_xp_spent", player -> {
+            if (player == null) return "0";
+            PlaceholderStatsCache cache = cache();
+            if (cache != null) return String.valueOf(cache.getPlayerTotalXpSpent(player.getUniqueId()));
+            return String.valueOf(plugin.getStatsManager().getTotalXpSpent(player.getUniqueId()));
+        });
+    }
+
+    /**
+     * Builds the resolver for one params string; runs once per distinct string.
+     */
+    private Resolver parse(String params) {
+        Resolver resolver = fixed.get(params.toLowerCase(Locale.ROOT));
+        if (resolver != null) return resolver;
+
+        if (params.startsWith("tier_")) {
+            RuneTier tier = parseTier(params.substring(5));
+            if (tier == null) return player -> "0";
+            return player -> {
+                PlaceholderStatsCache cache = cache();
+                if (cache != null) return String.valueOf(cache.getGlobalTierCount(tier));
+                return String.valueOf(plugin.getStatsManager().getTierCount(tier));
+            };
+        }
+
+        // Leaderboard positions (1-10)
+        if (params.startsWith("leaderboard_")) {
+            String[] parts = params.split("_");
+            if (parts.length == 2) {
+                int position = parsePosition(parts[1], 10);
+                if (position < 1) return player -> "N/A";
+                return player -> {
+                    PlaceholderStatsCache cache = cache();
+                    if (cache != null) return cache.getTopPlayerName(position);
+                    return plugin.getStatsManager().getTopPlayerName(position);
+                };
+            }
+        }
+
+        if (params.startsWith("leaderboard_rolls_")) {
+            String[] parts = params.split("_");
+            if (parts.length == 3) {
+                int position = parsePosition(parts[2], 10);
+                if (position < 1) return player -> "0";
+                return player -> {
+                    PlaceholderStatsCache cache = cache();
+                    if (cache != null) return String.valueOf(cache.getTopPlayerRolls(position));
+                    return String.valueOf(plugin.getStatsManager().getTopPlayerRolls(position));
+                };
+            }
+        }
+
+        // Configurable boards: top_<metric>_<position>[_value]
+        if (params.startsWith("top_")) {
+            boolean value = params.endsWith("_value");
+            String rest = params.substring(4, value ? params.length() - 6 : params.length());
+            int split = rest.lastIndexOf('_');
+            Leaderboard.Metric metric = split > 0 ? Leaderboard.Metric.fromKey(rest.substring(0, split)) : null;
+            if (metric != null) {
+                int position = parsePosition(rest.substring(split + 1), Integer.MAX_VALUE);
+                if (value) {
+                    if (position < 1) return player -> "0";
+                    return player -> {
+                        PlaceholderStatsCache cache = cache();
+                        return cache != null ? String.valueOf(cache.getTopPlayerValue(metric, position)) : "0";
+                    };
+                }
+                if (position < 1) return player -> "N/A";
+                return player -> {
+                    PlaceholderStatsCache cache = cache();
+                    return cache != null ? cache.getTopPlayerName(metric, position) : "N/A";
+                };
+            }
+        }
+
+        // Per-slot cooldowns: cooldown_tier_<tier> and cooldown_table_<table>
+        if (params.startsWith("cooldown_tier_")) {
+            RuneTier tier = parseTier(params.substring(14));
+            if (tier == null) return player -> "0";
+            return player -> {
+                if (player == null) return "0";
+                return String.valueOf(plugin.getCooldownManager().getRemainingTierCooldown(player.getUniqueId(), tier));
+            };
         }
-        
+
+        if (params.startsWith("cooldown_table_")) {
+            String tableId = params.substring(15);
+            return player -> {
+                if (player == null) return "0";
+                // Looked up per request: a reload may add or remove the table
+                int table = plugin.getRuneTableIndex(tableId);
+                if (table == CooldownManager.NO_TABLE) return "0";
+                return String.valueOf(plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId(), table));
+            };
+        }
+
         if (params.startsWith("quest_progress_")) {
-            if (player == null) return "0";
-            WeeklyQuestManager questManager = plugin.getQuestManager();
-            if (questManager == null) return "0";
             String questId = params.substring(15);
-            return String.valueOf(questManager.getProgress(player.getUniqueId(), questId));
+            return player -> {
+                if (player == null) return "0";
+                WeeklyQuestManager questManager = plugin.getQuestManager();
+                if (questManager == null) return "0";
+                return String.valueOf(questManager.getProgress(player.getUniqueId(), questId));
+            };
         }
-        
+
         if (params.startsWith("quest_complete_")) {
-            if (player == null) return "false";
-            WeeklyQuestManager questManager = plugin.getQuestManager();
-            if (questManager == null) return "false";
             String questId = params.substring(15);
-            return String.valueOf(questManager.isCompleted(player.getUniqueId(), questId));
+            return player -> {
+                if (player == null) return "false";
+                WeeklyQuestManager questManager = plugin.getQuestManager();
+                if (questManager == null) return "false";
+                return String.valueOf(questManager.isCompleted(player.getUniqueId(), questId));
+            };
         }
-        
+
         // Tier-specific player stats
         if (params.startsWith("player_tier_")) {
-            if (player == null) return "0";
-            String tierName = params.substring(12).toUpperCase();
-            try {
-                RuneTier tier = RuneTier.valueOf(tierName);
+            RuneTier tier = parseTier(params.substring(12));
+            if (tier == null) return player -> "0";
+            return player -> {
+                if (player == null) return "0";
+                PlaceholderStatsCache cache = cache();
                 if (cache != null) return String.valueOf(cache.getPlayerTierRolls(player.getUniqueId(), tier));
-                return String.valueOf(stats.getPlayerTierCount(player.getUniqueId(), tier));
-            } catch (IllegalArgumentException e) {
-                return "0";
+                return String.valueOf(plugin.getStatsManager().getPlayerTierCount(player.getUniqueId(), tier));
+            };
+        }
+
+        return UNKNOWN;
+    }
+
+    private int playerRolls(UUID uuid) {
+        PlaceholderStatsCache cache = cache();
+        return cache != null ? cache.getPlayerRolls(uuid) : plugin.getStatsManager().getPlayerRolls(uuid);
+    }
+
+    /**
+     * First milestone above {@code rolls}, or 0 once every milestone is reached.
+     */
+    private static int nextMilestone(int rolls) {
+        for (int milestone : MILESTONES) {
+            if (rolls < milestone) {
+                return milestone;
             }
         }
-        
-        // Rarest rune obtained
-        if (params.equalsIgnoreCase("rarest_rune")) {
-            if (player == null) return "None";
-            if (cache != null) return cache.getRarestRuneObtained(player.getUniqueId());
-            return stats.getRarestRuneObtained(player.getUniqueId());
+        return 0;
+    }
+
+    private static RuneTier parseTier(String name) {
+        try {
+            return RuneTier.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        
-        // Total XP spent on runes
-        if (params.equalsIgnoreCase("total_xp_spent")) {
-            if (player == null) return "0";
-            if (cache != null) return String.valueOf(cache.getPlayerTotalXpSpent(player.getUniqueId()));
-            return String.valueOf(stats.getTotalXpSpent(player.getUniqueId()));
+    }
+
+    /**
+     * Leaderboard position from 1 to {@code max}, or 0 if the text is not one.
+     */
+    private static int parsePosition(String text, int max) {
+        try {
+            int position = Integer.parseInt(text);
+            return position >= 1 && position <= max ? position : 0;
+        } catch (NumberFormatException e) {
+            return 0;
         }
-        
-        return null;
     }
 }
@@ -10,10 +10,17 @@ import org.bukkit.plugin.java.JavaPlugin;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BubbleRunePlugin extends JavaPlugin {
     private static BubbleRunePlugin instance;
     private List<Location> runeTableLocations = new ArrayList<>();
+    // Cooldown slot of each table in runeTableLocations, by index
+    private List<Integer> runeTableSlots = new ArrayList<>();
+    // Cooldown slot per table key, assigned on first sight and never reused, so running table
+    // cooldowns stay with their table when a reload adds, removes or skips tables
+    private final Map<String, Integer> tableSlots = new ConcurrentHashMap<>();
     private RuneService runeService;
     private CooldownManager cooldownManager;
     private StatsManager statsManager;
@@ -52,6 +59,7 @@ public class BubbleRunePlugin extends JavaPlugin {
             
             runeService = new RuneService(this);
             cooldownManager = new CooldownManager(getConfig().getInt("cooldown.seconds", 60));
+            configureCooldowns(getConfig());
             statsManager = new StatsManager();
             
             // Initialize weekly quests if enabled
@@ -88,6 +96,10 @@ public class BubbleRunePlugin extends JavaPlugin {
 
         // Register PlaceholderAPI expansion if available
         if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
+            // Per-player snapshots are only kept while something can read them
+            Bukkit.getPluginManager().registerEvents(placeholderStatsCache, this);
+            placeholderStatsCache.trackOnlinePlayers();
+
             try {
                 boolean registeredAny = false;
 
@@ -121,7 +133,7 @@ public class BubbleRunePlugin extends JavaPlugin {
     }
     
     private void startCleanupTasks() {
-        // Cleanup expired cooldowns every 5 minutes
+        // Advance the cooldown timing wheel every second
         Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
             try {
                 if (cooldownManager != null) {
@@ -130,7 +142,7 @@ public class BubbleRunePlugin extends JavaPlugin {
             } catch (Exception e) {
                 getLogger().warning("Error during cooldown cleanup: " + e.getMessage());
             }
-        }, 6000L, 6000L); // 5 minutes = 6000 ticks
+        }, 20L, 20L); // 1 second = 20 ticks
     }
 
     @Override
@@ -152,6 +164,7 @@ public class BubbleRunePlugin extends JavaPlugin {
     public void reloadConfigValues() {
         FileConfiguration cfg = getConfig();
         runeTableLocations.clear();
+        runeTableSlots.clear();
 
         debugEnabled = cfg.getBoolean("debug", false);
 
@@ -167,6 +180,7 @@ public class BubbleRunePlugin extends JavaPlugin {
                 if (worldName != null && Bukkit.getWorld(worldName) != null) {
                     Location loc = new Location(Bukkit.getWorld(worldName), x, y, z);
                     runeTableLocations.add(loc);
+                    runeTableSlots.add(tableSlot(key));
                 }
             }
         }
@@ -181,12 +195,17 @@ public class BubbleRunePlugin extends JavaPlugin {
             if (worldName != null && Bukkit.getWorld(worldName) != null) {
                 Location loc = new Location(Bukkit.getWorld(worldName), x, y, z);
                 runeTableLocations.add(loc);
+                runeTableSlots.add(tableSlot("runeTable"));
             }
         }
 
         // Reload cooldown settings
         if (cooldownManager != null) {
-            cooldownManager.setCooldownSeconds(cfg.getInt("cooldown.seconds", 60));
+            configureCooldowns(cfg);
+        }
+
+        if (questManager != null) {
+            questManager.reloadQuestIds();
         }
 
         restartPlaceholderRefreshTask();
@@ -223,6 +242,10 @@ public class BubbleRunePlugin extends JavaPlugin {
         long refreshSeconds = getConfig().getLong("placeholders.refreshSeconds", 300L);
         if (refreshSeconds < 5L) refreshSeconds = 5L;
         long refreshTicks = refreshSeconds * 20L;
+        placeholderStatsCache.setFullRefreshIntervalMillis(
+            getConfig().getLong("placeholders.fullRefreshMinutes", 30L) * 60_000L);
+        placeholderStatsCache.setLeaderboardSize(getConfig().getInt("placeholders.leaderboardSize", 100));
+        placeholderStatsCache.setSessionGraceSeconds(getConfig().getLong("placeholders.sessionGraceSeconds", 60L));
 
         // Prime cache immediately.
         Bukkit.getScheduler().runTaskAsynchronously(this, () -> {
@@ -247,6 +270,55 @@ public class BubbleRunePlugin extends JavaPlugin {
         return runeTableLocations;
     }
     
+    /**
+     * Cooldown slot of the rune table at this block, or {@link CooldownManager#NO_TABLE} if no
+     * table is there. Slots are stable across reloads.
+     */
+    public int getRuneTableIndex(Location location) {
+        if (location == null || location.getWorld() == null) return CooldownManager.NO_TABLE;
+        for (int i = 0; i < runeTableLocations.size(); i++) {
+            Location table = runeTableLocations.get(i);
+            if (table != null && location.getWorld().equals(table.getWorld()) &&
+                location.getBlockX() == table.getBlockX() &&
+                location.getBlockY() == table.getBlockY() &&
+                location.getBlockZ() == table.getBlockZ()) {
+                return runeTableSlots.get(i);
+            }
+        }
+        return CooldownManager.NO_TABLE;
+    }
+
+    /**
+     * Cooldown slot of the loaded rune table with this {@code runeTables} key, or
+     * {@link CooldownManager#NO_TABLE}.
+     */
+    public int getRuneTableIndex(String id) {
+        Integer slot = tableSlots.get(id);
+        return slot != null && runeTableSlots.contains(slot) ? slot : CooldownManager.NO_TABLE;
+    }
+
+    private int tableSlot(String id) {
+        return tableSlots.computeIfAbsent(id, key -> tableSlots.size());
+    }
+
+    /**
+     * Global floor from {@code cooldown.seconds}, per-tier cooldowns from
+     * {@code cooldown.tiers.<tier>} and per-table cooldowns from {@code cooldown.tables.<table>}.
+     */
+    private void configureCooldowns(FileConfiguration cfg) {
+        RuneTier[] tiers = RuneTier.values();
+        int[] tierSeconds = new int[tiers.length];
+        for (int i = 0; i < tiers.length; i++) {
+            tierSeconds[i] = cfg.getInt("cooldown.tiers." + tiers[i].getConfigKey(), 0);
+        }
+        // Every slot ever assigned; those of tables no longer loaded are simply never used
+        int[] tableSeconds = new int[tableSlots.size()];
+        for (Map.Entry<String, Integer> table : tableSlots.entrySet()) {
+            tableSeconds[table.getValue()] = cfg.getInt("cooldown.tables." + table.getKey(), 0);
+        }
+        cooldownManager.configure(cfg.getInt("cooldown.seconds", 60), tierSeconds, tableSeconds);
+    }
+
     @Deprecated
     public Location getRuneTableLocation() {
         return runeTableLocations.isEmpty() ? null : runeTableLocations.get(0);
@@ -297,6 +369,22 @@ public class BubbleRunePlugin extends JavaPlugin {
     public DatabaseManager getDatabaseManager() {
         return databaseManager;
     }
+
+    /**
+     * Storage for stats and history reads, or null if the database failed to initialize.
+     */
+    public RuneStorage getStorage() {
+        DatabaseManager db = databaseManager;
+        return db != null && db.getBackend() != null ? db : null;
+    }
+
+    /**
+     * Async, rate-limited reads for commands; null if the database is not available.
+     */
+    public AsyncRuneQueries getQueries() {
+        DatabaseManager db = databaseManager;
+        return db != null && db.getBackend() != null ? db.getQueries() : null;
+    }
     
     private void loadRunesConfig() {
         File runesFile = new File(getDataFolder(), "runes.yml");
@@ -1,94 +1,327 @@
 package com.bubblecraft.bubblerune;
 
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
+/**
+ * Per-player rune table cooldowns.
+ *
+ * A roll starts up to three cooldowns: the global floor ({@code cooldown.seconds}), which locks
+ * every table; one for the rolled tier, which only keeps that tier out of later rolls; and one for
+ * the table it was rolled at. Each player holds one {@code long[]} of deadlines indexed by slot,
+ * replaced whole on every roll, so reads are an array index with no allocation and never see a
+ * half-written update.
+ *
+ * Deadlines are {@link System#nanoTime()} offsets from the manager's creation, so wall clock
+ * changes (NTP steps, DST, an admin changing the date) never shorten or extend a cooldown, and 0
+ * marks an unused slot. Each player's latest deadline is also filed in a hashed timing wheel of
+ * one-second buckets; {@link #cleanupExpired()} runs every second and only visits the buckets whose
+ * time has passed, so a player is dropped within a second of their last cooldown ending and the
+ * cost is proportional to what expired rather than to the size of the table.
+ */
 public class CooldownManager {
-    private final Map<UUID, Long> cooldowns = new ConcurrentHashMap<>();
-    private volatile long cooldownMillis;
+    /** Table index for rolls made away from a configured table. */
+    public static final int NO_TABLE = -1;
+
+    private static final long TICK_NANOS = 1_000_000_000L;
+    // 512 one-second buckets: cooldowns longer than ~8.5 minutes wait out extra rotations
+    private static final int WHEEL_SIZE = 512;
+
+    // Slot layout: latest deadline of any slot, global floor, one per tier, then one per table
+    private static final int EXPIRES = 0;
+    private static final int GLOBAL = 1;
+    private static final int FIRST_TIER = 2;
+    private static final int FIRST_TABLE = FIRST_TIER + RuneTier.values().length;
+
+    private final Map<UUID, long[]> cooldowns = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final long origin;
+    private volatile Policy policy;
+
+    // Guarded by the wheel itself
+    private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+    private long nextTick;
+
+    /**
+     * Cooldown lengths in nanoseconds, replaced as a whole on reload.
+     */
+    private static final class Policy {
+        final long global;
+        final long[] tiers;
+        final long[] tables;
+
+        Policy(long global, long[] tiers, long[] tables) {
+            this.global = global;
+            this.tiers = tiers;
+            this.tables = tables;
+        }
+
+        long table(int table) {
+            return table >= 0 && table < tables.length ? tables[table] : 0L;
+        }
+    }
+
+    /**
+     * Players filed under one wheel slot with the deadline they were filed for; entries for later
+     * rotations stay until due.
+     */
+    private static final class Bucket {
+        private static final int INITIAL_CAPACITY = 8;
+
+        UUID[] players = new UUID[INITIAL_CAPACITY];
+        long[] deadlines = new long[INITIAL_CAPACITY];
+        int size;
+
+        void add(UUID player, long deadline) {
+            if (size == players.length) {
+                players = Arrays.copyOf(players, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            players[size] = player;
+            deadlines[size] = deadline;
+            size++;
+        }
+
+        /**
+         * Removes due entries (dropping the player unless a later roll extended their cooldowns)
+         * and compacts the rest; a bucket that held a burst shrinks back afterwards.
+         */
+        void expire(long now, Map<UUID, long[]> cooldowns) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (deadlines[i] - now <= 0) {
+                    long[] slots = cooldowns.get(players[i]);
+                    if (slots != null && slots[EXPIRES] - now <= 0) {
+                        // Fails if a roll replaced the array meanwhile
+                        cooldowns.remove(players[i], slots);
+                    }
+                } else {
+                    players[kept] = players[i];
+                    deadlines[kept] = deadlines[i];
+                    kept++;
+                }
+            }
+            Arrays.fill(players, kept, size, null);
+            size = kept;
+            if (players.length > INITIAL_CAPACITY && size < players.length / 4) {
+                int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, size)) * 2);
+                players = Arrays.copyOf(players, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+            }
+        }
+    }
 
     public CooldownManager(int cooldownSeconds) {
-        this.cooldownMillis = cooldownSeconds * 1000L;
+        this(cooldownSeconds, System::nanoTime);
+    }
+
+    CooldownManager(int cooldownSeconds, LongSupplier clock) {
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.policy = new Policy(toNanos(cooldownSeconds), new long[RuneTier.values().length], new long[0]);
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
     }
 
+    /**
+     * Sets only the global floor, keeping tier and table cooldowns.
+     */
     public void setCooldownSeconds(int seconds) {
-        this.cooldownMillis = Math.max(0, seconds * 1000L);
+        Policy current = policy;
+        policy = new Policy(toNanos(seconds), current.tiers, current.tables);
     }
 
-    public boolean isOnCooldown(UUID playerId) {
-        if (playerId == null) return false;
-        
-        Long expire = cooldowns.get(playerId);
-        if (expire == null) {
-            return false;
+    /**
+     * Replaces every cooldown length. {@code tierSeconds} is indexed by {@link RuneTier#ordinal()}
+     * and {@code tableSeconds} by table index; 0 disables that cooldown. Running cooldowns keep
+     * their deadlines.
+     */
+    public void configure(int globalSeconds, int[] tierSeconds, int[] tableSeconds) {
+        long[] tiers = new long[RuneTier.values().length];
+        for (int i = 0; i < tiers.length && i < tierSeconds.length; i++) {
+            tiers[i] = toNanos(tierSeconds[i]);
         }
-        
-        long now = System.currentTimeMillis();
-        if (now >= expire) {
-            // Auto-cleanup expired cooldown
-            cooldowns.remove(playerId);
-            return false;
+        long[] tables = new long[tableSeconds.length];
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = toNanos(tableSeconds[i]);
         }
-        return true;
+        policy = new Policy(toNanos(globalSeconds), tiers, tables);
     }
 
+    /**
+     * Whether the global floor is running, which locks every table.
+     */
+    public boolean isOnCooldown(UUID playerId) {
+        return remainingNanos(playerId, GLOBAL) > 0;
+    }
+
+    /**
+     * Whether the player is locked out of the given table by the global floor or that table's own
+     * cooldown.
+     */
+    public boolean isOnCooldown(UUID playerId, int table) {
+        return tableRemainingNanos(playerId, table) > 0;
+    }
+
+    public boolean isTierOnCooldown(UUID playerId, RuneTier tier) {
+        return remainingNanos(playerId, tierSlot(tier)) > 0;
+    }
+
+    /**
+     * Seconds left on the global floor.
+     */
     public long getRemainingCooldown(UUID playerId) {
-        if (playerId == null) return 0;
-        
-        Long expire = cooldowns.get(playerId);
-        if (expire == null) {
-            return 0;
-        }
-        
-        long now = System.currentTimeMillis();
-        long remaining = expire - now;
-        
-        if (remaining <= 0) {
-            cooldowns.remove(playerId);
-            return 0;
-        }
-        
-        return remaining / 1000;
+        return remainingNanos(playerId, GLOBAL) / TICK_NANOS;
+    }
+
+    /**
+     * Seconds until the given table can be used: the longer of the global floor and the table's
+     * own cooldown.
+     */
+    public long getRemainingCooldown(UUID playerId, int table) {
+        return tableRemainingNanos(playerId, table) / TICK_NANOS;
+    }
+
+    public long getRemainingTierCooldown(UUID playerId, RuneTier tier) {
+        return remainingNanos(playerId, tierSlot(tier)) / TICK_NANOS;
     }
 
+    /**
+     * Starts only the global floor, as for a roll with no tier or table.
+     */
     public void setCooldown(UUID playerId) {
+        setCooldown(playerId, null, NO_TABLE);
+    }
+
+    /**
+     * Starts the cooldowns for a roll of {@code tier} (may be null) at {@code table} (may be
+     * {@link #NO_TABLE}). A running cooldown is never shortened.
+     */
+    public void setCooldown(UUID playerId, RuneTier tier, int table) {
         if (playerId == null) return;
-        
-        long now = System.currentTimeMillis();
-        cooldowns.put(playerId, now + cooldownMillis);
+        Policy p = policy;
+        long tierNanos = tier != null ? p.tiers[tier.ordinal()] : 0L;
+        long tableNanos = p.table(table);
+        if (p.global <= 0 && tierNanos <= 0 && tableNanos <= 0) return;
+
+        long now = elapsed();
+        long[] updated = cooldowns.compute(playerId, (id, current) -> {
+            // Only players who rolled at a table with its own cooldown carry table slots
+            int length = tableNanos > 0 ? tableSlot(table) + 1 : FIRST_TABLE;
+            long[] slots = current == null
+                ? new long[length]
+                : Arrays.copyOf(current, Math.max(length, current.length));
+            extend(slots, GLOBAL, now, p.global);
+            if (tier != null) extend(slots, tierSlot(tier), now, tierNanos);
+            extend(slots, tableSlot(table), now, tableNanos);
+            return slots;
+        });
+        synchronized (wheel) {
+            wheel[(int) (tickOf(updated[EXPIRES]) & (WHEEL_SIZE - 1))].add(playerId, updated[EXPIRES]);
+        }
     }
 
     public void removeCooldown(UUID playerId) {
         if (playerId == null) return;
+        // Its wheel entries find nothing and are dropped when their buckets come round
         cooldowns.remove(playerId);
     }
 
     public void clearAll() {
-        cooldowns.clear();
+        synchronized (wheel) {
+            cooldowns.clear();
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
     }
-    
+
     /**
-     * Cleanup expired cooldowns to prevent memory leaks
-     * Should be called periodically
+     * Number of players currently holding any cooldown.
+     */
+    public int getTrackedCount() {
+        return cooldowns.size();
+    }
+
+    /**
+     * Advances the wheel to now, expiring the buckets that have passed. Called every second.
+     * After a stall longer than one rotation every bucket is visited once, which is enough
+     * because entries are compared with the real time rather than their bucket.
      */
     public void cleanupExpired() {
-        long now = System.currentTimeMillis();
-        Iterator<Map.Entry<UUID, Long>> iterator = cooldowns.entrySet().iterator();
-        int removed = 0;
-        
-        while (iterator.hasNext()) {
-            Map.Entry<UUID, Long> entry = iterator.next();
-            if (entry.getValue() <= now) {
-                iterator.remove();
-                removed++;
+        long now = elapsed();
+        long currentTick = tickOf(now);
+        synchronized (wheel) {
+            int visited = 0;
+            while (nextTick < currentTick && visited < WHEEL_SIZE) {
+                wheel[(int) (nextTick & (WHEEL_SIZE - 1))].expire(now, cooldowns);
+                nextTick++;
+                visited++;
+            }
+            if (nextTick < currentTick) {
+                nextTick = currentTick;
             }
         }
-        
-        if (removed > 0) {
-            // Optional: log cleanup for monitoring
-            // System.out.println("Cleaned up " + removed + " expired cooldowns");
+    }
+
+    private long tableRemainingNanos(UUID playerId, int table) {
+        if (playerId == null) return 0L;
+        long[] slots = cooldowns.get(playerId);
+        if (slots == null) return 0L;
+        long now = elapsed();
+        long remaining = remaining(slots, GLOBAL, now);
+        if (table >= 0) {
+            remaining = Math.max(remaining, remaining(slots, tableSlot(table), now));
         }
+        return remaining;
+    }
+
+    private long remainingNanos(UUID playerId, int slot) {
+        if (playerId == null) return 0L;
+        long[] slots = cooldowns.get(playerId);
+        return slots != null ? remaining(slots, slot, elapsed()) : 0L;
+    }
+
+    private static long remaining(long[] slots, int slot, long now) {
+        if (slot >= slots.length || slots[slot] == 0L) return 0L;
+        return Math.max(0L, slots[slot] - now);
+    }
+
+    private static void extend(long[] slots, int slot, long now, long duration) {
+        if (duration <= 0) return;
+        long deadline = now + duration;
+        if (deadline > slots[slot]) {
+            slots[slot] = deadline;
+        }
+        if (deadline > slots[EXPIRES]) {
+            slots[EXPIRES] = deadline;
+        }
+    }
+
+    private static int tierSlot(RuneTier tier) {
+        return FIRST_TIER + tier.ordinal();
+    }
+
+    private static int tableSlot(int table) {
+        return FIRST_TABLE + table;
+    }
+
+    private static long toNanos(int seconds) {
+        return Math.max(0L, seconds * TICK_NANOS);
+    }
+
+    /**
+     * Nanoseconds since this manager was created.
+     */
+    private long elapsed() {
+        return clock.getAsLong() - origin;
+    }
+
+    private static long tickOf(long elapsed) {
+        return elapsed / TICK_NANOS;
     }
 }
@@ -1,22 +1,30 @@
 package com.bubblecraft.bubblerune;
 
-import org.bukkit.Bukkit;
-
 import java.io.File;
-import java.sql.*;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
-public class DatabaseManager {
+/**
+ * Front door for persistence. Picks the {@link RuneStorage} backend from {@code database.backend}
+ * and layers the roll journal, the write-behind queue and the in-memory rank index on top of it.
+ */
+public class DatabaseManager implements RuneStorage {
+    /** Journaled rolls written per transaction when replaying at startup. */
+    private static final int REPLAY_CHUNK = 500;
+
     private final BubbleRunePlugin plugin;
-    private Connection connection;
-    private final File databaseFile;
-    private final Object dbLock = new Object();
+    private RuneStorage backend;
+    private RollWriteQueue writeQueue;
+    private RetentionJob retentionJob;
+    private AsyncRuneQueries queries;
+    private RollJournal journal;
+    private RollExporter exporter;
+    private final RankIndex rankIndex = new RankIndex();
 
     public DatabaseManager(BubbleRunePlugin plugin) {
         this.plugin = plugin;
-        this.databaseFile = new File(plugin.getDataFolder(), "data.db");
     }
 
     /**
@@ -24,112 +32,258 @@ public class DatabaseManager {
      */
     public void initialize() {
         try {
-            if (!plugin.getDataFolder().exists()) {
-                plugin.getDataFolder().mkdirs();
-            }
-
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
-            
-            createTables();
-            plugin.getLogger().info("SQLite database initialized successfully!");
-            
-        } catch (ClassNotFoundException e) {
-            plugin.getLogger().severe("SQLite JDBC driver not found!");
-            e.printStackTrace();
+            open();
+            plugin.getLogger().info(backend.getName() + " storage initialized successfully!");
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to initialize database: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    @Override
+    public void open() throws SQLException {
+        if (!plugin.getDataFolder().exists()) {
+            plugin.getDataFolder().mkdirs();
+        }
+
+        RuneStorage storage = createBackend();
+        storage.open();
+        backend = storage;
+        try {
+            openJournal();
+            rankIndex.load(backend.loadRollCounts());
+            startWriteQueue();
+            startRetentionJob();
+            startQueries();
+            startExporter();
+        } catch (SQLException | RuntimeException e) {
+            // Never stay half-open: run consistently without a database instead
+            close();
+            backend = null;
+            writeQueue = null;
+            retentionJob = null;
+            queries = null;
+            journal = null;
+            exporter = null;
+            throw e;
+        }
+    }
+
+    private RuneStorage createBackend() {
+        org.bukkit.configuration.file.FileConfiguration cfg = plugin.getConfig();
+        String type = cfg.getString("database.backend", "sqlite").toLowerCase(Locale.ROOT);
+        switch (type) {
+            case "h2":
+                return new H2RuneStorage(H2RuneStorage.fileUrl(new File(plugin.getDataFolder(), "data-h2")),
+                    plugin.getLogger());
+            case "memory":
+                plugin.getLogger().warning("database.backend is 'memory'; roll history will not survive a restart.");
+                return new InMemoryRuneStorage();
+            case "sqlite":
+                break;
+            default:
+                plugin.getLogger().warning("Unknown database.backend '" + type + "', using sqlite");
+                break;
+        }
+        return new SqliteRuneStorage(
+            "jdbc:sqlite:" + new File(plugin.getDataFolder(), "data.db").getAbsolutePath(),
+            SqliteRuneStorage.Settings.fromConfig(cfg.getConfigurationSection("database.sqlite")),
+            plugin.getLogger());
+    }
+
+    @Override
+    public String getName() {
+        return backend != null ? backend.getName() : "none";
+    }
+
     /**
-     * Create all necessary database tables
+     * The configured backend, or null if initialization failed.
      */
-    private void createTables() throws SQLException {
-        // Player statistics table
-        execute(
-            "CREATE TABLE IF NOT EXISTS player_stats (" +
-            "uuid TEXT PRIMARY KEY," +
-            "player_name TEXT NOT NULL," +
-            "total_rolls INTEGER DEFAULT 0," +
-            "total_xp_spent INTEGER DEFAULT 0," +
-            "total_coins_spent INTEGER DEFAULT 0," +
-            "common_rolls INTEGER DEFAULT 0," +
-            "uncommon_rolls INTEGER DEFAULT 0," +
-            "rare_rolls INTEGER DEFAULT 0," +
-            "epic_rolls INTEGER DEFAULT 0," +
-            "legendary_rolls INTEGER DEFAULT 0," +
-            "special_rolls INTEGER DEFAULT 0," +
-            "veryspecial_rolls INTEGER DEFAULT 0," +
-            "first_roll_date BIGINT," +
-            "last_roll_date BIGINT," +
-            "updated_at BIGINT" +
-            ")"
+    public RuneStorage getBackend() {
+        return backend;
+    }
+
+    public RankIndex getRankIndex() {
+        return rankIndex;
+    }
+
+    /**
+     * Opens the roll journal and writes any rolls a previous run journaled but never stored.
+     * The memory backend has nothing to recover into, so it runs without one. A failed replay
+     * is logged rather than thrown, so the database still opens fully.
+     */
+    private void openJournal() throws SQLException {
+        org.bukkit.configuration.file.FileConfiguration cfg = plugin.getConfig();
+        if (!cfg.getBoolean("database.journal.enabled", true) || backend instanceof InMemoryRuneStorage) return;
+
+        RollJournal opened = new RollJournal(
+            new File(plugin.getDataFolder(), "rolls.journal"),
+            plugin.getLogger(),
+            cfg.getLong("database.journal.syncIntervalMillis", 1000L),
+            cfg.getLong("database.journal.compactThresholdKb", 1024L) * 1024L
         );
+        List<RollEntry> uncommitted;
+        try {
+            uncommitted = opened.open(backend.getCommittedJournalRanges());
+        } catch (java.io.IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not open roll journal; rolls are not crash-safe this run", e);
+            opened.close();
+            return;
+        }
+        // The journal file now holds only uncommitted rolls, so older ranges are no longer needed
+        backend.pruneJournalCommits(opened.getLowestPendingSequence());
+
+        if (!uncommitted.isEmpty()) {
+            plugin.getLogger().info("Replaying " + uncommitted.size() + " roll(s) from the journal");
+            try {
+                for (int i = 0; i < uncommitted.size(); i += REPLAY_CHUNK) {
+                    List<RollEntry> chunk = uncommitted.subList(i, Math.min(uncommitted.size(), i + REPLAY_CHUNK));
+                    backend.recordRolls(chunk);
+                    commitJournal(opened, chunk);
+                }
+            } catch (SQLException e) {
+                // The rest stay pending in the journal for the next start; new rolls are still
+                // journaled and written this run
+                plugin.getLogger().log(Level.SEVERE, "Journal replay failed; " + opened.getPendingCount() +
+                    " roll(s) kept in the journal for the next start", e);
+            }
+        }
+        opened.startSync();
+        journal = opened;
+    }
 
-        // Individual roll history table
-        execute(
-            "CREATE TABLE IF NOT EXISTS roll_history (" +
-            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-            "uuid TEXT NOT NULL," +
-            "player_name TEXT NOT NULL," +
-            "tier TEXT NOT NULL," +
-            "enchant_id TEXT NOT NULL," +
-            "enchant_name TEXT NOT NULL," +
-            "enchant_level INTEGER NOT NULL," +
-            "xp_cost INTEGER NOT NULL," +
-            "coin_cost INTEGER NOT NULL," +
-            "location_world TEXT," +
-            "location_x REAL," +
-            "location_y REAL," +
-            "location_z REAL," +
-            "timestamp BIGINT NOT NULL," +
-            "FOREIGN KEY (uuid) REFERENCES player_stats(uuid)" +
-            ")"
+    private void commitJournal(RollJournal target, List<RollEntry> batch) {
+        try {
+            target.commit(batch);
+        } catch (java.io.IOException e) {
+            // The storage recorded the sequences too, so these rolls will not be replayed
+            plugin.getLogger().log(Level.WARNING, "Failed to mark " + batch.size() + " roll(s) committed in the journal", e);
+        }
+    }
+
+    /**
+     * Stores a batch, then marks it committed in the journal.
+     */
+    private void writeBatch(List<RollEntry> batch) throws SQLException {
+        backend.recordRolls(batch);
+        RollJournal current = journal;
+        if (current != null) {
+            commitJournal(current, batch);
+        }
+    }
+
+    /**
+     * Roll journal, or null if it is disabled or could not be opened.
+     */
+    public RollJournal getJournal() {
+        return journal;
+    }
+
+    private void startWriteQueue() {
+        org.bukkit.configuration.file.FileConfiguration cfg = plugin.getConfig();
+        writeQueue = new RollWriteQueue(
+            plugin.getLogger(),
+            this::writeBatch,
+            cfg.getInt("database.writeQueue.capacity", 10000),
+            cfg.getInt("database.writeQueue.flushSize", 200),
+            cfg.getLong("database.writeQueue.flushIntervalMillis", 1000L),
+            cfg.getLong("database.writeQueue.offerTimeoutMillis", 0L)
+        );
+        writeQueue.start();
+    }
+
+    private void startRetentionJob() {
+        org.bukkit.configuration.file.FileConfiguration cfg = plugin.getConfig();
+        if (!cfg.getBoolean("database.retention.enabled", true)) return;
+
+        long maxAgeDays = cfg.getLong("database.retention.maxAgeDays", 90L);
+        if (maxAgeDays <= 0L) return;
+
+        RollArchive archive = cfg.getBoolean("database.retention.archive", true)
+            ? new RollArchive(new File(plugin.getDataFolder(), cfg.getString("database.retention.archiveFolder", "archive")))
+            : null;
+        retentionJob = new RetentionJob(
+            plugin.getLogger(),
+            backend,
+            archive,
+            java.util.concurrent.TimeUnit.DAYS.toMillis(maxAgeDays),
+            cfg.getInt("database.retention.chunkSize", 500),
+            cfg.getLong("database.retention.chunkPauseMillis", 50L),
+            cfg.getInt("database.retention.maxChunksPerRun", 0)
         );
+        // First run shortly after startup, off the enable path
+        retentionJob.start(60_000L, java.util.concurrent.TimeUnit.MINUTES.toMillis(
+            cfg.getLong("database.retention.intervalMinutes", 60L)));
+    }
 
-        // Daily/Weekly aggregated stats
-        execute(
-            "CREATE TABLE IF NOT EXISTS daily_stats (" +
-            "date TEXT PRIMARY KEY," +
-            "total_rolls INTEGER DEFAULT 0," +
-            "total_xp_spent INTEGER DEFAULT 0," +
-            "total_coins_spent INTEGER DEFAULT 0," +
-            "unique_players INTEGER DEFAULT 0," +
-            "common_rolls INTEGER DEFAULT 0," +
-            "uncommon_rolls INTEGER DEFAULT 0," +
-            "rare_rolls INTEGER DEFAULT 0," +
-            "epic_rolls INTEGER DEFAULT 0," +
-            "legendary_rolls INTEGER DEFAULT 0," +
-            "special_rolls INTEGER DEFAULT 0," +
-            "veryspecial_rolls INTEGER DEFAULT 0" +
-            ")"
+    private void startQueries() {
+        org.bukkit.configuration.file.FileConfiguration cfg = plugin.getConfig();
+        queries = new AsyncRuneQueries(
+            this,
+            this::runOnMainThread,
+            cfg.getInt("database.queries.maxConcurrent", 2),
+            cfg.getInt("database.queries.maxPending", 100),
+            cfg.getLong("database.queries.timeoutMillis", 5000L)
         );
+    }
 
-        // Create indices for faster queries
-        execute("CREATE INDEX IF NOT EXISTS idx_roll_history_uuid ON roll_history(uuid)");
-        execute("CREATE INDEX IF NOT EXISTS idx_roll_history_timestamp ON roll_history(timestamp)");
-        execute("CREATE INDEX IF NOT EXISTS idx_roll_history_tier ON roll_history(tier)");
-        execute("CREATE INDEX IF NOT EXISTS idx_player_stats_total_rolls ON player_stats(total_rolls DESC)");
+    private void startExporter() {
+        org.bukkit.configuration.file.FileConfiguration cfg = plugin.getConfig();
+        exporter = new RollExporter(
+            this,
+            new File(plugin.getDataFolder(), cfg.getString("database.export.folder", "exports")),
+            plugin.getLogger(),
+            this::runOnMainThread,
+            cfg.getInt("database.export.chunkSize", 1000),
+            cfg.getLong("database.export.progressEveryRows", 100000L)
+        );
+    }
+
+    private void runOnMainThread(Runnable task) {
+        // Replies for a plugin that is shutting down are dropped
+        if (plugin.isEnabled()) {
+            org.bukkit.Bukkit.getScheduler().runTask(plugin, task);
+        }
     }
 
     /**
-     * Execute an SQL statement without returning results
+     * Export runner, or null if the database failed to initialize.
      */
-    private void execute(String sql) throws SQLException {
-        synchronized (dbLock) {
-            try (Statement stmt = connection.createStatement()) {
-                stmt.execute(sql);
-            }
-        }
+    public RollExporter getExporter() {
+        return exporter;
     }
 
     /**
-     * Record a rune roll asynchronously
+     * Async read API, or null if the database failed to initialize.
      */
-    public CompletableFuture<Void> recordRollAsync(
-            UUID playerId, 
+    public AsyncRuneQueries getQueries() {
+        return queries;
+    }
+
+    /**
+     * Retention job, or null if retention is disabled.
+     */
+    @Override
+    public RetentionJob getRetentionJob() {
+        return retentionJob;
+    }
+
+    /**
+     * Write-behind queue metrics, or null if the database failed to initialize.
+     */
+    @Override
+    public RollWriteQueue getWriteQueue() {
+        return writeQueue;
+    }
+
+    /**
+     * Journal a rune roll and queue it for the write-behind writer. A journaled roll the queue
+     * rejects is still written, by the replay on the next start.
+     *
+     * @return false if the roll was neither journaled nor queued
+     */
+    public boolean recordRollAsync(
+            UUID playerId,
             String playerName,
             RuneTier tier,
             String enchantId,
@@ -138,18 +292,31 @@ public class DatabaseManager {
             int xpCost,
             int coinCost,
             org.bukkit.Location location) {
-        
-        return CompletableFuture.runAsync(() -> {
+
+        RollEntry entry = RollEntry.of(playerId, playerName, tier, enchantId, enchantName,
+            enchantLevel, xpCost, coinCost, location);
+        if (writeQueue == null) {
+            plugin.getLogger().warning("Roll write queue not running; dropping roll for " + playerName);
+            return false;
+        }
+        boolean journaled = false;
+        if (journal != null) {
             try {
-                recordRoll(playerId, playerName, tier, enchantId, enchantName, enchantLevel, xpCost, coinCost, location);
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to record roll to database", e);
+                entry = journal.append(entry);
+                journaled = true;
+            } catch (java.io.IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to journal roll for " + playerName, e);
             }
-        });
+        }
+        if (!writeQueue.submit(entry) && !journaled) {
+            return false;
+        }
+        rankIndex.increment(playerId, 1);
+        return true;
     }
 
     /**
-     * Record a rune roll to the database
+     * Record a rune roll to the database, bypassing the write queue
      */
     public void recordRoll(
             UUID playerId,
@@ -161,351 +328,143 @@ public class DatabaseManager {
             int xpCost,
             int coinCost,
             org.bukkit.Location location) throws SQLException {
-        synchronized (dbLock) {
-            long timestamp = System.currentTimeMillis();
-            String today = java.time.LocalDate.now().toString();
-
-            // Insert into roll history
-            String insertRoll =
-                "INSERT INTO roll_history (uuid, player_name, tier, enchant_id, enchant_name, enchant_level, " +
-                "xp_cost, coin_cost, location_world, location_x, location_y, location_z, timestamp) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-            try (PreparedStatement stmt = connection.prepareStatement(insertRoll)) {
-                stmt.setString(1, playerId.toString());
-                stmt.setString(2, playerName);
-                stmt.setString(3, tier.name());
-                stmt.setString(4, enchantId);
-                stmt.setString(5, enchantName);
-                stmt.setInt(6, enchantLevel);
-                stmt.setInt(7, xpCost);
-                stmt.setInt(8, coinCost);
-                stmt.setString(9, location != null ? location.getWorld().getName() : null);
-                stmt.setDouble(10, location != null ? location.getX() : 0);
-                stmt.setDouble(11, location != null ? location.getY() : 0);
-                stmt.setDouble(12, location != null ? location.getZ() : 0);
-                stmt.setLong(13, timestamp);
-                stmt.executeUpdate();
-            }
-
-            // Update player stats
-            String tierColumn = tier.name().toLowerCase() + "_rolls";
-            String updatePlayer =
-                "INSERT INTO player_stats (uuid, player_name, total_rolls, total_xp_spent, total_coins_spent, " +
-                tierColumn + ", first_roll_date, last_roll_date, updated_at) " +
-                "VALUES (?, ?, 1, ?, ?, 1, ?, ?, ?) " +
-                "ON CONFLICT(uuid) DO UPDATE SET " +
-                "player_name = excluded.player_name, " +
-                "total_rolls = total_rolls + 1, " +
-                "total_xp_spent = total_xp_spent + excluded.total_xp_spent, " +
-                "total_coins_spent = total_coins_spent + excluded.total_coins_spent, " +
-                tierColumn + " = " + tierColumn + " + 1, " +
-                "last_roll_date = excluded.last_roll_date, " +
-                "updated_at = excluded.updated_at";
-
-            try (PreparedStatement stmt = connection.prepareStatement(updatePlayer)) {
-                stmt.setString(1, playerId.toString());
-                stmt.setString(2, playerName);
-                stmt.setInt(3, xpCost);
-                stmt.setInt(4, coinCost);
-                stmt.setLong(5, timestamp);
-                stmt.setLong(6, timestamp);
-                stmt.setLong(7, timestamp);
-                stmt.executeUpdate();
-            }
-
-            // Update daily stats
-            String updateDaily =
-                "INSERT INTO daily_stats (date, total_rolls, total_xp_spent, total_coins_spent, unique_players, " +
-                tierColumn + ") " +
-                "VALUES (?, 1, ?, ?, 1, 1) " +
-                "ON CONFLICT(date) DO UPDATE SET " +
-                "total_rolls = total_rolls + 1, " +
-                "total_xp_spent = total_xp_spent + excluded.total_xp_spent, " +
-                "total_coins_spent = total_coins_spent + excluded.total_coins_spent, " +
-                tierColumn + " = " + tierColumn + " + 1";
-
-            try (PreparedStatement stmt = connection.prepareStatement(updateDaily)) {
-                stmt.setString(1, today);
-                stmt.setInt(2, xpCost);
-                stmt.setInt(3, coinCost);
-                stmt.executeUpdate();
-            }
-        }
+        recordRolls(Collections.singletonList(RollEntry.of(playerId, playerName, tier, enchantId, enchantName,
+            enchantLevel, xpCost, coinCost, location)));
     }
 
     /**
-     * Get player statistics
+     * Writes straight to the backend, bypassing the write queue.
      */
-    public PlayerStats getPlayerStats(UUID playerId) throws SQLException {
-        String query = "SELECT * FROM player_stats WHERE uuid = ?";
-
-        synchronized (dbLock) {
-            try (PreparedStatement stmt = connection.prepareStatement(query)) {
-                stmt.setString(1, playerId.toString());
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    return new PlayerStats(
-                        UUID.fromString(rs.getString("uuid")),
-                        rs.getString("player_name"),
-                        rs.getInt("total_rolls"),
-                        rs.getInt("total_xp_spent"),
-                        rs.getInt("total_coins_spent"),
-                        rs.getInt("common_rolls"),
-                        rs.getInt("uncommon_rolls"),
-                        rs.getInt("rare_rolls"),
-                        rs.getInt("epic_rolls"),
-                        rs.getInt("legendary_rolls"),
-                        rs.getInt("special_rolls"),
-                        rs.getInt("veryspecial_rolls"),
-                        rs.getLong("first_roll_date"),
-                        rs.getLong("last_roll_date")
-                    );
-                }
-            }
+    @Override
+    public void recordRolls(List<RollEntry> rolls) throws SQLException {
+        requireBackend().recordRolls(rolls);
+        for (RollEntry roll : rolls) {
+            rankIndex.increment(roll.uuid, 1);
         }
-        
-        return null;
     }
 
-    /**
-     * Get top players by total rolls
-     */
-    public List<PlayerStats> getTopPlayers(int limit) throws SQLException {
-        List<PlayerStats> topPlayers = new ArrayList<>();
-        String query = "SELECT * FROM player_stats ORDER BY total_rolls DESC LIMIT ?";
-
-        synchronized (dbLock) {
-            try (PreparedStatement stmt = connection.prepareStatement(query)) {
-                stmt.setInt(1, limit);
-                ResultSet rs = stmt.executeQuery();
-
-                while (rs.next()) {
-                    topPlayers.add(new PlayerStats(
-                        UUID.fromString(rs.getString("uuid")),
-                        rs.getString("player_name"),
-                        rs.getInt("total_rolls"),
-                        rs.getInt("total_xp_spent"),
-                        rs.getInt("total_coins_spent"),
-                        rs.getInt("common_rolls"),
-                        rs.getInt("uncommon_rolls"),
-                        rs.getInt("rare_rolls"),
-                        rs.getInt("epic_rolls"),
-                        rs.getInt("legendary_rolls"),
-                        rs.getInt("special_rolls"),
-                        rs.getInt("veryspecial_rolls"),
-                        rs.getLong("first_roll_date"),
-                        rs.getLong("last_roll_date")
-                    ));
-                }
-            }
+    private RuneStorage requireBackend() throws SQLException {
+        RuneStorage storage = backend;
+        if (storage == null) {
+            throw new SQLException("Database not initialized");
         }
-        
-        return topPlayers;
+        return storage;
     }
 
-    /**
-     * Get recent rolls for a player
-     */
-    public List<RollRecord> getRecentRolls(UUID playerId, int limit) throws SQLException {
-        List<RollRecord> rolls = new ArrayList<>();
-        String query = "SELECT * FROM roll_history WHERE uuid = ? ORDER BY timestamp DESC LIMIT ?";
-
-        synchronized (dbLock) {
-            try (PreparedStatement stmt = connection.prepareStatement(query)) {
-                stmt.setString(1, playerId.toString());
-                stmt.setInt(2, limit);
-                ResultSet rs = stmt.executeQuery();
-
-                while (rs.next()) {
-                    rolls.add(new RollRecord(
-                        rs.getInt("id"),
-                        UUID.fromString(rs.getString("uuid")),
-                        rs.getString("player_name"),
-                        RuneTier.valueOf(rs.getString("tier")),
-                        rs.getString("enchant_id"),
-                        rs.getString("enchant_name"),
-                        rs.getInt("enchant_level"),
-                        rs.getInt("xp_cost"),
-                        rs.getInt("coin_cost"),
-                        rs.getLong("timestamp")
-                    ));
-                }
-            }
-        }
-        
-        return rolls;
+    @Override
+    public PlayerStats getPlayerStats(UUID playerId) throws SQLException {
+        return requireBackend().getPlayerStats(playerId);
     }
 
-    /**
-     * Get global statistics
-     */
+    @Override
+    public List<PlayerStats> getTopPlayers(PlayerCursor after, int limit) throws SQLException {
+        return requireBackend().getTopPlayers(after, limit);
+    }
+
+    @Override
+    public List<PlayerStats> getTopPlayersBy(Leaderboard.Metric metric, int limit) throws SQLException {
+        return requireBackend().getTopPlayersBy(metric, limit);
+    }
+
+    @Override
+    public List<RollRecord> getRecentRolls(UUID playerId, RollCursor before, int limit) throws SQLException {
+        return requireBackend().getRecentRolls(playerId, before, limit);
+    }
+
+    @Override
     public GlobalStats getGlobalStats() throws SQLException {
-        String query = "SELECT SUM(total_rolls) as total, SUM(total_xp_spent) as xp, " +
-                      "SUM(total_coins_spent) as coins, COUNT(*) as players FROM player_stats";
-
-        synchronized (dbLock) {
-            try (Statement stmt = connection.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
-
-                if (rs.next()) {
-                    return new GlobalStats(
-                        rs.getInt("total"),
-                        rs.getInt("xp"),
-                        rs.getInt("coins"),
-                        rs.getInt("players")
-                    );
-                }
-            }
-        }
-        
-        return new GlobalStats(0, 0, 0, 0);
+        return requireBackend().getGlobalStats();
     }
 
-    /**
-     * Get tier distribution statistics
-     */
+    @Override
     public Map<RuneTier, Integer> getTierDistribution() throws SQLException {
-        Map<RuneTier, Integer> distribution = new EnumMap<>(RuneTier.class);
-        
-        String query = "SELECT tier, COUNT(*) as count FROM roll_history GROUP BY tier";
+        return requireBackend().getTierDistribution();
+    }
 
-        synchronized (dbLock) {
-            try (Statement stmt = connection.createStatement();
-                 ResultSet rs = stmt.executeQuery(query)) {
+    @Override
+    public long getUniquePlayers(LocalDate from, LocalDate to) throws SQLException {
+        return requireBackend().getUniquePlayers(from, to);
+    }
 
-                while (rs.next()) {
-                    RuneTier tier = RuneTier.valueOf(rs.getString("tier"));
-                    distribution.put(tier, rs.getInt("count"));
-                }
-            }
-        }
-        
-        return distribution;
+    @Override
+    public List<PlayerStats> getPlayersUpdatedSince(long sinceMillis) throws SQLException {
+        return requireBackend().getPlayersUpdatedSince(sinceMillis);
     }
 
     /**
      * Get a player's rank based on total rolls.
-     * Returns null if the player has no stats.
+     * Served from the in-memory rank index; returns null if the player has no stats.
      */
-    public Integer getPlayerRank(UUID playerId) throws SQLException {
-        String query =
-            "SELECT (SELECT COUNT(*) FROM player_stats ps2 WHERE ps2.total_rolls > ps.total_rolls) + 1 AS rank " +
-            "FROM player_stats ps WHERE ps.uuid = ?";
-
-        synchronized (dbLock) {
-            try (PreparedStatement stmt = connection.prepareStatement(query)) {
-                stmt.setString(1, playerId.toString());
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
-                    return rs.getInt("rank");
-                }
-            }
-        }
+    @Override
+    public Integer getPlayerRank(UUID playerId) {
+        return rankIndex.getRank(playerId);
+    }
 
-        return null;
+    @Override
+    public Map<UUID, Integer> loadRollCounts() throws SQLException {
+        return requireBackend().loadRollCounts();
     }
 
-    /**
-     * Close database connection
-     */
-    public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                synchronized (dbLock) {
-                    connection.close();
-                }
-                plugin.getLogger().info("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error closing database connection", e);
-        }
+    @Override
+    public List<RollRecord> getRollsBefore(long cutoffMillis, int limit) throws SQLException {
+        return requireBackend().getRollsBefore(cutoffMillis, limit);
     }
 
-    /**
-     * Player statistics data class
-     */
-    public static class PlayerStats {
-        public final UUID uuid;
-        public final String playerName;
-        public final int totalRolls;
-        public final int totalXpSpent;
-        public final int totalCoinsSpent;
-        public final int commonRolls;
-        public final int uncommonRolls;
-        public final int rareRolls;
-        public final int epicRolls;
-        public final int legendaryRolls;
-        public final int specialRolls;
-        public final int verySpecialRolls;
-        public final long firstRollDate;
-        public final long lastRollDate;
-
-        public PlayerStats(UUID uuid, String playerName, int totalRolls, int totalXpSpent, int totalCoinsSpent,
-                          int commonRolls, int uncommonRolls, int rareRolls, int epicRolls, int legendaryRolls,
-                          int specialRolls, int verySpecialRolls, long firstRollDate, long lastRollDate) {
-            this.uuid = uuid;
-            this.playerName = playerName;
-            this.totalRolls = totalRolls;
-            this.totalXpSpent = totalXpSpent;
-            this.totalCoinsSpent = totalCoinsSpent;
-            this.commonRolls = commonRolls;
-            this.uncommonRolls = uncommonRolls;
-            this.rareRolls = rareRolls;
-            this.epicRolls = epicRolls;
-            this.legendaryRolls = legendaryRolls;
-            this.specialRolls = specialRolls;
-            this.verySpecialRolls = verySpecialRolls;
-            this.firstRollDate = firstRollDate;
-            this.lastRollDate = lastRollDate;
-        }
+    @Override
+    public List<PlayerStats> getPlayersAfter(UUID after, int limit) throws SQLException {
+        return requireBackend().getPlayersAfter(after, limit);
     }
 
-    /**
-     * Roll record data class
-     */
-    public static class RollRecord {
-        public final int id;
-        public final UUID uuid;
-        public final String playerName;
-        public final RuneTier tier;
-        public final String enchantId;
-        public final String enchantName;
-        public final int enchantLevel;
-        public final int xpCost;
-        public final int coinCost;
-        public final long timestamp;
-
-        public RollRecord(int id, UUID uuid, String playerName, RuneTier tier, String enchantId,
-                         String enchantName, int enchantLevel, int xpCost, int coinCost, long timestamp) {
-            this.id = id;
-            this.uuid = uuid;
-            this.playerName = playerName;
-            this.tier = tier;
-            this.enchantId = enchantId;
-            this.enchantName = enchantName;
-            this.enchantLevel = enchantLevel;
-            this.xpCost = xpCost;
-            this.coinCost = coinCost;
-            this.timestamp = timestamp;
-        }
+    @Override
+    public List<RollRecord> getRollsBetween(long fromMillis, long toMillis, RollCursor after, int limit)
+            throws SQLException {
+        return requireBackend().getRollsBetween(fromMillis, toMillis, after, limit);
+    }
+
+    @Override
+    public void archiveRolls(List<RollRecord> rolls) throws SQLException {
+        requireBackend().archiveRolls(rolls);
+    }
+
+    @Override
+    public List<long[]> getCommittedJournalRanges() throws SQLException {
+        return requireBackend().getCommittedJournalRanges();
+    }
+
+    @Override
+    public void pruneJournalCommits(long sequence) throws SQLException {
+        requireBackend().pruneJournalCommits(sequence);
     }
 
     /**
-     * Global statistics data class
+     * Close database connection
      */
-    public static class GlobalStats {
-        public final int totalRolls;
-        public final int totalXpSpent;
-        public final int totalCoinsSpent;
-        public final int uniquePlayers;
-
-        public GlobalStats(int totalRolls, int totalXpSpent, int totalCoinsSpent, int uniquePlayers) {
-            this.totalRolls = totalRolls;
-            this.totalXpSpent = totalXpSpent;
-            this.totalCoinsSpent = totalCoinsSpent;
-            this.uniquePlayers = uniquePlayers;
+    @Override
+    public void close() {
+        if (exporter != null) {
+            exporter.shutdown();
+        }
+        if (queries != null) {
+            queries.shutdown(1000L);
+        }
+        if (retentionJob != null) {
+            retentionJob.shutdown();
+        }
+        if (writeQueue != null) {
+            // Drain pending rolls before the connection goes away
+            writeQueue.shutdown(plugin.getConfig().getLong("database.writeQueue.shutdownTimeoutMillis", 10000L));
+        }
+        if (journal != null) {
+            // Whatever the queue could not drain is replayed on the next start
+            journal.close();
+        }
+        if (backend != null) {
+            try {
+                backend.close();
+                plugin.getLogger().info("Database connection closed.");
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "Error closing database connection", e);
+            }
         }
     }
 }
@@ -0,0 +1,141 @@
+package com.bubblecraft.bubblerune;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Embedded H2 backend (MVStore). Uses row-level locking and MVCC internally, so heavy write
+ * bursts do not serialize on a single file lock the way SQLite does.
+ */
+public class H2RuneStorage extends JdbcRuneStorage {
+    private final String url;
+
+    public H2RuneStorage(String url, Logger logger) {
+        super(logger);
+        this.url = url;
+    }
+
+    /**
+     * File-backed URL for a database stored next to the plugin's other data.
+     */
+    public static String fileUrl(java.io.File file) {
+        return "jdbc:h2:file:" + file.getAbsolutePath() + ";DB_CLOSE_ON_EXIT=FALSE";
+    }
+
+    @Override
+    public String getName() {
+        return "H2";
+    }
+
+    @Override
+    protected Connection openConnection() throws SQLException {
+        try {
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("H2 JDBC driver not found", e);
+        }
+        return DriverManager.getConnection(url);
+    }
+
+    @Override
+    protected String textType() {
+        // H2 maps TEXT to CLOB, which cannot be a key
+        return "VARCHAR";
+    }
+
+    @Override
+    protected String realType() {
+        return "DOUBLE PRECISION";
+    }
+
+    @Override
+    protected String blobType() {
+        return "BINARY(16)";
+    }
+
+    @Override
+    protected String bytesType() {
+        return "VARBINARY";
+    }
+
+    @Override
+    protected String autoIncrementKey() {
+        return "BIGINT AUTO_INCREMENT PRIMARY KEY";
+    }
+
+    @Override
+    protected void resetIdentity(Connection conn, String table, long nextId) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId);
+        }
+    }
+
+    @Override
+    protected String upsertPlayerSql() {
+        return "MERGE INTO player_stats t USING (VALUES (CAST(? AS BINARY(16)), CAST(? AS VARCHAR), " +
+            "CAST(? AS INTEGER), CAST(? AS INTEGER), " + joinTierColumns("CAST(? AS INTEGER)") + ", " +
+            "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+            "AS s(uuid, player_name, total_xp_spent, total_coins_spent, " + joinTierColumns("%c") +
+            ", first_roll_date, last_roll_date, updated_at) " +
+            "ON t.uuid = s.uuid " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "player_name = s.player_name, " +
+            "total_rolls = t.total_rolls + 1, " +
+            "total_xp_spent = t.total_xp_spent + s.total_xp_spent, " +
+            "total_coins_spent = t.total_coins_spent + s.total_coins_spent, " +
+            joinTierColumns("%c = t.%c + s.%c") + ", " +
+            "last_roll_date = s.last_roll_date, " +
+            "updated_at = s.updated_at " +
+            "WHEN NOT MATCHED THEN INSERT (uuid, player_name, total_rolls, total_xp_spent, total_coins_spent, " +
+            joinTierColumns("%c") + ", first_roll_date, last_roll_date, updated_at) " +
+            "VALUES (s.uuid, s.player_name, 1, s.total_xp_spent, s.total_coins_spent, " +
+            joinTierColumns("s.%c") + ", s.first_roll_date, s.last_roll_date, s.updated_at)";
+    }
+
+    @Override
+    protected String upsertDailySql() {
+        return "MERGE INTO daily_stats t USING (VALUES (CAST(? AS VARCHAR), CAST(? AS INTEGER), " +
+            "CAST(? AS INTEGER), " + joinTierColumns("CAST(? AS INTEGER)") + ")) " +
+            "AS s(date, total_xp_spent, total_coins_spent, " + joinTierColumns("%c") + ") " +
+            "ON t.date = s.date " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "total_rolls = t.total_rolls + 1, " +
+            "total_xp_spent = t.total_xp_spent + s.total_xp_spent, " +
+            "total_coins_spent = t.total_coins_spent + s.total_coins_spent, " +
+            joinTierColumns("%c = t.%c + s.%c") + " " +
+            "WHEN NOT MATCHED THEN INSERT (date, total_rolls, total_xp_spent, total_coins_spent, unique_players, " +
+            joinTierColumns("%c") + ") " +
+            "VALUES (s.date, 1, s.total_xp_spent, s.total_coins_spent, 1, " + joinTierColumns("s.%c") + ")";
+    }
+
+    @Override
+    protected String upsertArchiveTotalsSql() {
+        return "MERGE INTO archived_tier_totals t USING (VALUES (CAST(? AS VARCHAR), CAST(? AS VARCHAR), " +
+            "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+            "AS s(roll_month, tier, rolls, xp_spent, coins_spent) " +
+            "ON t.roll_month = s.roll_month AND t.tier = s.tier " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "rolls = t.rolls + s.rolls, " +
+            "xp_spent = t.xp_spent + s.xp_spent, " +
+            "coins_spent = t.coins_spent + s.coins_spent " +
+            "WHEN NOT MATCHED THEN INSERT (roll_month, tier, rolls, xp_spent, coins_spent) " +
+            "VALUES (s.roll_month, s.tier, s.rolls, s.xp_spent, s.coins_spent)";
+    }
+
+    @Override
+    protected String upsertTierTotalsSql() {
+        return "MERGE INTO tier_totals t USING (VALUES (CAST(? AS VARCHAR), CAST(? AS BIGINT), " +
+            "CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+            "AS s(tier, rolls, xp_spent, coins_spent) " +
+            "ON t.tier = s.tier " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "rolls = t.rolls + s.rolls, " +
+            "xp_spent = t.xp_spent + s.xp_spent, " +
+            "coins_spent = t.coins_spent + s.coins_spent " +
+            "WHEN NOT MATCHED THEN INSERT (tier, rolls, xp_spent, coins_spent) " +
+            "VALUES (s.tier, s.rolls, s.xp_spent, s.coins_spent)";
+    }
+}
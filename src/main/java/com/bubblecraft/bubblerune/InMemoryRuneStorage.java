@@ -0,0 +1,274 @@
+package com.bubblecraft.bubblerune;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Non-persistent backend kept entirely on the heap. Meant for tests and for benchmarking the
+ * other backends against a baseline with no I/O; everything is lost on shutdown.
+ */
+public class InMemoryRuneStorage implements RuneStorage {
+    private final Map<UUID, MutableStats> players = new HashMap<>();
+    private final Map<UUID, List<RollRecord>> rollsByPlayer = new HashMap<>();
+    private final int[] tierCounts = new int[RuneTier.values().length];
+    private final int[] archivedTierCounts = new int[RuneTier.values().length];
+    private final Map<LocalDate, Set<UUID>> playersByDay = new HashMap<>();
+    private int nextRollId = 1;
+
+    private static final class MutableStats {
+        final UUID uuid;
+        String playerName;
+        int totalRolls;
+        int totalXpSpent;
+        int totalCoinsSpent;
+        final int[] tierRolls = new int[RuneTier.values().length];
+        long firstRollDate;
+        long lastRollDate;
+        long updatedAt;
+
+        MutableStats(UUID uuid, long firstRollDate) {
+            this.uuid = uuid;
+            this.firstRollDate = firstRollDate;
+        }
+
+        PlayerStats snapshot() {
+            return new PlayerStats(uuid, playerName, totalRolls, totalXpSpent, totalCoinsSpent,
+                tierRolls[RuneTier.COMMON.ordinal()],
+                tierRolls[RuneTier.UNCOMMON.ordinal()],
+                tierRolls[RuneTier.RARE.ordinal()],
+                tierRolls[RuneTier.EPIC.ordinal()],
+                tierRolls[RuneTier.LEGENDARY.ordinal()],
+                tierRolls[RuneTier.SPECIAL.ordinal()],
+                tierRolls[RuneTier.VERYSPECIAL.ordinal()],
+                firstRollDate, lastRollDate);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public void open() {
+    }
+
+    @Override
+    public synchronized void recordRolls(List<RollEntry> rolls) {
+        long now = System.currentTimeMillis();
+        for (RollEntry roll : rolls) {
+            MutableStats stats = players.computeIfAbsent(roll.uuid, id -> new MutableStats(id, roll.timestamp));
+            stats.playerName = roll.playerName;
+            stats.totalRolls++;
+            stats.totalXpSpent += roll.xpCost;
+            stats.totalCoinsSpent += roll.coinCost;
+            stats.tierRolls[roll.tier.ordinal()]++;
+            stats.lastRollDate = roll.timestamp;
+            stats.updatedAt = now;
+
+            tierCounts[roll.tier.ordinal()]++;
+            LocalDate day = java.time.Instant.ofEpochMilli(roll.timestamp).atZone(ZoneId.systemDefault()).toLocalDate();
+            playersByDay.computeIfAbsent(day, d -> new HashSet<>()).add(roll.uuid);
+            rollsByPlayer.computeIfAbsent(roll.uuid, id -> new ArrayList<>()).add(new RollRecord(
+                nextRollId++, roll.uuid, roll.playerName, roll.tier, roll.enchantId, roll.enchantName,
+                roll.enchantLevel, roll.xpCost, roll.coinCost, roll.timestamp,
+                roll.world, roll.x, roll.y, roll.z));
+        }
+    }
+
+    @Override
+    public synchronized PlayerStats getPlayerStats(UUID playerId) {
+        MutableStats stats = players.get(playerId);
+        return stats != null ? stats.snapshot() : null;
+    }
+
+    @Override
+    public synchronized List<PlayerStats> getTopPlayers(PlayerCursor after, int limit) {
+        List<MutableStats> sorted = new ArrayList<>(players.values());
+        sorted.sort((a, b) -> a.totalRolls != b.totalRolls
+            ? Integer.compare(b.totalRolls, a.totalRolls)
+            : PlayerCursor.compareUuids(a.uuid, b.uuid));
+        List<PlayerStats> top = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (MutableStats stats : sorted) {
+            if (top.size() >= limit) break;
+            if (after != null && (stats.totalRolls > after.totalRolls
+                    || (stats.totalRolls == after.totalRolls && PlayerCursor.compareUuids(stats.uuid, after.uuid) <= 0))) {
+                continue;
+            }
+            top.add(stats.snapshot());
+        }
+        return top;
+    }
+
+    @Override
+    public synchronized List<PlayerStats> getTopPlayersBy(Leaderboard.Metric metric, int limit) {
+        List<PlayerStats> all = new ArrayList<>();
+        for (MutableStats stats : players.values()) {
+            PlayerStats snapshot = stats.snapshot();
+            if (metric.of(snapshot) > 0) {
+                all.add(snapshot);
+            }
+        }
+        all.sort((a, b) -> metric.of(a) != metric.of(b)
+            ? Long.compare(metric.of(b), metric.of(a))
+            : PlayerCursor.compareUuids(a.uuid, b.uuid));
+        return new ArrayList<>(all.subList(0, Math.min(limit, all.size())));
+    }
+
+    @Override
+    public synchronized List<RollRecord> getRecentRolls(UUID playerId, RollCursor before, int limit) {
+        List<RollRecord> rolls = rollsByPlayer.get(playerId);
+        if (rolls == null) {
+            return new ArrayList<>();
+        }
+        List<RollRecord> sorted = new ArrayList<>();
+        for (RollRecord roll : rolls) {
+            if (before == null || roll.timestamp < before.timestamp
+                    || (roll.timestamp == before.timestamp && roll.id < before.id)) {
+                sorted.add(roll);
+            }
+        }
+        sorted.sort((a, b) -> a.timestamp != b.timestamp
+            ? Long.compare(b.timestamp, a.timestamp)
+            : Integer.compare(b.id, a.id));
+        return new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size())));
+    }
+
+    @Override
+    public synchronized GlobalStats getGlobalStats() {
+        int total = 0;
+        int xp = 0;
+        int coins = 0;
+        for (MutableStats stats : players.values()) {
+            total += stats.totalRolls;
+            xp += stats.totalXpSpent;
+            coins += stats.totalCoinsSpent;
+        }
+        return new GlobalStats(total, xp, coins, players.size());
+    }
+
+    @Override
+    public synchronized Map<RuneTier, Integer> getTierDistribution() {
+        Map<RuneTier, Integer> distribution = new EnumMap<>(RuneTier.class);
+        for (RuneTier tier : RuneTier.values()) {
+            int count = tierCounts[tier.ordinal()] + archivedTierCounts[tier.ordinal()];
+            if (count > 0) {
+                distribution.put(tier, count);
+            }
+        }
+        return distribution;
+    }
+
+    @Override
+    public synchronized long getUniquePlayers(LocalDate from, LocalDate to) {
+        Set<UUID> players = new HashSet<>();
+        for (Map.Entry<LocalDate, Set<UUID>> entry : playersByDay.entrySet()) {
+            if (!entry.getKey().isBefore(from) && !entry.getKey().isAfter(to)) {
+                players.addAll(entry.getValue());
+            }
+        }
+        return players.size();
+    }
+
+    @Override
+    public synchronized List<PlayerStats> getPlayersUpdatedSince(long sinceMillis) {
+        List<PlayerStats> changed = new ArrayList<>();
+        for (MutableStats stats : players.values()) {
+            if (stats.updatedAt >= sinceMillis) {
+                changed.add(stats.snapshot());
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized Integer getPlayerRank(UUID playerId) {
+        MutableStats stats = players.get(playerId);
+        if (stats == null) return null;
+        int rank = 1;
+        for (MutableStats other : players.values()) {
+            if (other.totalRolls > stats.totalRolls) rank++;
+        }
+        return rank;
+    }
+
+    @Override
+    public synchronized Map<UUID, Integer> loadRollCounts() {
+        Map<UUID, Integer> counts = new HashMap<>();
+        for (MutableStats stats : players.values()) {
+            counts.put(stats.uuid, stats.totalRolls);
+        }
+        return counts;
+    }
+
+    @Override
+    public synchronized List<RollRecord> getRollsBefore(long cutoffMillis, int limit) {
+        List<RollRecord> old = new ArrayList<>();
+        for (List<RollRecord> rolls : rollsByPlayer.values()) {
+            for (RollRecord roll : rolls) {
+                if (roll.timestamp < cutoffMillis) {
+                    old.add(roll);
+                }
+            }
+        }
+        old.sort((a, b) -> a.timestamp != b.timestamp
+            ? Long.compare(a.timestamp, b.timestamp)
+            : Integer.compare(a.id, b.id));
+        return new ArrayList<>(old.subList(0, Math.min(limit, old.size())));
+    }
+
+    @Override
+    public synchronized List<PlayerStats> getPlayersAfter(UUID after, int limit) {
+        List<MutableStats> sorted = new ArrayList<>();
+        for (MutableStats stats : players.values()) {
+            if (after == null || PlayerCursor.compareUuids(stats.uuid, after) > 0) {
+                sorted.add(stats);
+            }
+        }
+        sorted.sort((a, b) -> PlayerCursor.compareUuids(a.uuid, b.uuid));
+        List<PlayerStats> page = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (MutableStats stats : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            page.add(stats.snapshot());
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<RollRecord> getRollsBetween(long fromMillis, long toMillis, RollCursor after, int limit) {
+        List<RollRecord> matching = new ArrayList<>();
+        for (List<RollRecord> rolls : rollsByPlayer.values()) {
+            for (RollRecord roll : rolls) {
+                if (roll.timestamp >= fromMillis && roll.timestamp < toMillis && (after == null
+                        || roll.timestamp > after.timestamp
+                        || (roll.timestamp == after.timestamp && roll.id > after.id))) {
+                    matching.add(roll);
+                }
+            }
+        }
+        matching.sort((a, b) -> a.timestamp != b.timestamp
+            ? Long.compare(a.timestamp, b.timestamp)
+            : Integer.compare(a.id, b.id));
+        return new ArrayList<>(matching.subList(0, Math.min(limit, matching.size())));
+    }
+
+    @Override
+    public synchronized void archiveRolls(List<RollRecord> rolls) {
+        for (RollRecord roll : rolls) {
+            List<RollRecord> playerRolls = rollsByPlayer.get(roll.uuid);
+            if (playerRolls != null && playerRolls.removeIf(r -> r.id == roll.id)) {
+                tierCounts[roll.tier.ordinal()]--;
+                archivedTierCounts[roll.tier.ordinal()]++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        players.clear();
+        rollsByPlayer.clear();
+        Arrays.fill(tierCounts, 0);
+        Arrays.fill(archivedTierCounts, 0);
+        playersByDay.clear();
+    }
+}
@@ -0,0 +1,1329 @@
+package com.bubblecraft.bubblerune;
+
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Shared JDBC implementation of {@link RuneStorage}.
+ *
+ * Queries, batching and schema migrations live here; subclasses supply the connection, column
+ * types and the upsert statements, which are the only parts that differ between SQL dialects.
+ * All writes go through one connection guarded by {@link #lock}.
+ *
+ * Schema v2 stores player UUIDs as 16-byte binary keys and keeps world names and enchant ids in
+ * small dictionary tables ({@code worlds}, {@code enchants}) referenced by integer id from
+ * roll_history, which no longer repeats the player name.
+ */
+public abstract class JdbcRuneStorage implements RuneStorage {
+    protected static final RuneTier[] TIERS = RuneTier.values();
+
+    protected final Logger logger;
+    protected final Object lock = new Object();
+    protected Connection connection;
+
+    // Reused across batches; only touched while holding lock
+    private PreparedStatement insertRollStmt;
+    private PreparedStatement upsertPlayerStmt;
+    private PreparedStatement upsertDailyStmt;
+    private PreparedStatement upsertTierTotalsStmt;
+
+    // Dictionary ids by name; only touched while holding lock (or during open)
+    private final Map<String, Integer> worldIds = new HashMap<>();
+    private final Map<String, Integer> enchantIds = new HashMap<>();
+    private final Map<String, String> enchantNames = new HashMap<>();
+
+    // Distinct-player sketches for the days being written to; only touched while holding lock
+    private final Map<String, HyperLogLog> daySketches = new HashMap<>();
+    private PreparedStatement updateDaySketchStmt;
+    private PreparedStatement insertJournalCommitStmt;
+
+    /** Rows copied per transaction when migrating existing data. */
+    private static final int MIGRATION_CHUNK = 2000;
+
+    private static final String UPDATE_DAY_SKETCH_SQL =
+        "UPDATE daily_stats SET players_sketch = ?, unique_players = ? WHERE date = ?";
+
+    private static final String INSERT_JOURNAL_COMMIT_SQL =
+        "INSERT INTO journal_commits (seq_from, seq_to) VALUES (?, ?)";
+
+    private static final String INSERT_ROLL_SQL =
+        "INSERT INTO roll_history (uuid, tier, enchant_ref, enchant_level, xp_cost, coin_cost, " +
+        "world_ref, location_x, location_y, location_z, timestamp) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** roll_history joined back to its dictionaries, in the shape {@link #readRollRecord} expects. */
+    private static final String SELECT_ROLLS =
+        "SELECT r.id, r.uuid, COALESCE(p.player_name, '') AS player_name, r.tier, " +
+        "e.enchant_key, e.enchant_name, r.enchant_level, r.xp_cost, r.coin_cost, " +
+        "w.world_name, r.location_x, r.location_y, r.location_z, r.timestamp " +
+        "FROM roll_history r " +
+        "JOIN enchants e ON e.id = r.enchant_ref " +
+        "LEFT JOIN worlds w ON w.id = r.world_ref " +
+        "LEFT JOIN player_stats p ON p.uuid = r.uuid ";
+
+    protected JdbcRuneStorage(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Opens the single writer connection.
+     */
+    protected abstract Connection openConnection() throws SQLException;
+
+    /** Column type for strings, including primary keys. */
+    protected abstract String textType();
+
+    /** Column type for 8-byte floating point values. */
+    protected abstract String realType();
+
+    /** Column type for 16-byte UUID keys. */
+    protected abstract String blobType();
+
+    /** Column type for variable-length binary values. */
+    protected abstract String bytesType();
+
+    /** Column definition for an auto-incrementing integer primary key. */
+    protected abstract String autoIncrementKey();
+
+    /**
+     * Table option for tables keyed by a UUID blob (SQLite: WITHOUT ROWID). Empty by default.
+     */
+    protected String keyedTableOptions() {
+        return "";
+    }
+
+    /**
+     * Makes the next generated roll_history id at least {@code nextId} after rows were copied
+     * in with explicit ids. SQLite tracks this itself.
+     */
+    protected void resetIdentity(Connection conn, String table, long nextId) throws SQLException {
+    }
+
+    /**
+     * Hook run once migrations are done, with the schema version the database started at.
+     */
+    protected void afterMigrations(int previousVersion) throws SQLException {
+    }
+
+    /**
+     * Player upsert. Parameters, in order: uuid (16 bytes), player_name, xp, coins, one 0/1 flag per tier
+     * (in {@link RuneTier} order), first_roll_date, last_roll_date, updated_at.
+     * A new row starts at total_rolls = 1; an existing row is incremented.
+     */
+    protected abstract String upsertPlayerSql();
+
+    /**
+     * Daily aggregate upsert. Parameters, in order: date, xp, coins, one 0/1 flag per tier.
+     */
+    protected abstract String upsertDailySql();
+
+    /**
+     * Archive aggregate upsert that adds to an existing row. Parameters, in order: roll_month,
+     * tier, rolls, xp_spent, coins_spent.
+     */
+    protected abstract String upsertArchiveTotalsSql();
+
+    /**
+     * Running per-tier totals upsert that adds to an existing row. Parameters, in order: tier,
+     * rolls, xp_spent, coins_spent.
+     */
+    protected abstract String upsertTierTotalsSql();
+
+    /**
+     * Hook run after the schema exists (pools, background tasks).
+     */
+    protected void afterOpen() throws SQLException {
+    }
+
+    /**
+     * Hook run on the writer connection, under the lock, just before it is closed.
+     */
+    protected void beforeClose(Connection conn) {
+    }
+
+    @Override
+    public void open() throws SQLException {
+        connection = openConnection();
+        int previousVersion = SchemaMigrator.migrate(connection, migrations(), logger);
+        afterMigrations(previousVersion);
+        afterOpen();
+    }
+
+    /**
+     * Every schema version in order. Never edit a released step; add a new one instead.
+     */
+    protected List<SchemaMigration> migrations() {
+        List<SchemaMigration> migrations = new ArrayList<>();
+        migrations.add(new SchemaMigration(1, "Original text-keyed schema", this::createLegacySchema));
+        migrations.add(new SchemaMigration(2, "Binary UUID keys, world/enchant dictionaries, leaderboard index",
+            this::migrateToCompactKeys));
+        migrations.add(new SchemaMigration(3, "Maintained tier totals", this::createTierTotals));
+        migrations.add(new SchemaMigration(4, "Daily distinct-player sketches", this::addDailySketches));
+        migrations.add(new SchemaMigration(5, "Committed roll journal ranges", this::createJournalCommits));
+        migrations.add(new SchemaMigration(6, "player_stats updated_at index", this::indexPlayerUpdates));
+        return migrations;
+    }
+
+    /**
+     * Runs a read. The default uses the writer connection under the lock; backends with
+     * separate reader connections override this.
+     */
+    protected <T> T read(SqliteReaderPool.SqlFunction<T> work) throws SQLException {
+        synchronized (lock) {
+            return work.apply(connection);
+        }
+    }
+
+    /**
+     * v1: the original tables, as created before versioning existed.
+     */
+    private void createLegacySchema(Connection conn) throws SQLException {
+        String text = textType();
+
+        // Player statistics table
+        execute(conn,
+            "CREATE TABLE IF NOT EXISTS player_stats (" +
+            "uuid " + text + " PRIMARY KEY," +
+            "player_name " + text + " NOT NULL," +
+            "total_rolls INTEGER DEFAULT 0," +
+            "total_xp_spent INTEGER DEFAULT 0," +
+            "total_coins_spent INTEGER DEFAULT 0," +
+            joinTierColumns("%c INTEGER DEFAULT 0", ",") + "," +
+            "first_roll_date BIGINT," +
+            "last_roll_date BIGINT," +
+            "updated_at BIGINT" +
+            ")"
+        );
+
+        // Individual roll history table
+        execute(conn,
+            "CREATE TABLE IF NOT EXISTS roll_history (" +
+            "id " + autoIncrementKey() + "," +
+            "uuid " + text + " NOT NULL," +
+            "player_name " + text + " NOT NULL," +
+            "tier " + text + " NOT NULL," +
+            "enchant_id " + text + " NOT NULL," +
+            "enchant_name " + text + " NOT NULL," +
+            "enchant_level INTEGER NOT NULL," +
+            "xp_cost INTEGER NOT NULL," +
+            "coin_cost INTEGER NOT NULL," +
+            "location_world " + text + "," +
+            "location_x " + realType() + "," +
+            "location_y " + realType() + "," +
+            "location_z " + realType() + "," +
+            "timestamp BIGINT NOT NULL" +
+            ")"
+        );
+
+        // Daily/Weekly aggregated stats
+        execute(conn,
+            "CREATE TABLE IF NOT EXISTS daily_stats (" +
+            "date " + text + " PRIMARY KEY," +
+            "total_rolls INTEGER DEFAULT 0," +
+            "total_xp_spent INTEGER DEFAULT 0," +
+            "total_coins_spent INTEGER DEFAULT 0," +
+            "unique_players INTEGER DEFAULT 0," +
+            joinTierColumns("%c INTEGER DEFAULT 0", ",") +
+            ")"
+        );
+
+        // Rolls removed from roll_history by the retention job, folded per month and tier
+        execute(conn,
+            "CREATE TABLE IF NOT EXISTS archived_tier_totals (" +
+            "roll_month " + text + " NOT NULL," +
+            "tier " + text + " NOT NULL," +
+            "rolls BIGINT DEFAULT 0," +
+            "xp_spent BIGINT DEFAULT 0," +
+            "coins_spent BIGINT DEFAULT 0," +
+            "PRIMARY KEY (roll_month, tier)" +
+            ")"
+        );
+
+        // Create indices for faster queries
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_roll_history_uuid ON roll_history(uuid)");
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_roll_history_timestamp ON roll_history(timestamp)");
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_roll_history_tier ON roll_history(tier)");
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_player_stats_total_rolls ON player_stats(total_rolls DESC)");
+    }
+
+    /**
+     * v2: rebuilds player_stats and roll_history with binary keys and dictionary references.
+     *
+     * Rows are copied into *_v2 tables in chunks of {@link #MIGRATION_CHUNK}, each committed on
+     * its own, then the tables are swapped. An interrupted copy is discarded and redone on the
+     * next start; an interrupted swap is finished.
+     */
+    private void migrateToCompactKeys(Connection conn) throws SQLException {
+        String text = textType();
+
+        // The swap replaces roll_history first, so once it is gone or already compact the copy
+        // is complete. H2 commits each DDL statement, so the swap can stop anywhere.
+        if (!SchemaMigrator.tableExists(conn, "roll_history")
+                || SchemaMigrator.columnExists(conn, "roll_history", "enchant_ref")) {
+            swapCompactTables(conn);
+            resetIdentity(conn, "roll_history", maxRollId(conn) + 1);
+            return;
+        }
+
+        execute(conn, "DROP TABLE IF EXISTS player_stats_v2");
+        execute(conn, "DROP TABLE IF EXISTS roll_history_v2");
+
+        execute(conn,
+            "CREATE TABLE IF NOT EXISTS worlds (" +
+            "id " + autoIncrementKey() + "," +
+            "world_name " + text + " NOT NULL UNIQUE" +
+            ")"
+        );
+        execute(conn,
+            "CREATE TABLE IF NOT EXISTS enchants (" +
+            "id " + autoIncrementKey() + "," +
+            "enchant_key " + text + " NOT NULL UNIQUE," +
+            "enchant_name " + text + " NOT NULL" +
+            ")"
+        );
+        execute(conn,
+            "CREATE TABLE player_stats_v2 (" +
+            "uuid " + blobType() + " PRIMARY KEY," +
+            "player_name " + text + " NOT NULL," +
+            "total_rolls INTEGER DEFAULT 0," +
+            "total_xp_spent INTEGER DEFAULT 0," +
+            "total_coins_spent INTEGER DEFAULT 0," +
+            joinTierColumns("%c INTEGER DEFAULT 0", ",") + "," +
+            "first_roll_date BIGINT," +
+            "last_roll_date BIGINT," +
+            "updated_at BIGINT" +
+            ")" + keyedTableOptions()
+        );
+        execute(conn,
+            "CREATE TABLE roll_history_v2 (" +
+            "id " + autoIncrementKey() + "," +
+            "uuid " + blobType() + " NOT NULL," +
+            "tier " + text + " NOT NULL," +
+            "enchant_ref INTEGER NOT NULL," +
+            "enchant_level INTEGER NOT NULL," +
+            "xp_cost INTEGER NOT NULL," +
+            "coin_cost INTEGER NOT NULL," +
+            "world_ref INTEGER," +
+            "location_x " + realType() + "," +
+            "location_y " + realType() + "," +
+            "location_z " + realType() + "," +
+            "timestamp BIGINT NOT NULL" +
+            ")"
+        );
+
+        copyPlayerStats(conn);
+        long maxId = copyRollHistory(conn);
+        swapCompactTables(conn);
+        resetIdentity(conn, "roll_history", maxId + 1);
+    }
+
+    private void copyPlayerStats(Connection conn) throws SQLException {
+        String select = "SELECT * FROM player_stats WHERE uuid > ? ORDER BY uuid LIMIT " + MIGRATION_CHUNK;
+        String insert = "INSERT INTO player_stats_v2 (uuid, player_name, total_rolls, total_xp_spent, " +
+            "total_coins_spent, " + joinTierColumns("%c") + ", first_roll_date, last_roll_date, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, " + joinTierColumns("?") + ", ?, ?, ?)";
+
+        String lastKey = "";
+        int skipped = 0;
+        while (true) {
+            int rows = 0;
+            try (PreparedStatement read = conn.prepareStatement(select);
+                 PreparedStatement write = conn.prepareStatement(insert)) {
+                read.setString(1, lastKey);
+                try (ResultSet rs = read.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastKey = rs.getString("uuid");
+                        UUID uuid = parseUuid(lastKey);
+                        if (uuid == null) {
+                            skipped++;
+                            continue;
+                        }
+                        int i = 1;
+                        write.setBytes(i++, uuidBytes(uuid));
+                        write.setString(i++, rs.getString("player_name"));
+                        write.setInt(i++, rs.getInt("total_rolls"));
+                        write.setInt(i++, rs.getInt("total_xp_spent"));
+                        write.setInt(i++, rs.getInt("total_coins_spent"));
+                        for (RuneTier tier : TIERS) {
+                            write.setInt(i++, rs.getInt(tierColumn(tier)));
+                        }
+                        write.setLong(i++, rs.getLong("first_roll_date"));
+                        write.setLong(i++, rs.getLong("last_roll_date"));
+                        write.setLong(i, rs.getLong("updated_at"));
+                        write.addBatch();
+                    }
+                }
+                write.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            if (rows < MIGRATION_CHUNK) break;
+        }
+        if (skipped > 0) {
+            logger.warning("Skipped " + skipped + " player_stats row(s) with an invalid UUID during migration");
+        }
+    }
+
+    /**
+     * @return highest roll id copied (0 if there were none)
+     */
+    private long copyRollHistory(Connection conn) throws SQLException {
+        long total;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM roll_history")) {
+            total = rs.next() ? rs.getLong(1) : 0L;
+        }
+
+        String select = "SELECT * FROM roll_history WHERE id > ? ORDER BY id LIMIT " + MIGRATION_CHUNK;
+        String insert = "INSERT INTO roll_history_v2 (id, uuid, tier, enchant_ref, enchant_level, xp_cost, " +
+            "coin_cost, world_ref, location_x, location_y, location_z, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        long lastId = 0L;
+        long copied = 0L;
+        int skipped = 0;
+        long nextLog = 100_000L;
+        while (true) {
+            int rows = 0;
+            try (PreparedStatement read = conn.prepareStatement(select);
+                 PreparedStatement write = conn.prepareStatement(insert)) {
+                read.setLong(1, lastId);
+                try (ResultSet rs = read.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastId = rs.getLong("id");
+                        UUID uuid = parseUuid(rs.getString("uuid"));
+                        if (uuid == null) {
+                            skipped++;
+                            continue;
+                        }
+                        write.setLong(1, lastId);
+                        write.setBytes(2, uuidBytes(uuid));
+                        write.setString(3, rs.getString("tier"));
+                        write.setInt(4, enchantId(conn, rs.getString("enchant_id"), rs.getString("enchant_name")));
+                        write.setInt(5, rs.getInt("enchant_level"));
+                        write.setInt(6, rs.getInt("xp_cost"));
+                        write.setInt(7, rs.getInt("coin_cost"));
+                        bindWorld(conn, write, 8, rs.getString("location_world"));
+                        write.setDouble(9, rs.getDouble("location_x"));
+                        write.setDouble(10, rs.getDouble("location_y"));
+                        write.setDouble(11, rs.getDouble("location_z"));
+                        write.setLong(12, rs.getLong("timestamp"));
+                        write.addBatch();
+                    }
+                }
+                write.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                clearDictionaryCache();
+                throw e;
+            }
+            copied += rows;
+            if (copied >= nextLog) {
+                logger.info("Migrated " + copied + "/" + total + " rolls...");
+                nextLog += 100_000L;
+            }
+            if (rows < MIGRATION_CHUNK) break;
+        }
+        if (skipped > 0) {
+            logger.warning("Skipped " + skipped + " roll_history row(s) with an invalid UUID during migration");
+        }
+        return lastId;
+    }
+
+    /**
+     * Replaces roll_history, then player_stats, with their *_v2 copies. Every statement is safe to
+     * repeat, so a swap cut short between DDL statements is finished by running it again.
+     */
+    private void swapCompactTables(Connection conn) throws SQLException {
+        if (SchemaMigrator.tableExists(conn, "roll_history_v2")) {
+            execute(conn, "DROP TABLE IF EXISTS roll_history");
+            execute(conn, "ALTER TABLE roll_history_v2 RENAME TO roll_history");
+        }
+        if (SchemaMigrator.tableExists(conn, "player_stats_v2")) {
+            execute(conn, "DROP TABLE IF EXISTS player_stats");
+            execute(conn, "ALTER TABLE player_stats_v2 RENAME TO player_stats");
+        }
+        // Leaderboard walks this index in order; rank and roll-count scans never touch the table
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_player_stats_leaderboard ON player_stats(total_rolls DESC, uuid)");
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_roll_history_uuid_time ON roll_history(uuid, timestamp)");
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_roll_history_timestamp ON roll_history(timestamp)");
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_roll_history_tier ON roll_history(tier)");
+    }
+
+    private static long maxRollId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM roll_history")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    /**
+     * v3: all-time per-tier totals (live and archived rolls), kept current by every write so
+     * distribution and global totals read a handful of rows instead of scanning roll_history.
+     * Seeded from the existing data, replacing any earlier seed so a rerun cannot count twice.
+     */
+    private void createTierTotals(Connection conn) throws SQLException {
+        execute(conn,
+            "CREATE TABLE IF NOT EXISTS tier_totals (" +
+            "tier " + textType() + " PRIMARY KEY," +
+            "rolls BIGINT DEFAULT 0," +
+            "xp_spent BIGINT DEFAULT 0," +
+            "coins_spent BIGINT DEFAULT 0" +
+            ")"
+        );
+
+        long[][] totals = new long[TIERS.length][3];
+        String[] seeds = {
+            "SELECT tier, COUNT(*), SUM(xp_cost), SUM(coin_cost) FROM roll_history GROUP BY tier",
+            "SELECT tier, SUM(rolls), SUM(xp_spent), SUM(coins_spent) FROM archived_tier_totals GROUP BY tier"
+        };
+        try (Statement stmt = conn.createStatement()) {
+            for (String seed : seeds) {
+                try (ResultSet rs = stmt.executeQuery(seed)) {
+                    while (rs.next()) {
+                        long[] row = totals[RuneTier.valueOf(rs.getString(1)).ordinal()];
+                        row[0] += rs.getLong(2);
+                        row[1] += rs.getLong(3);
+                        row[2] += rs.getLong(4);
+                    }
+                }
+            }
+        }
+
+        execute(conn, "DELETE FROM tier_totals");
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO tier_totals (tier, rolls, xp_spent, coins_spent) VALUES (?, ?, ?, ?)")) {
+            for (RuneTier tier : TIERS) {
+                long[] row = totals[tier.ordinal()];
+                if (row[0] == 0) continue;
+                insert.setString(1, tier.name());
+                insert.setLong(2, row[0]);
+                insert.setLong(3, row[1]);
+                insert.setLong(4, row[2]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * v4: a {@link HyperLogLog} per day in daily_stats, backfilled from whatever roll_history
+     * still holds. Days already pruned by retention keep their old unique_players value.
+     */
+    private void addDailySketches(Connection conn) throws SQLException {
+        if (!SchemaMigrator.columnExists(conn, "daily_stats", "players_sketch")) {
+            execute(conn, "ALTER TABLE daily_stats ADD COLUMN players_sketch " + bytesType());
+        }
+
+        Map<String, HyperLogLog> sketches = new HashMap<>();
+        String select = "SELECT id, uuid, timestamp FROM roll_history WHERE id > ? ORDER BY id LIMIT " + MIGRATION_CHUNK;
+        long lastId = 0L;
+        try (PreparedStatement read = conn.prepareStatement(select)) {
+            while (true) {
+                int rows = 0;
+                read.setLong(1, lastId);
+                try (ResultSet rs = read.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastId = rs.getLong("id");
+                        sketches.computeIfAbsent(dayOf(rs.getLong("timestamp")), d -> new HyperLogLog())
+                            .add(uuidFromBytes(rs.getBytes("uuid")));
+                    }
+                }
+                if (rows < MIGRATION_CHUNK) break;
+            }
+        }
+
+        try (PreparedStatement update = conn.prepareStatement(UPDATE_DAY_SKETCH_SQL)) {
+            for (Map.Entry<String, HyperLogLog> entry : sketches.entrySet()) {
+                bindDaySketch(update, entry.getKey(), entry.getValue());
+            }
+            update.executeBatch();
+        }
+    }
+
+    /**
+     * v5: the {@link RollJournal} sequence ranges each batch stored, written in the batch's own
+     * transaction so replay after a crash can tell exactly which journaled rolls made it.
+     */
+    private void createJournalCommits(Connection conn) throws SQLException {
+        execute(conn,
+            "CREATE TABLE IF NOT EXISTS journal_commits (" +
+            "seq_from BIGINT PRIMARY KEY," +
+            "seq_to BIGINT NOT NULL" +
+            ")" + keyedTableOptions()
+        );
+    }
+
+    /**
+     * v6: lets placeholder refreshes read only the players written since the last one.
+     */
+    private void indexPlayerUpdates(Connection conn) throws SQLException {
+        execute(conn, "CREATE INDEX IF NOT EXISTS idx_player_stats_updated ON player_stats(updated_at)");
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    protected static byte[] uuidBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+
+    protected static UUID uuidFromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Dictionary id for a world name, inserting it on first use.
+     */
+    private int worldId(Connection conn, String world) throws SQLException {
+        Integer cached = worldIds.get(world);
+        if (cached != null) return cached;
+        int id = lookupId(conn, "SELECT id FROM worlds WHERE world_name = ?", world);
+        if (id < 0) {
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO worlds (world_name) VALUES (?)")) {
+                stmt.setString(1, world);
+                stmt.executeUpdate();
+            }
+            id = lookupId(conn, "SELECT id FROM worlds WHERE world_name = ?", world);
+        }
+        worldIds.put(world, id);
+        return id;
+    }
+
+    /**
+     * Dictionary id for an enchant, inserting it on first use and keeping the display name current.
+     */
+    private int enchantId(Connection conn, String key, String name) throws SQLException {
+        Integer cached = enchantIds.get(key);
+        if (cached == null) {
+            int id = lookupId(conn, "SELECT id FROM enchants WHERE enchant_key = ?", key);
+            if (id < 0) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO enchants (enchant_key, enchant_name) VALUES (?, ?)")) {
+                    stmt.setString(1, key);
+                    stmt.setString(2, name);
+                    stmt.executeUpdate();
+                }
+                id = lookupId(conn, "SELECT id FROM enchants WHERE enchant_key = ?", key);
+                enchantNames.put(key, name);
+            }
+            enchantIds.put(key, id);
+            cached = id;
+        }
+        if (name != null && !name.equals(enchantNames.get(key))) {
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE enchants SET enchant_name = ? WHERE id = ?")) {
+                stmt.setString(1, name);
+                stmt.setInt(2, cached);
+                stmt.executeUpdate();
+            }
+            enchantNames.put(key, name);
+        }
+        return cached;
+    }
+
+    private static int lookupId(Connection conn, String sql, String value) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    private void bindWorld(Connection conn, PreparedStatement stmt, int index, String world) throws SQLException {
+        if (world == null) {
+            stmt.setNull(index, Types.INTEGER);
+        } else {
+            stmt.setInt(index, worldId(conn, world));
+        }
+    }
+
+    /**
+     * Ids handed out inside a rolled-back transaction no longer exist.
+     */
+    private void clearDictionaryCache() {
+        worldIds.clear();
+        enchantIds.clear();
+        enchantNames.clear();
+    }
+
+    /**
+     * Execute an SQL statement without returning results
+     */
+    protected void execute(String sql) throws SQLException {
+        synchronized (lock) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Write a group of rolls in one transaction using JDBC batches.
+     * Statements are prepared once and reused for the lifetime of the connection.
+     */
+    @Override
+    public void recordRolls(List<RollEntry> batch) throws SQLException {
+        if (batch.isEmpty()) return;
+
+        synchronized (lock) {
+            prepareWriteStatements();
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                // updated_at is the write time, not the roll time, so delta reads see replayed rolls too
+                long now = System.currentTimeMillis();
+                long[][] tierTotals = new long[TIERS.length][3];
+                Map<String, HyperLogLog> touchedDays = new HashMap<>();
+                for (RollEntry roll : batch) {
+                    bindRollInsert(roll);
+                    bindPlayerUpsert(roll, now);
+                    bindDailyUpsert(roll);
+                    long[] row = tierTotals[roll.tier.ordinal()];
+                    row[0]++;
+                    row[1] += roll.xpCost;
+                    row[2] += roll.coinCost;
+                    String day = dayOf(roll.timestamp);
+                    HyperLogLog sketch = touchedDays.get(day);
+                    if (sketch == null) {
+                        sketch = daySketch(day);
+                        touchedDays.put(day, sketch);
+                    }
+                    sketch.add(roll.uuid);
+                }
+                bindTierTotalsUpsert(tierTotals);
+                upsertPlayerStmt.executeBatch();
+                insertRollStmt.executeBatch();
+                upsertDailyStmt.executeBatch();
+                upsertTierTotalsStmt.executeBatch();
+                // Sketches are written once per day per batch, after the daily row exists
+                for (Map.Entry<String, HyperLogLog> entry : touchedDays.entrySet()) {
+                    bindDaySketch(updateDaySketchStmt, entry.getKey(), entry.getValue());
+                }
+                updateDaySketchStmt.executeBatch();
+                List<long[]> journalRuns = RollJournal.sequenceRuns(batch);
+                if (!journalRuns.isEmpty()) {
+                    for (long[] run : journalRuns) {
+                        insertJournalCommitStmt.setLong(1, run[0]);
+                        insertJournalCommitStmt.setLong(2, run[1]);
+                        insertJournalCommitStmt.addBatch();
+                    }
+                    insertJournalCommitStmt.executeBatch();
+                }
+                connection.commit();
+                // Only today (and yesterday, around midnight) keeps receiving rolls
+                daySketches.keySet().retainAll(touchedDays.keySet());
+            } catch (SQLException e) {
+                insertRollStmt.clearBatch();
+                upsertPlayerStmt.clearBatch();
+                upsertDailyStmt.clearBatch();
+                upsertTierTotalsStmt.clearBatch();
+                updateDaySketchStmt.clearBatch();
+                insertJournalCommitStmt.clearBatch();
+                clearDictionaryCache();
+                daySketches.clear();
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void prepareWriteStatements() throws SQLException {
+        if (insertRollStmt != null) return;
+        insertRollStmt = connection.prepareStatement(INSERT_ROLL_SQL);
+        upsertPlayerStmt = connection.prepareStatement(upsertPlayerSql());
+        upsertDailyStmt = connection.prepareStatement(upsertDailySql());
+        upsertTierTotalsStmt = connection.prepareStatement(upsertTierTotalsSql());
+        updateDaySketchStmt = connection.prepareStatement(UPDATE_DAY_SKETCH_SQL);
+        insertJournalCommitStmt = connection.prepareStatement(INSERT_JOURNAL_COMMIT_SQL);
+    }
+
+    private void closeWriteStatements() {
+        for (PreparedStatement stmt : new PreparedStatement[] {insertRollStmt, upsertPlayerStmt, upsertDailyStmt,
+                upsertTierTotalsStmt, updateDaySketchStmt, insertJournalCommitStmt}) {
+            if (stmt == null) continue;
+            try {
+                stmt.close();
+            } catch (SQLException ignored) {
+                // Connection is going away anyway
+            }
+        }
+        insertRollStmt = null;
+        upsertPlayerStmt = null;
+        upsertDailyStmt = null;
+        upsertTierTotalsStmt = null;
+        updateDaySketchStmt = null;
+        insertJournalCommitStmt = null;
+    }
+
+    private void bindRollInsert(RollEntry roll) throws SQLException {
+        PreparedStatement stmt = insertRollStmt;
+        stmt.setBytes(1, uuidBytes(roll.uuid));
+        stmt.setString(2, roll.tier.name());
+        stmt.setInt(3, enchantId(connection, roll.enchantId, roll.enchantName));
+        stmt.setInt(4, roll.enchantLevel);
+        stmt.setInt(5, roll.xpCost);
+        stmt.setInt(6, roll.coinCost);
+        bindWorld(connection, stmt, 7, roll.world);
+        stmt.setDouble(8, roll.x);
+        stmt.setDouble(9, roll.y);
+        stmt.setDouble(10, roll.z);
+        stmt.setLong(11, roll.timestamp);
+        stmt.addBatch();
+    }
+
+    private void bindPlayerUpsert(RollEntry roll, long updatedAt) throws SQLException {
+        PreparedStatement stmt = upsertPlayerStmt;
+        int i = 1;
+        stmt.setBytes(i++, uuidBytes(roll.uuid));
+        stmt.setString(i++, roll.playerName);
+        stmt.setInt(i++, roll.xpCost);
+        stmt.setInt(i++, roll.coinCost);
+        for (RuneTier tier : TIERS) {
+            stmt.setInt(i++, tier == roll.tier ? 1 : 0);
+        }
+        stmt.setLong(i++, roll.timestamp);
+        stmt.setLong(i++, roll.timestamp);
+        stmt.setLong(i, updatedAt);
+        stmt.addBatch();
+    }
+
+    private void bindDailyUpsert(RollEntry roll) throws SQLException {
+        PreparedStatement stmt = upsertDailyStmt;
+        int i = 1;
+        stmt.setString(i++, dayOf(roll.timestamp));
+        stmt.setInt(i++, roll.xpCost);
+        stmt.setInt(i++, roll.coinCost);
+        for (RuneTier tier : TIERS) {
+            stmt.setInt(i++, tier == roll.tier ? 1 : 0);
+        }
+        stmt.addBatch();
+    }
+
+    /**
+     * One row per tier touched by the batch rather than one per roll.
+     */
+    private void bindTierTotalsUpsert(long[][] totals) throws SQLException {
+        PreparedStatement stmt = upsertTierTotalsStmt;
+        for (RuneTier tier : TIERS) {
+            long[] row = totals[tier.ordinal()];
+            if (row[0] == 0) continue;
+            stmt.setString(1, tier.name());
+            stmt.setLong(2, row[0]);
+            stmt.setLong(3, row[1]);
+            stmt.setLong(4, row[2]);
+            stmt.addBatch();
+        }
+    }
+
+    /**
+     * The day's sketch, loaded from daily_stats the first time the day is written to.
+     */
+    private HyperLogLog daySketch(String day) throws SQLException {
+        HyperLogLog sketch = daySketches.get(day);
+        if (sketch != null) return sketch;
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT players_sketch FROM daily_stats WHERE date = ?")) {
+            stmt.setString(1, day);
+            try (ResultSet rs = stmt.executeQuery()) {
+                sketch = HyperLogLog.fromBytes(rs.next() ? rs.getBytes(1) : null);
+            }
+        }
+        daySketches.put(day, sketch);
+        return sketch;
+    }
+
+    private static void bindDaySketch(PreparedStatement stmt, String day, HyperLogLog sketch) throws SQLException {
+        stmt.setBytes(1, sketch.toBytes());
+        stmt.setLong(2, sketch.estimate());
+        stmt.setString(3, day);
+        stmt.addBatch();
+    }
+
+    protected static String dayOf(long timestamp) {
+        return java.time.Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
+
+    protected static String tierColumn(RuneTier tier) {
+        return tier.name().toLowerCase() + "_rolls";
+    }
+
+    /**
+     * Joins one formatted fragment per tier column; {@code %c} is replaced with the column name.
+     */
+    protected static String joinTierColumns(String format) {
+        return joinTierColumns(format, ", ");
+    }
+
+    private static String joinTierColumns(String format, String separator) {
+        StringJoiner joiner = new StringJoiner(separator);
+        for (RuneTier tier : TIERS) {
+            joiner.add(format.replace("%c", tierColumn(tier)));
+        }
+        return joiner.toString();
+    }
+
+    private static PlayerStats readPlayerStats(ResultSet rs) throws SQLException {
+        return new PlayerStats(
+            uuidFromBytes(rs.getBytes("uuid")),
+            rs.getString("player_name"),
+            rs.getInt("total_rolls"),
+            rs.getInt("total_xp_spent"),
+            rs.getInt("total_coins_spent"),
+            rs.getInt("common_rolls"),
+            rs.getInt("uncommon_rolls"),
+            rs.getInt("rare_rolls"),
+            rs.getInt("epic_rolls"),
+            rs.getInt("legendary_rolls"),
+            rs.getInt("special_rolls"),
+            rs.getInt("veryspecial_rolls"),
+            rs.getLong("first_roll_date"),
+            rs.getLong("last_roll_date")
+        );
+    }
+
+    private static RollRecord readRollRecord(ResultSet rs) throws SQLException {
+        return new RollRecord(
+            rs.getInt("id"),
+            uuidFromBytes(rs.getBytes("uuid")),
+            rs.getString("player_name"),
+            RuneTier.valueOf(rs.getString("tier")),
+            rs.getString("enchant_key"),
+            rs.getString("enchant_name"),
+            rs.getInt("enchant_level"),
+            rs.getInt("xp_cost"),
+            rs.getInt("coin_cost"),
+            rs.getLong("timestamp"),
+            rs.getString("world_name"),
+            rs.getDouble("location_x"),
+            rs.getDouble("location_y"),
+            rs.getDouble("location_z")
+        );
+    }
+
+    /**
+     * Get player statistics
+     */
+    @Override
+    public PlayerStats getPlayerStats(UUID playerId) throws SQLException {
+        String query = "SELECT * FROM player_stats WHERE uuid = ?";
+
+        return read(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setBytes(1, uuidBytes(playerId));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return readPlayerStats(rs);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Get top players by total rolls, continuing after {@code after}.
+     * Walks idx_player_stats_leaderboard from the cursor, so deep pages cost the same as the first.
+     */
+    @Override
+    public List<PlayerStats> getTopPlayers(PlayerCursor after, int limit) throws SQLException {
+        String query = after == null
+            ? "SELECT * FROM player_stats ORDER BY total_rolls DESC, uuid LIMIT ?"
+            : "SELECT * FROM player_stats WHERE total_rolls <= ? AND (total_rolls < ? OR uuid > ?) " +
+              "ORDER BY total_rolls DESC, uuid LIMIT ?";
+
+        return read(conn -> {
+            List<PlayerStats> topPlayers = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                int i = 1;
+                if (after != null) {
+                    stmt.setInt(i++, after.totalRolls);
+                    stmt.setInt(i++, after.totalRolls);
+                    stmt.setBytes(i++, uuidBytes(after.uuid));
+                }
+                stmt.setInt(i, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        topPlayers.add(readPlayerStats(rs));
+                    }
+                }
+            }
+            return topPlayers;
+        });
+    }
+
+    @Override
+    public List<PlayerStats> getTopPlayersBy(Leaderboard.Metric metric, int limit) throws SQLException {
+        // Column comes from the enum, never from input
+        String query = "SELECT * FROM player_stats WHERE " + metric.column + " > 0 ORDER BY " + metric.column +
+            " DESC, uuid LIMIT ?";
+        return read(conn -> {
+            List<PlayerStats> topPlayers = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setInt(1, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        topPlayers.add(readPlayerStats(rs));
+                    }
+                }
+            }
+            return topPlayers;
+        });
+    }
+
+    /**
+     * Get a page of a player's rolls, newest first, continuing before {@code before}.
+     * Seeks idx_roll_history_uuid_time to the cursor instead of skipping rows with OFFSET.
+     */
+    @Override
+    public List<RollRecord> getRecentRolls(UUID playerId, RollCursor before, int limit) throws SQLException {
+        String query = SELECT_ROLLS + (before == null
+            ? "WHERE r.uuid = ? "
+            : "WHERE r.uuid = ? AND r.timestamp <= ? AND (r.timestamp < ? OR r.id < ?) ") +
+            "ORDER BY r.timestamp DESC, r.id DESC LIMIT ?";
+
+        return read(conn -> {
+            List<RollRecord> rolls = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                int i = 1;
+                stmt.setBytes(i++, uuidBytes(playerId));
+                if (before != null) {
+                    stmt.setLong(i++, before.timestamp);
+                    stmt.setLong(i++, before.timestamp);
+                    stmt.setInt(i++, before.id);
+                }
+                stmt.setInt(i, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rolls.add(readRollRecord(rs));
+                    }
+                }
+            }
+            return rolls;
+        });
+    }
+
+    /**
+     * Get global statistics
+     */
+    @Override
+    public GlobalStats getGlobalStats() throws SQLException {
+        // Totals come from the seven tier_totals rows; only the player count touches player_stats
+        String query = "SELECT SUM(rolls) as total, SUM(xp_spent) as xp, SUM(coins_spent) as coins, " +
+                      "(SELECT COUNT(*) FROM player_stats) as players FROM tier_totals";
+
+        return read(conn -> {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(query)) {
+
+                if (rs.next()) {
+                    return new GlobalStats(
+                        rs.getInt("total"),
+                        rs.getInt("xp"),
+                        rs.getInt("coins"),
+                        rs.getInt("players")
+                    );
+                }
+            }
+            return new GlobalStats(0, 0, 0, 0);
+        });
+    }
+
+    /**
+     * Get tier distribution statistics
+     */
+    @Override
+    public Map<RuneTier, Integer> getTierDistribution() throws SQLException {
+        // Includes rolls the retention job has already moved out of roll_history
+        String query = "SELECT tier, rolls as tier_count FROM tier_totals WHERE rolls > 0";
+
+        return read(conn -> {
+            Map<RuneTier, Integer> distribution = new EnumMap<>(RuneTier.class);
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(query)) {
+
+                while (rs.next()) {
+                    RuneTier tier = RuneTier.valueOf(rs.getString("tier"));
+                    distribution.put(tier, rs.getInt("tier_count"));
+                }
+            }
+            return distribution;
+        });
+    }
+
+    /**
+     * Merges the stored per-day sketches; never touches roll_history.
+     */
+    @Override
+    public long getUniquePlayers(LocalDate from, LocalDate to) throws SQLException {
+        String query = "SELECT players_sketch FROM daily_stats WHERE date BETWEEN ? AND ?";
+
+        return read(conn -> {
+            HyperLogLog union = new HyperLogLog();
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, from.toString());
+                stmt.setString(2, to.toString());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        union.merge(HyperLogLog.fromBytes(rs.getBytes(1)));
+                    }
+                }
+            }
+            return union.estimate();
+        });
+    }
+
+    @Override
+    public List<long[]> getCommittedJournalRanges() throws SQLException {
+        return read(conn -> {
+            List<long[]> ranges = new ArrayList<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT seq_from, seq_to FROM journal_commits ORDER BY seq_from")) {
+                while (rs.next()) {
+                    ranges.add(new long[] {rs.getLong(1), rs.getLong(2)});
+                }
+            }
+            return ranges;
+        });
+    }
+
+    @Override
+    public void pruneJournalCommits(long sequence) throws SQLException {
+        synchronized (lock) {
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "DELETE FROM journal_commits WHERE seq_to < ? " +
+                    "AND seq_to < (SELECT MAX(seq_to) FROM journal_commits)")) {
+                stmt.setLong(1, sequence);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    @Override
+    public List<PlayerStats> getPlayersUpdatedSince(long sinceMillis) throws SQLException {
+        String query = "SELECT * FROM player_stats WHERE updated_at >= ?";
+
+        return read(conn -> {
+            List<PlayerStats> players = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setLong(1, sinceMillis);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        players.add(readPlayerStats(rs));
+                    }
+                }
+            }
+            return players;
+        });
+    }
+
+    /**
+     * Get a player's rank based on total rolls.
+     * Returns null if the player has no stats.
+     */
+    @Override
+    public Integer getPlayerRank(UUID playerId) throws SQLException {
+        String query =
+            "SELECT (SELECT COUNT(*) FROM player_stats ps2 WHERE ps2.total_rolls > ps.total_rolls) + 1 AS player_rank " +
+            "FROM player_stats ps WHERE ps.uuid = ?";
+
+        return read(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setBytes(1, uuidBytes(playerId));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt("player_rank");
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Map<UUID, Integer> loadRollCounts() throws SQLException {
+        return read(conn -> {
+            Map<UUID, Integer> counts = new HashMap<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT uuid, total_rolls FROM player_stats")) {
+                while (rs.next()) {
+                    counts.put(uuidFromBytes(rs.getBytes("uuid")), rs.getInt("total_rolls"));
+                }
+            }
+            return counts;
+        });
+    }
+
+    @Override
+    public List<RollRecord> getRollsBefore(long cutoffMillis, int limit) throws SQLException {
+        String query = SELECT_ROLLS + "WHERE r.timestamp < ? ORDER BY r.timestamp, r.id LIMIT ?";
+
+        return read(conn -> {
+            List<RollRecord> rolls = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setLong(1, cutoffMillis);
+                stmt.setInt(2, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rolls.add(readRollRecord(rs));
+                    }
+                }
+            }
+            return rolls;
+        });
+    }
+
+    @Override
+    public List<PlayerStats> getPlayersAfter(UUID after, int limit) throws SQLException {
+        String query = after == null
+            ? "SELECT * FROM player_stats ORDER BY uuid LIMIT ?"
+            : "SELECT * FROM player_stats WHERE uuid > ? ORDER BY uuid LIMIT ?";
+
+        return read(conn -> {
+            List<PlayerStats> players = new ArrayList<>(limit);
+            try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(limit);
+                int i = 1;
+                if (after != null) {
+                    stmt.setBytes(i++, uuidBytes(after));
+                }
+                stmt.setInt(i, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        players.add(readPlayerStats(rs));
+                    }
+                }
+            }
+            return players;
+        });
+    }
+
+    @Override
+    public List<RollRecord> getRollsBetween(long fromMillis, long toMillis, RollCursor after, int limit)
+            throws SQLException {
+        String query = after == null
+            ? SELECT_ROLLS + "WHERE r.timestamp >= ? AND r.timestamp < ? ORDER BY r.timestamp, r.id LIMIT ?"
+            : SELECT_ROLLS + "WHERE r.timestamp >= ? AND r.timestamp < ? " +
+              "AND (r.timestamp > ? OR (r.timestamp = ? AND r.id > ?)) ORDER BY r.timestamp, r.id LIMIT ?";
+
+        return read(conn -> {
+            List<RollRecord> rolls = new ArrayList<>(limit);
+            try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(limit);
+                int i = 1;
+                stmt.setLong(i++, fromMillis);
+                stmt.setLong(i++, toMillis);
+                if (after != null) {
+                    stmt.setLong(i++, after.timestamp);
+                    stmt.setLong(i++, after.timestamp);
+                    stmt.setInt(i++, after.id);
+                }
+                stmt.setInt(i, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rolls.add(readRollRecord(rs));
+                    }
+                }
+            }
+            return rolls;
+        });
+    }
+
+    @Override
+    public void archiveRolls(List<RollRecord> rolls) throws SQLException {
+        if (rolls.isEmpty()) return;
+
+        // Collapse the chunk to one aggregate row per (month, tier) before touching the database
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        for (RollRecord roll : rolls) {
+            long[] row = totals.computeIfAbsent(RollArchive.monthOf(roll.timestamp) + "|" + roll.tier.name(),
+                k -> new long[3]);
+            row[0]++;
+            row[1] += roll.xpCost;
+            row[2] += roll.coinCost;
+        }
+
+        synchronized (lock) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement upsert = connection.prepareStatement(upsertArchiveTotalsSql());
+                 PreparedStatement delete = connection.prepareStatement("DELETE FROM roll_history WHERE id = ?")) {
+                for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+                    int split = entry.getKey().indexOf('|');
+                    upsert.setString(1, entry.getKey().substring(0, split));
+                    upsert.setString(2, entry.getKey().substring(split + 1));
+                    upsert.setLong(3, entry.getValue()[0]);
+                    upsert.setLong(4, entry.getValue()[1]);
+                    upsert.setLong(5, entry.getValue()[2]);
+                    upsert.addBatch();
+                }
+                for (RollRecord roll : rolls) {
+                    delete.setLong(1, roll.id);
+                    delete.addBatch();
+                }
+                upsert.executeBatch();
+                delete.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Close database connection
+     */
+    @Override
+    public void close() {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                synchronized (lock) {
+                    closeWriteStatements();
+                    beforeClose(connection);
+                    connection.close();
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(java.util.logging.Level.SEVERE, "Error closing " + getName() + " connection", e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.bubblecraft.bubblerune;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Top {@code capacity} players by one {@link Metric}, kept in memory.
+ *
+ * Entries live in a sorted array (value descending, then UUID in storage order) that is replaced
+ * on every change, so a read by position is a volatile read plus an index. Updates are O(capacity)
+ * and only happen when a player enters or moves within the board; an offer below the last entry
+ * of a full board returns straight away. Every metric only grows, so a player can only enter by
+ * an offer and can only leave by being pushed out, which keeps the board exact once it has been
+ * seeded with the database's top rows.
+ */
+public class Leaderboard {
+
+    public enum Metric {
+        ROLLS("rolls", "total_rolls", null),
+        XP_SPENT("xp_spent", "total_xp_spent", null),
+        COINS_SPENT("coins_spent", "total_coins_spent", null),
+        COMMON("common", "common_rolls", RuneTier.COMMON),
+        UNCOMMON("uncommon", "uncommon_rolls", RuneTier.UNCOMMON),
+        RARE("rare", "rare_rolls", RuneTier.RARE),
+        EPIC("epic", "epic_rolls", RuneTier.EPIC),
+        LEGENDARY("legendary", "legendary_rolls", RuneTier.LEGENDARY),
+        SPECIAL("special", "special_rolls", RuneTier.SPECIAL),
+        VERYSPECIAL("veryspecial", "veryspecial_rolls", RuneTier.VERYSPECIAL);
+
+        /** Name used in placeholders, e.g. {@code top_xp_spent_1}. */
+        public final String key;
+        /** player_stats column holding the metric. */
+        public final String column;
+        private final RuneTier tier;
+
+        Metric(String key, String column, RuneTier tier) {
+            this.key = key;
+            this.column = column;
+            this.tier = tier;
+        }
+
+        /**
+         * Tier counted by this metric, or null for the totals.
+         */
+        public RuneTier getTier() {
+            return tier;
+        }
+
+        public long of(RuneStorage.PlayerStats stats) {
+            switch (this) {
+                case ROLLS: return stats.totalRolls;
+                case XP_SPENT: return stats.totalXpSpent;
+                case COINS_SPENT: return stats.totalCoinsSpent;
+                case COMMON: return stats.commonRolls;
+                case UNCOMMON: return stats.uncommonRolls;
+                case RARE: return stats.rareRolls;
+                case EPIC: return stats.epicRolls;
+                case LEGENDARY: return stats.legendaryRolls;
+                case SPECIAL: return stats.specialRolls;
+                case VERYSPECIAL: return stats.verySpecialRolls;
+                default: return 0L;
+            }
+        }
+
+        /**
+         * Metric with the given placeholder key (case-insensitive), or null.
+         */
+        public static Metric fromKey(String key) {
+            String lower = key.toLowerCase(Locale.ROOT);
+            for (Metric metric : values()) {
+                if (metric.key.equals(lower)) return metric;
+            }
+            return null;
+        }
+    }
+
+    public static final class Entry {
+        public final UUID uuid;
+        public final String playerName;
+        public final long value;
+
+        public Entry(UUID uuid, String playerName, long value) {
+            this.uuid = uuid;
+            this.playerName = playerName;
+            this.value = value;
+        }
+    }
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final Metric metric;
+    private final int capacity;
+    private volatile Entry[] entries = EMPTY;
+
+    public Leaderboard(Metric metric, int capacity) {
+        this.metric = metric;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Entry at a 1-based position, or null if the board is shorter.
+     */
+    public Entry get(int position) {
+        Entry[] current = entries;
+        return position >= 1 && position <= current.length ? current[position - 1] : null;
+    }
+
+    public void offer(RuneStorage.PlayerStats stats) {
+        offer(stats.uuid, stats.playerName, metric.of(stats));
+    }
+
+    /**
+     * Records a player's current value. Lower values than the one already on the board are
+     * ignored, so a stale database row never moves a player down.
+     */
+    public synchronized void offer(UUID uuid, String playerName, long value) {
+        if (value <= 0) return;
+        Entry[] current = entries;
+        if (current.length == capacity && compare(value, uuid, current[current.length - 1]) >= 0) {
+            return;
+        }
+
+        int existing = -1;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].uuid.equals(uuid)) {
+                existing = i;
+                break;
+            }
+        }
+        if (existing >= 0) {
+            Entry old = current[existing];
+            if (value < old.value || (value == old.value && (playerName == null || playerName.equals(old.playerName)))) {
+                return;
+            }
+            if (playerName == null) playerName = old.playerName;
+        }
+
+        // Remove the old entry, then insert at the binary-searched position
+        Entry[] rest = current;
+        if (existing >= 0) {
+            rest = new Entry[current.length - 1];
+            System.arraycopy(current, 0, rest, 0, existing);
+            System.arraycopy(current, existing + 1, rest, existing, current.length - existing - 1);
+        }
+        int low = 0;
+        int high = rest.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(value, uuid, rest[mid]) > 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int length = Math.min(capacity, rest.length + 1);
+        Entry[] next = new Entry[length];
+        System.arraycopy(rest, 0, next, 0, Math.min(low, length));
+        if (low < length) {
+            next[low] = new Entry(uuid, playerName, value);
+            System.arraycopy(rest, low, next, low + 1, length - low - 1);
+        }
+        entries = next;
+    }
+
+    public synchronized void clear() {
+        entries = EMPTY;
+    }
+
+    public Entry[] toArray() {
+        Entry[] current = entries;
+        return Arrays.copyOf(current, current.length);
+    }
+
+    /**
+     * Board order: negative when (value, uuid) ranks above {@code entry}.
+     */
+    private static int compare(long value, UUID uuid, Entry entry) {
+        if (value != entry.value) return value > entry.value ? -1 : 1;
+        return RuneStorage.PlayerCursor.compareUuids(uuid, entry.uuid);
+    }
+}
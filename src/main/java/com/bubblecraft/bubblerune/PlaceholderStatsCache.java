@@ -2,7 +2,16 @@ package com.bubblecraft.bubblerune;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -11,18 +20,54 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * Goal: avoid hitting the database for every PlaceholderAPI request while still
  * keeping values reasonably fresh (configurable interval).
+ *
+ * Most refreshes are deltas: only player_stats rows written since the previous refresh are read
+ * and patched into the loaded player snapshots and the {@link Leaderboard}s (totals only grow, so
+ * a player who did not change cannot enter one). Global aggregates are re-read only when something
+ * changed. A full reload runs every {@code placeholders.fullRefreshMinutes} as a safety net.
+ *
+ * Online players' own values do not wait for the timer: each {@link RuneRolledEvent} replaces the
+ * player's immutable {@link PlayerSnapshot} and offers it to every leaderboard straight away, so a
+ * placeholder read is one map lookup and field read. The timed refresh only reconciles against
+ * the database.
+ *
+ * Snapshots are held per session: a player's row is read on the login thread during
+ * {@link AsyncPlayerPreLoginEvent}, so a burst of logins is spread over the server's login workers
+ * rather than landing in one refresh, and it is dropped {@code placeholders.sessionGraceSeconds}
+ * after they quit (a quick reconnect keeps it). Refreshes never walk the online player list.
  */
-public class PlaceholderStatsCache {
+public class PlaceholderStatsCache implements Listener {
     private final BubbleRunePlugin plugin;
 
-    private volatile DatabaseManager.GlobalStats globalStats = new DatabaseManager.GlobalStats(0, 0, 0, 0);
+    private volatile RuneStorage.GlobalStats globalStats = new RuneStorage.GlobalStats(0, 0, 0, 0);
     private volatile Map<RuneTier, Integer> tierDistribution = new EnumMap<>(RuneTier.class);
-    private volatile List<DatabaseManager.PlayerStats> topPlayers = Collections.emptyList();
+    private volatile Map<Leaderboard.Metric, Leaderboard> leaderboards = createLeaderboards(100);
+    // Set when the boards were recreated and need seeding from the database
+    private volatile boolean leaderboardsUnseeded = true;
+    // Distinct rollers today, over the last 7 days and over the last 30 days
+    private volatile long[] uniquePlayers = new long[3];
+
+    // Current sessions only; players without a stats row hold an empty snapshot so they are not looked up again
+    private final Map<UUID, PlayerSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Players logging in, online, or within the grace period after quitting
+    private final Set<UUID> sessions = ConcurrentHashMap.newKeySet();
+    // Main thread only
+    private final Map<UUID, BukkitTask> pendingEvictions = new HashMap<>();
+    private volatile long sessionGraceTicks = 60L * 20L;
 
-    private final Map<UUID, DatabaseManager.PlayerStats> playerStats = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> playerRanks = new ConcurrentHashMap<>();
+    /**
+     * Rows written this long before a refresh started are read again by the next delta, covering
+     * batches that were bound before the refresh but committed after it.
+     */
+    private static final long DELTA_OVERLAP_MILLIS = 10_000L;
 
     private volatile long lastRefreshMillis = 0L;
+    private volatile long fullRefreshIntervalMillis = 30L * 60_000L;
+    // Guarded by refreshLock; the priming refresh and the timer can overlap
+    private final Object refreshLock = new Object();
+    private long lastFullRefreshMillis = 0L;
+    private long lastDeltaStartMillis = 0L;
+    private LocalDate uniquePlayersDay = null;
 
     public PlaceholderStatsCache(BubbleRunePlugin plugin) {
         this.plugin = plugin;
@@ -35,82 +80,206 @@ public class PlaceholderStatsCache {
         return lastRefreshMillis;
     }
 
+    public void setFullRefreshIntervalMillis(long millis) {
+        this.fullRefreshIntervalMillis = Math.max(60_000L, millis);
+    }
+
+    public void setSessionGraceSeconds(long seconds) {
+        this.sessionGraceTicks = Math.max(0L, seconds) * 20L;
+    }
+
+    public int getLoadedPlayerCount() {
+        return snapshots.size();
+    }
+
     /**
-     * Refresh snapshot for global + online-player data.
+     * Starts sessions for players who were already online when the cache was created (plugin
+     * reload). Their rows are read by the next refresh. Main thread.
+     */
+    public void trackOnlinePlayers() {
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            sessions.add(p.getUniqueId());
+        }
+    }
+
+    /**
+     * Refresh snapshot for global data and reconcile loaded players.
      * Runs asynchronously.
      */
     public void refresh() {
-        DatabaseManager db = plugin.getDatabaseManager();
+        RuneStorage db = plugin.getStorage();
         if (db == null) {
             return;
         }
 
-        // Collect online UUIDs safely on main thread.
-        final List<UUID> online;
-        if (Bukkit.isPrimaryThread()) {
-            online = new ArrayList<>();
-            for (Player p : Bukkit.getOnlinePlayers()) {
-                online.add(p.getUniqueId());
-            }
-        } else {
+        synchronized (refreshLock) {
+            long started = System.currentTimeMillis();
             try {
-                online = Bukkit.getScheduler().callSyncMethod(plugin, () -> {
-                    List<UUID> list = new ArrayList<>();
-                    for (Player p : Bukkit.getOnlinePlayers()) {
-                        list.add(p.getUniqueId());
-                    }
-                    return list;
-                }).get();
+                if (lastFullRefreshMillis == 0L || leaderboardsUnseeded
+                        || started - lastFullRefreshMillis >= fullRefreshIntervalMillis) {
+                    fullRefresh(db);
+                    lastFullRefreshMillis = started;
+                } else {
+                    deltaRefresh(db);
+                }
+                lastDeltaStartMillis = started;
+                lastRefreshMillis = System.currentTimeMillis();
             } catch (Exception e) {
-                plugin.getLogger().warning("Placeholder cache online-player snapshot failed: " + e.getMessage());
-                return;
+                plugin.getLogger().warning("Placeholder cache refresh failed: " + e.getMessage());
             }
         }
+    }
 
-        try {
-            DatabaseManager.GlobalStats newGlobal = db.getGlobalStats();
-            Map<RuneTier, Integer> newDist = db.getTierDistribution();
-            List<DatabaseManager.PlayerStats> newTop = db.getTopPlayers(10);
-
-            // Fill missing tiers with 0
-            EnumMap<RuneTier, Integer> dist = new EnumMap<>(RuneTier.class);
-            for (RuneTier tier : RuneTier.values()) {
-                dist.put(tier, newDist.getOrDefault(tier, 0));
+    private void fullRefresh(RuneStorage db) throws java.sql.SQLException {
+        refreshAggregates(db);
+        leaderboardsUnseeded = false;
+        for (Leaderboard board : leaderboards.values()) {
+            for (RuneStorage.PlayerStats ps : db.getTopPlayersBy(board.getMetric(), board.getCapacity())) {
+                board.offer(ps);
             }
+        }
+        loadMissingSessions(db);
+    }
 
-            // Compute ranks for online players (DB query per player, but only every refresh interval)
-            Map<UUID, Integer> newRanks = new HashMap<>();
-            for (UUID uuid : online) {
-                Integer rank = db.getPlayerRank(uuid);
-                if (rank != null) {
-                    newRanks.put(uuid, rank);
-                }
+    /**
+     * Costs one indexed query plus work proportional to the players written since the last refresh.
+     */
+    private void deltaRefresh(RuneStorage db) throws java.sql.SQLException {
+        List<RuneStorage.PlayerStats> changed = db.getPlayersUpdatedSince(lastDeltaStartMillis - DELTA_OVERLAP_MILLIS);
+
+        Collection<Leaderboard> boards = leaderboards.values();
+        for (RuneStorage.PlayerStats ps : changed) {
+            PlayerSnapshot loaded = PlayerSnapshot.of(ps);
+            snapshots.computeIfPresent(ps.uuid, (uuid, current) -> PlayerSnapshot.newer(current, loaded));
+            for (Leaderboard board : boards) {
+                board.offer(ps);
             }
+        }
+        loadMissingSessions(db);
 
-            // Cache player stats for online players
-            for (UUID uuid : online) {
-                DatabaseManager.PlayerStats ps = db.getPlayerStats(uuid);
-                if (ps != null) {
-                    playerStats.put(uuid, ps);
-                } else {
-                    playerStats.remove(uuid);
-                }
+        if (!changed.isEmpty()) {
+            refreshAggregates(db);
+        } else if (!LocalDate.now().equals(uniquePlayersDay)) {
+            refreshUniquePlayers(db);
+        }
+    }
+
+    /**
+     * Sessions whose login-time read failed, or that started before the cache existed.
+     */
+    private void loadMissingSessions(RuneStorage db) throws java.sql.SQLException {
+        for (UUID uuid : sessions) {
+            if (!snapshots.containsKey(uuid)) {
+                loadPlayer(db, uuid);
             }
+        }
+    }
+
+    private void loadPlayer(RuneStorage db, UUID uuid) throws java.sql.SQLException {
+        RuneStorage.PlayerStats ps = db.getPlayerStats(uuid);
+        snapshots.merge(uuid, ps != null ? PlayerSnapshot.of(ps) : PlayerSnapshot.EMPTY, PlayerSnapshot::newer);
+        if (!sessions.contains(uuid)) {
+            // Evicted while the read was in flight
+            snapshots.remove(uuid);
+        }
+    }
 
-            // Atomically swap volatile snapshots
-            globalStats = newGlobal;
-            tierDistribution = dist;
-            topPlayers = newTop;
+    // ---- Sessions ----
 
-            playerRanks.clear();
-            playerRanks.putAll(newRanks);
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        UUID uuid = event.getUniqueId();
+        sessions.add(uuid);
+        if (snapshots.containsKey(uuid)) return;
 
-            lastRefreshMillis = System.currentTimeMillis();
+        RuneStorage db = plugin.getStorage();
+        if (db == null) return;
+        try {
+            loadPlayer(db, uuid);
         } catch (Exception e) {
-            plugin.getLogger().warning("Placeholder cache refresh failed: " + e.getMessage());
+            // Never hold up a login; the next refresh retries
+            plugin.getLogger().warning("Placeholder stats load failed for " + event.getName() + ": " + e.getMessage());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            scheduleEviction(event.getPlayer().getUniqueId(), 0L);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        BukkitTask eviction = pendingEvictions.remove(uuid);
+        if (eviction != null) {
+            eviction.cancel();
+        }
+        // An eviction may have run between pre-login and join; the next refresh reloads the player
+        sessions.add(uuid);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        scheduleEviction(event.getPlayer().getUniqueId(), sessionGraceTicks);
+    }
+
+    private void scheduleEviction(UUID uuid, long delayTicks) {
+        BukkitTask previous = pendingEvictions.remove(uuid);
+        if (previous != null) {
+            previous.cancel();
+        }
+        pendingEvictions.put(uuid, Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            pendingEvictions.remove(uuid);
+            if (Bukkit.getPlayer(uuid) != null) return;
+            sessions.remove(uuid);
+            snapshots.remove(uuid);
+        }, delayTicks));
+    }
+
+    /**
+     * Applies a roll to the player's snapshot as soon as it happens. Players not loaded yet are
+     * left to the next refresh, which reads the roll back from the database.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRuneRolled(RuneRolledEvent event) {
+        Player player = event.getPlayer();
+        PlayerSnapshot updated = snapshots.computeIfPresent(player.getUniqueId(),
+            (uuid, snapshot) -> snapshot.withRoll(event.getTier(), event.getXpCost(), event.getCoinCost()));
+        if (updated == null) return;
+        for (Leaderboard board : leaderboards.values()) {
+            board.offer(player.getUniqueId(), player.getName(), updated.get(board.getMetric()));
         }
     }
 
+    private void refreshAggregates(RuneStorage db) throws java.sql.SQLException {
+        RuneStorage.GlobalStats newGlobal = db.getGlobalStats();
+        Map<RuneTier, Integer> newDist = db.getTierDistribution();
+
+        // Fill missing tiers with 0
+        EnumMap<RuneTier, Integer> dist = new EnumMap<>(RuneTier.class);
+        for (RuneTier tier : RuneTier.values()) {
+            dist.put(tier, newDist.getOrDefault(tier, 0));
+        }
+
+        // Atomically swap volatile snapshots
+        globalStats = newGlobal;
+        tierDistribution = dist;
+        refreshUniquePlayers(db);
+    }
+
+    private void refreshUniquePlayers(RuneStorage db) throws java.sql.SQLException {
+        LocalDate today = LocalDate.now();
+        uniquePlayers = new long[] {
+            db.getUniquePlayers(today, today),
+            db.getUniquePlayers(today.minusDays(6), today),
+            db.getUniquePlayers(today.minusDays(29), today)
+        };
+        uniquePlayersDay = today;
+    }
+
     // ---- Global ----
 
     public int getGlobalTotalRolls() {
@@ -121,66 +290,161 @@ public class PlaceholderStatsCache {
         return tierDistribution.getOrDefault(tier, 0);
     }
 
+    public long getUniquePlayersToday() {
+        return uniquePlayers[0];
+    }
+
+    public long getUniquePlayersWeek() {
+        return uniquePlayers[1];
+    }
+
+    public long getUniquePlayersMonth() {
+        return uniquePlayers[2];
+    }
+
     // ---- Leaderboard ----
 
     public String getTopPlayerName(int position) {
-        if (position < 1 || position > 10) return "N/A";
-        List<DatabaseManager.PlayerStats> list = topPlayers;
-        if (position > list.size()) return "N/A";
-        String name = list.get(position - 1).playerName;
-        return name != null ? name : "Unknown";
+        return getTopPlayerName(Leaderboard.Metric.ROLLS, position);
     }
 
     public int getTopPlayerRolls(int position) {
-        if (position < 1 || position > 10) return 0;
-        List<DatabaseManager.PlayerStats> list = topPlayers;
-        if (position > list.size()) return 0;
-        return list.get(position - 1).totalRolls;
+        return (int) getTopPlayerValue(Leaderboard.Metric.ROLLS, position);
+    }
+
+    public String getTopPlayerName(Leaderboard.Metric metric, int position) {
+        Leaderboard.Entry entry = leaderboards.get(metric).get(position);
+        if (entry == null) return "N/A";
+        return entry.playerName != null ? entry.playerName : "Unknown";
+    }
+
+    public long getTopPlayerValue(Leaderboard.Metric metric, int position) {
+        Leaderboard.Entry entry = leaderboards.get(metric).get(position);
+        return entry != null ? entry.value : 0L;
+    }
+
+    public int getLeaderboardSize() {
+        return leaderboards.get(Leaderboard.Metric.ROLLS).getCapacity();
+    }
+
+    /**
+     * Resizes every board (at least 10, for the {@code leaderboard_<n>} placeholders). New
+     * boards start empty and are seeded by the next refresh.
+     */
+    public void setLeaderboardSize(int size) {
+        int capacity = Math.max(10, size);
+        if (capacity == getLeaderboardSize()) return;
+        leaderboards = createLeaderboards(capacity);
+        leaderboardsUnseeded = true;
+    }
+
+    private static Map<Leaderboard.Metric, Leaderboard> createLeaderboards(int capacity) {
+        Map<Leaderboard.Metric, Leaderboard> boards = new EnumMap<>(Leaderboard.Metric.class);
+        for (Leaderboard.Metric metric : Leaderboard.Metric.values()) {
+            boards.put(metric, new Leaderboard(metric, capacity));
+        }
+        return boards;
     }
 
     // ---- Player ----
 
     public int getPlayerRolls(UUID uuid) {
-        DatabaseManager.PlayerStats ps = playerStats.get(uuid);
-        return ps != null ? ps.totalRolls : 0;
+        return snapshot(uuid).totalRolls;
     }
 
     public int getPlayerTierRolls(UUID uuid, RuneTier tier) {
-        DatabaseManager.PlayerStats ps = playerStats.get(uuid);
-        if (ps == null) return 0;
-
-        switch (tier) {
-            case COMMON: return ps.commonRolls;
-            case UNCOMMON: return ps.uncommonRolls;
-            case RARE: return ps.rareRolls;
-            case EPIC: return ps.epicRolls;
-            case LEGENDARY: return ps.legendaryRolls;
-            case SPECIAL: return ps.specialRolls;
-            case VERYSPECIAL: return ps.verySpecialRolls;
-            default: return 0;
-        }
+        return snapshot(uuid).getTierRolls(tier);
     }
 
     public String getRarestRuneObtained(UUID uuid) {
-        DatabaseManager.PlayerStats ps = playerStats.get(uuid);
-        if (ps == null) return "None";
-
-        if (ps.verySpecialRolls > 0) return RuneTier.VERYSPECIAL.name();
-        if (ps.specialRolls > 0) return RuneTier.SPECIAL.name();
-        if (ps.legendaryRolls > 0) return RuneTier.LEGENDARY.name();
-        if (ps.epicRolls > 0) return RuneTier.EPIC.name();
-        if (ps.rareRolls > 0) return RuneTier.RARE.name();
-        if (ps.uncommonRolls > 0) return RuneTier.UNCOMMON.name();
-        if (ps.commonRolls > 0) return RuneTier.COMMON.name();
-        return "None";
+        RuneTier rarest = snapshot(uuid).rarestTier;
+        return rarest != null ? rarest.name() : "None";
     }
 
     public int getPlayerTotalXpSpent(UUID uuid) {
-        DatabaseManager.PlayerStats ps = playerStats.get(uuid);
-        return ps != null ? ps.totalXpSpent : 0;
+        return snapshot(uuid).totalXpSpent;
+    }
+
+    private PlayerSnapshot snapshot(UUID uuid) {
+        PlayerSnapshot snapshot = snapshots.get(uuid);
+        return snapshot != null ? snapshot : PlayerSnapshot.EMPTY;
     }
 
+    /**
+     * Live rank from the storage's in-memory rank index (not part of the timed snapshot).
+     */
     public Integer getPlayerRank(UUID uuid) {
-        return playerRanks.get(uuid);
+        RuneStorage db = plugin.getStorage();
+        if (db == null) {
+            return null;
+        }
+        try {
+            return db.getPlayerRank(uuid);
+        } catch (java.sql.SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Immutable per-player values behind the player placeholders. A roll produces a new snapshot
+     * rather than changing this one, so readers never see a half-applied roll.
+     */
+    public static final class PlayerSnapshot {
+        static final PlayerSnapshot EMPTY = new PlayerSnapshot(0, new int[RuneTier.values().length], 0, 0, null);
+
+        public final int totalRolls;
+        public final int totalXpSpent;
+        public final int totalCoinsSpent;
+        /** Highest tier rolled so far, or null before the first roll. */
+        public final RuneTier rarestTier;
+        private final int[] tierRolls;
+
+        private PlayerSnapshot(int totalRolls, int[] tierRolls, int totalXpSpent, int totalCoinsSpent,
+                               RuneTier rarestTier) {
+            this.totalRolls = totalRolls;
+            this.tierRolls = tierRolls;
+            this.totalXpSpent = totalXpSpent;
+            this.totalCoinsSpent = totalCoinsSpent;
+            this.rarestTier = rarestTier;
+        }
+
+        static PlayerSnapshot of(RuneStorage.PlayerStats ps) {
+            int[] counts = {ps.commonRolls, ps.uncommonRolls, ps.rareRolls, ps.epicRolls, ps.legendaryRolls,
+                ps.specialRolls, ps.verySpecialRolls};
+            RuneTier rarest = null;
+            RuneTier[] tiers = RuneTier.values();
+            for (int i = counts.length - 1; i >= 0 && rarest == null; i--) {
+                if (counts[i] > 0) rarest = tiers[i];
+            }
+            return new PlayerSnapshot(ps.totalRolls, counts, ps.totalXpSpent, ps.totalCoinsSpent, rarest);
+        }
+
+        PlayerSnapshot withRoll(RuneTier tier, int xpCost, int coinCost) {
+            int[] counts = tierRolls.clone();
+            counts[tier.ordinal()]++;
+            RuneTier rarest = rarestTier == null || tier.ordinal() > rarestTier.ordinal() ? tier : rarestTier;
+            return new PlayerSnapshot(totalRolls + 1, counts, totalXpSpent + xpCost, totalCoinsSpent + coinCost, rarest);
+        }
+
+        /**
+         * Keeps whichever snapshot has seen more rolls. Totals only grow, so a database row that is
+         * behind the in-memory snapshot (its batch is still queued) must not roll it back.
+         */
+        static PlayerSnapshot newer(PlayerSnapshot current, PlayerSnapshot loaded) {
+            return loaded.totalRolls >= current.totalRolls ? loaded : current;
+        }
+
+        public int getTierRolls(RuneTier tier) {
+            return tierRolls[tier.ordinal()];
+        }
+
+        public long get(Leaderboard.Metric metric) {
+            switch (metric) {
+                case ROLLS: return totalRolls;
+                case XP_SPENT: return totalXpSpent;
+                case COINS_SPENT: return totalCoinsSpent;
+                default: return getTierRolls(metric.getTier());
+            }
+        }
     }
 }
@@ -0,0 +1,97 @@
+package com.bubblecraft.bubblerune;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory rank index over per-player roll counts.
+ *
+ * Each player's count is kept in a primitive map and every change is mirrored into a
+ * {@link RollCountRanks} tree, so rank lookups and updates are O(log maxCount) and never touch
+ * the database. Rank follows the same rule as the old SQL query: 1 + number of players with
+ * strictly more rolls (ties share a rank).
+ */
+public class RankIndex {
+    // Roll count per player; absent means zero
+    private final UuidLongMap counts = new UuidLongMap();
+    private final RollCountRanks ranks = new RollCountRanks();
+
+    /**
+     * Replaces the index contents with the given counts (players with zero rolls are ignored).
+     */
+    public synchronized void load(Map<UUID, Integer> rollCounts) {
+        counts.clear();
+        int max = 0;
+        for (Map.Entry<UUID, Integer> entry : rollCounts.entrySet()) {
+            int count = entry.getValue() != null ? entry.getValue() : 0;
+            if (count <= 0) continue;
+            counts.put(entry.getKey(), count);
+            max = Math.max(max, count);
+        }
+        ranks.load(max, counts::forEachValue);
+    }
+
+    /**
+     * Adds rolls to a player's count.
+     */
+    public synchronized void increment(UUID playerId, int delta) {
+        if (playerId == null || delta == 0) return;
+        int previous = (int) counts.get(playerId, 0L);
+        set(playerId, previous + delta, previous);
+    }
+
+    /**
+     * Sets a player's absolute roll count.
+     */
+    public synchronized void set(UUID playerId, int count) {
+        if (playerId == null) return;
+        set(playerId, count, (int) counts.get(playerId, 0L));
+    }
+
+    private void set(UUID playerId, int count, int previous) {
+        if (previous == count) return;
+        if (count <= 0) {
+            counts.remove(playerId);
+        } else {
+            counts.put(playerId, count);
+        }
+        ranks.move(Math.max(0, previous), Math.max(0, count));
+    }
+
+    public synchronized void remove(UUID playerId) {
+        int previous = (int) counts.get(playerId, 0L);
+        if (previous > 0) {
+            counts.remove(playerId);
+            ranks.move(previous, 0);
+        }
+    }
+
+    public synchronized void clear() {
+        counts.clear();
+        ranks.clear();
+    }
+
+    /**
+     * Rank of a player, or null if they have no rolls.
+     */
+    public synchronized Integer getRank(UUID playerId) {
+        int count = (int) counts.get(playerId, 0L);
+        if (count <= 0) return null;
+        return ranks.getRankForCount(count);
+    }
+
+    /**
+     * Rank a player with the given roll count would have (1 + players with more rolls).
+     */
+    public synchronized int getRankForCount(int count) {
+        return ranks.getRankForCount(count);
+    }
+
+    public synchronized int getRollCount(UUID playerId) {
+        return (int) counts.get(playerId, 0L);
+    }
+
+    public synchronized int size() {
+        return ranks.size();
+    }
+}
@@ -0,0 +1,140 @@
+package com.bubblecraft.bubblerune;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background pruning of roll_history.
+ *
+ * Rolls older than the retention window are moved out in small chunks: each chunk is first
+ * appended to the monthly archive (if enabled), then folded into archived_tier_totals and
+ * deleted in one short transaction. The pause between chunks gives the roll writer a chance
+ * to take the database lock, so a large backlog never stalls it.
+ *
+ * A crash between the archive append and the delete can leave a chunk in both places; the
+ * next run archives it again, so archive files are at-least-once.
+ */
+public class RetentionJob {
+    private final Logger logger;
+    private final RuneStorage storage;
+    private final RollArchive archive;
+    private final long maxAgeMillis;
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+    private final int maxChunksPerRun;
+    private ScheduledExecutorService executor;
+    private volatile boolean running = true;
+
+    private final LongAdder archived = new LongAdder();
+    private volatile long lastRunMillis = 0L;
+    private volatile int lastRunRolls = 0;
+
+    /**
+     * @param archive where pruned rows are written, or null to only aggregate and delete them
+     * @param maxChunksPerRun chunk limit per run, 0 for no limit
+     */
+    public RetentionJob(Logger logger, RuneStorage storage, RollArchive archive, long maxAgeMillis,
+                        int chunkSize, long chunkPauseMillis, int maxChunksPerRun) {
+        this.logger = logger;
+        this.storage = storage;
+        this.archive = archive;
+        this.maxAgeMillis = maxAgeMillis;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPauseMillis = Math.max(0L, chunkPauseMillis);
+        this.maxChunksPerRun = Math.max(0, maxChunksPerRun);
+    }
+
+    public void start(long initialDelayMillis, long intervalMillis) {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "BubbleRune-Retention");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::runSafely, Math.max(0L, initialDelayMillis),
+            Math.max(60_000L, intervalMillis), TimeUnit.MILLISECONDS);
+    }
+
+    private void runSafely() {
+        try {
+            int moved = runOnce(System.currentTimeMillis());
+            if (moved > 0) {
+                logger.info("Retention: archived " + moved + " roll(s) older than "
+                    + TimeUnit.MILLISECONDS.toDays(maxAgeMillis) + " days.");
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Roll history retention run failed", e);
+        }
+    }
+
+    /**
+     * Moves out every roll older than the retention window (up to the chunk limit).
+     *
+     * @return number of rolls removed from roll_history
+     */
+    public int runOnce(long nowMillis) throws SQLException, IOException {
+        long cutoff = nowMillis - maxAgeMillis;
+        int moved = 0;
+        int chunks = 0;
+        while (running && (maxChunksPerRun == 0 || chunks < maxChunksPerRun)) {
+            List<RuneStorage.RollRecord> chunk = storage.getRollsBefore(cutoff, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            if (archive != null) {
+                archive.append(chunk);
+            }
+            storage.archiveRolls(chunk);
+            moved += chunk.size();
+            archived.add(chunk.size());
+            chunks++;
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            if (chunkPauseMillis > 0) {
+                try {
+                    Thread.sleep(chunkPauseMillis);
+                } catch (InterruptedException e) {
+                    // Shutdown; the rest is picked up next run
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        lastRunMillis = nowMillis;
+        lastRunRolls = moved;
+        return moved;
+    }
+
+    public void shutdown() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+
+    public long getArchivedCount() {
+        return archived.sum();
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    public int getLastRunRolls() {
+        return lastRunRolls;
+    }
+}
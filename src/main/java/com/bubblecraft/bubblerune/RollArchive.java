@@ -0,0 +1,129 @@
+package com.bubblecraft.bubblerune;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monthly gzip'd NDJSON archive files for rolls pruned from roll_history.
+ *
+ * Each {@link #append} call adds a new gzip member to the end of the month's file
+ * ({@code roll_history-YYYY-MM.ndjson.gz}); concatenated members are still one valid gzip
+ * stream, so {@code zcat} or {@link java.util.zip.GZIPInputStream} read the whole month back.
+ */
+public class RollArchive {
+    private final File folder;
+
+    public RollArchive(File folder) {
+        this.folder = folder;
+    }
+
+    public File getFolder() {
+        return folder;
+    }
+
+    /**
+     * Month a roll belongs to, in the server's time zone (e.g. {@code 2026-03}).
+     */
+    public static String monthOf(long timestamp) {
+        return YearMonth.from(Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault())).toString();
+    }
+
+    public File fileFor(String month) {
+        return new File(folder, "roll_history-" + month + ".ndjson.gz");
+    }
+
+    /**
+     * Appends the rolls to their month files and syncs them to disk before returning, so the
+     * rows can safely be deleted from the database afterwards.
+     */
+    public void append(List<RuneStorage.RollRecord> rolls) throws IOException {
+        if (rolls.isEmpty()) return;
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create archive folder " + folder);
+        }
+
+        Map<String, List<RuneStorage.RollRecord>> byMonth = new LinkedHashMap<>();
+        for (RuneStorage.RollRecord roll : rolls) {
+            byMonth.computeIfAbsent(monthOf(roll.timestamp), k -> new ArrayList<>()).add(roll);
+        }
+
+        for (Map.Entry<String, List<RuneStorage.RollRecord>> entry : byMonth.entrySet()) {
+            try (FileOutputStream file = new FileOutputStream(fileFor(entry.getKey()), true)) {
+                GZIPOutputStream gzip = new GZIPOutputStream(file, 8192);
+                Writer out = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+                StringBuilder line = new StringBuilder(256);
+                for (RuneStorage.RollRecord roll : entry.getValue()) {
+                    line.setLength(0);
+                    toJson(roll, line);
+                    line.append('\n');
+                    out.write(line.toString());
+                }
+                out.flush();
+                gzip.finish();
+                file.getFD().sync();
+            }
+        }
+    }
+
+    static void toJson(RuneStorage.RollRecord roll, StringBuilder out) {
+        out.append("{\"id\":").append(roll.id);
+        out.append(",\"uuid\":");
+        quote(roll.uuid.toString(), out);
+        out.append(",\"player\":");
+        quote(roll.playerName, out);
+        out.append(",\"tier\":");
+        quote(roll.tier.name(), out);
+        out.append(",\"enchantId\":");
+        quote(roll.enchantId, out);
+        out.append(",\"enchantName\":");
+        quote(roll.enchantName, out);
+        out.append(",\"level\":").append(roll.enchantLevel);
+        out.append(",\"xp\":").append(roll.xpCost);
+        out.append(",\"coins\":").append(roll.coinCost);
+        out.append(",\"world\":");
+        quote(roll.world, out);
+        out.append(",\"x\":").append(roll.x);
+        out.append(",\"y\":").append(roll.y);
+        out.append(",\"z\":").append(roll.z);
+        out.append(",\"timestamp\":").append(roll.timestamp);
+        out.append('}');
+    }
+
+    static void quote(String value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,116 @@
+package com.bubblecraft.bubblerune;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * How many players sit at each roll count, without knowing who they are.
+ *
+ * A Fenwick tree keyed on roll count, so "how many players have more rolls than X" is a prefix
+ * sum: updates and rank lookups are O(log maxCount) and allocate nothing unless the tree grows.
+ * Callers keep each player's count themselves and report every change through {@link #move};
+ * {@link RankIndex} adds the per-player map on top.
+ */
+public class RollCountRanks {
+    // 1-based Fenwick tree; tree[c] covers a range of roll counts ending at c
+    private int[] tree = new int[1025];
+    private int players = 0;
+
+    /**
+     * Replaces the contents. {@code forEachCount} must feed every player's count (all positive,
+     * none above {@code maxCount}) to the consumer it is given.
+     */
+    public synchronized void load(int maxCount, Consumer<LongConsumer> forEachCount) {
+        int capacity = capacityFor(maxCount);
+        int[] rebuilt = new int[capacity + 1];
+        int[] loaded = new int[1];
+        forEachCount.accept(count -> {
+            rebuilt[(int) count]++;
+            loaded[0]++;
+        });
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                rebuilt[parent] += rebuilt[i];
+            }
+        }
+        tree = rebuilt;
+        players = loaded[0];
+    }
+
+    /**
+     * Moves one player from roll count {@code from} to {@code to}; 0 means not counted.
+     */
+    public synchronized void move(int from, int to) {
+        if (from == to) return;
+        if (from > 0) {
+            add(from, -1);
+            players--;
+        }
+        if (to > 0) {
+            if (to >= tree.length) {
+                grow(capacityFor(to));
+            }
+            add(to, 1);
+            players++;
+        }
+    }
+
+    public synchronized void clear() {
+        tree = new int[1025];
+        players = 0;
+    }
+
+    /**
+     * Rank a player with the given roll count would have (1 + players with more rolls).
+     */
+    public synchronized int getRankForCount(int count) {
+        if (count <= 0) return players + 1;
+        if (count >= tree.length) return 1;
+        return players - prefix(count) + 1;
+    }
+
+    public synchronized int size() {
+        return players;
+    }
+
+    private void add(int index, int delta) {
+        for (int i = index; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int prefix(int index) {
+        int sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Larger tree with the same contents: each count's population is read back as the
+     * difference of two prefix sums.
+     */
+    private void grow(int capacity) {
+        int[] grown = new int[capacity + 1];
+        for (int i = 1; i < tree.length; i++) {
+            grown[i] = prefix(i) - prefix(i - 1);
+        }
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                grown[parent] += grown[i];
+            }
+        }
+        tree = grown;
+    }
+
+    private static int capacityFor(int maxCount) {
+        int capacity = 1024;
+        while (capacity <= maxCount) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bubblecraft.bubblerune;
+
+import org.bukkit.Location;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a single rune roll, captured on the main thread so it can be
+ * handed to the persistence layer without touching Bukkit objects off-thread.
+ */
+public final class RollEntry {
+    public final UUID uuid;
+    public final String playerName;
+    public final RuneTier tier;
+    public final String enchantId;
+    public final String enchantName;
+    public final int enchantLevel;
+    public final int xpCost;
+    public final int coinCost;
+    public final String world;
+    public final double x;
+    public final double y;
+    public final double z;
+    public final long timestamp;
+    /** Position in the {@link RollJournal}, or 0 if the roll was not journaled. */
+    public final long sequence;
+
+    public RollEntry(UUID uuid, String playerName, RuneTier tier, String enchantId, String enchantName,
+                     int enchantLevel, int xpCost, int coinCost, String world, double x, double y, double z,
+                     long timestamp) {
+        this(uuid, playerName, tier, enchantId, enchantName, enchantLevel, xpCost, coinCost, world, x, y, z,
+            timestamp, 0L);
+    }
+
+    public RollEntry(UUID uuid, String playerName, RuneTier tier, String enchantId, String enchantName,
+                     int enchantLevel, int xpCost, int coinCost, String world, double x, double y, double z,
+                     long timestamp, long sequence) {
+        this.uuid = uuid;
+        this.playerName = playerName;
+        this.tier = tier;
+        this.enchantId = enchantId;
+        this.enchantName = enchantName;
+        this.enchantLevel = enchantLevel;
+        this.xpCost = xpCost;
+        this.coinCost = coinCost;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.timestamp = timestamp;
+        this.sequence = sequence;
+    }
+
+    public RollEntry withSequence(long sequence) {
+        return new RollEntry(uuid, playerName, tier, enchantId, enchantName, enchantLevel, xpCost, coinCost,
+            world, x, y, z, timestamp, sequence);
+    }
+
+    /**
+     * Builds an entry stamped with the current time. The location may be null.
+     */
+    public static RollEntry of(UUID uuid, String playerName, RuneTier tier, String enchantId, String enchantName,
+                               int enchantLevel, int xpCost, int coinCost, Location location) {
+        String world = null;
+        double x = 0;
+        double y = 0;
+        double z = 0;
+        if (location != null && location.getWorld() != null) {
+            world = location.getWorld().getName();
+            x = location.getX();
+            y = location.getY();
+            z = location.getZ();
+        }
+        return new RollEntry(uuid, playerName, tier, enchantId, enchantName, enchantLevel,
+            xpCost, coinCost, world, x, y, z, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,327 @@
+package com.bubblecraft.bubblerune;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams roll_history or player_stats to a CSV or NDJSON file under the exports folder.
+ *
+ * Rows are read in keyset chunks of {@code chunkSize} through {@link RuneStorage}, each chunk a
+ * short forward-only read, so only one chunk is ever in memory and the export never holds the
+ * database lock (or an SQLite read snapshot) for longer than one chunk. Output goes through a
+ * large buffer, optionally gzip'd, into a {@code .part} file that is renamed when complete.
+ *
+ * One export runs at a time, on the {@code BubbleRune-Export} thread.
+ */
+public class RollExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public enum Table {
+        ROLLS("roll_history"),
+        PLAYERS("player_stats");
+
+        public final String fileName;
+
+        Table(String fileName) {
+            this.fileName = fileName;
+        }
+    }
+
+    public enum Format {
+        CSV("csv"),
+        NDJSON("ndjson");
+
+        public final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Called on {@link #mainThread()} every {@code progressEveryRows} rows.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rows);
+    }
+
+    public static final class Request {
+        public final Table table;
+        public final Format format;
+        public final boolean gzip;
+        /** Roll exports only: inclusive lower bound on the roll timestamp. */
+        public final long fromMillis;
+        /** Roll exports only: exclusive upper bound on the roll timestamp. */
+        public final long toMillis;
+
+        public Request(Table table, Format format, boolean gzip, long fromMillis, long toMillis) {
+            this.table = table;
+            this.format = format;
+            this.gzip = gzip;
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+        }
+    }
+
+    public static final class Result {
+        public final File file;
+        public final long rows;
+        public final long millis;
+
+        public Result(File file, long rows, long millis) {
+            this.file = file;
+            this.rows = rows;
+            this.millis = millis;
+        }
+    }
+
+    private final RuneStorage storage;
+    private final File folder;
+    private final Logger logger;
+    private final Executor mainThread;
+    private final int chunkSize;
+    private final long progressEveryRows;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean cancelled;
+
+    public RollExporter(RuneStorage storage, File folder, Logger logger, Executor mainThread, int chunkSize,
+                        long progressEveryRows) {
+        this.storage = storage;
+        this.folder = folder;
+        this.logger = logger;
+        this.mainThread = mainThread;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.progressEveryRows = Math.max(0L, progressEveryRows);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "BubbleRune-Export");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Executor that runs tasks on the server thread.
+     */
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Starts an export. The future fails with {@link IllegalStateException} if one is already running.
+     */
+    public CompletableFuture<Result> export(Request request, ProgressListener listener) {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        if (!running.compareAndSet(false, true)) {
+            future.completeExceptionally(new IllegalStateException("An export is already running"));
+            return future;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(run(request, listener));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private Result run(Request request, ProgressListener listener) throws Exception {
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create export folder " + folder);
+        }
+        String name = request.table.fileName + "-" + LocalDateTime.now().format(FILE_STAMP) + "."
+            + request.format.extension + (request.gzip ? ".gz" : "");
+        File target = new File(folder, name);
+        Path part = new File(folder, name + ".part").toPath();
+
+        long started = System.currentTimeMillis();
+        long rows;
+        try (OutputStream file = Files.newOutputStream(part);
+             OutputStream stream = request.gzip ? new GZIPOutputStream(file, BUFFER_SIZE) : file;
+             Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            rows = request.table == Table.ROLLS
+                ? writeRolls(request, out, listener)
+                : writePlayers(request, out, listener);
+        } catch (Exception e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        long millis = System.currentTimeMillis() - started;
+        logger.info("Exported " + rows + " row(s) to " + target.getName() + " in " + millis + "ms");
+        return new Result(target, rows, millis);
+    }
+
+    private long writeRolls(Request request, Writer out, ProgressListener listener) throws Exception {
+        StringBuilder line = new StringBuilder(256);
+        if (request.format == Format.CSV) {
+            out.write("id,uuid,player,tier,enchant_id,enchant_name,level,xp,coins,world,x,y,z,timestamp\n");
+        }
+        long rows = 0L;
+        RuneStorage.RollCursor cursor = null;
+        while (true) {
+            checkCancelled();
+            List<RuneStorage.RollRecord> chunk = storage.getRollsBetween(request.fromMillis, request.toMillis,
+                cursor, chunkSize);
+            for (RuneStorage.RollRecord roll : chunk) {
+                line.setLength(0);
+                if (request.format == Format.CSV) {
+                    line.append(roll.id).append(',').append(roll.uuid).append(',');
+                    csv(roll.playerName, line).append(',').append(roll.tier.name()).append(',');
+                    csv(roll.enchantId, line).append(',');
+                    csv(roll.enchantName, line).append(',');
+                    line.append(roll.enchantLevel).append(',').append(roll.xpCost).append(',')
+                        .append(roll.coinCost).append(',');
+                    csv(roll.world, line).append(',');
+                    line.append(roll.x).append(',').append(roll.y).append(',').append(roll.z).append(',')
+                        .append(roll.timestamp);
+                } else {
+                    RollArchive.toJson(roll, line);
+                }
+                line.append('\n');
+                out.append(line);
+                rows = progress(rows, listener);
+            }
+            if (chunk.size() < chunkSize) return rows;
+            cursor = RuneStorage.RollCursor.of(chunk.get(chunk.size() - 1));
+        }
+    }
+
+    private long writePlayers(Request request, Writer out, ProgressListener listener) throws Exception {
+        StringBuilder line = new StringBuilder(256);
+        if (request.format == Format.CSV) {
+            out.write("uuid,player,total_rolls,total_xp_spent,total_coins_spent,common_rolls,uncommon_rolls," +
+                "rare_rolls,epic_rolls,legendary_rolls,special_rolls,veryspecial_rolls,first_roll_date,last_roll_date\n");
+        }
+        long rows = 0L;
+        UUID after = null;
+        while (true) {
+            checkCancelled();
+            List<RuneStorage.PlayerStats> chunk = storage.getPlayersAfter(after, chunkSize);
+            for (RuneStorage.PlayerStats stats : chunk) {
+                line.setLength(0);
+                if (request.format == Format.CSV) {
+                    line.append(stats.uuid).append(',');
+                    csv(stats.playerName, line).append(',');
+                    line.append(stats.totalRolls).append(',').append(stats.totalXpSpent).append(',')
+                        .append(stats.totalCoinsSpent).append(',').append(stats.commonRolls).append(',')
+                        .append(stats.uncommonRolls).append(',').append(stats.rareRolls).append(',')
+                        .append(stats.epicRolls).append(',').append(stats.legendaryRolls).append(',')
+                        .append(stats.specialRolls).append(',').append(stats.verySpecialRolls).append(',')
+                        .append(stats.firstRollDate).append(',').append(stats.lastRollDate);
+                } else {
+                    toJson(stats, line);
+                }
+                line.append('\n');
+                out.append(line);
+                rows = progress(rows, listener);
+            }
+            if (chunk.size() < chunkSize) return rows;
+            after = chunk.get(chunk.size() - 1).uuid;
+        }
+    }
+
+    private long progress(long rows, ProgressListener listener) {
+        long next = rows + 1;
+        if (listener != null && progressEveryRows > 0 && next % progressEveryRows == 0) {
+            mainThread.execute(() -> listener.onProgress(next));
+        }
+        return next;
+    }
+
+    private void checkCancelled() throws IOException {
+        if (cancelled) {
+            throw new IOException("Export cancelled by shutdown");
+        }
+    }
+
+    static void toJson(RuneStorage.PlayerStats stats, StringBuilder out) {
+        out.append("{\"uuid\":");
+        RollArchive.quote(stats.uuid.toString(), out);
+        out.append(",\"player\":");
+        RollArchive.quote(stats.playerName, out);
+        out.append(",\"totalRolls\":").append(stats.totalRolls);
+        out.append(",\"xp\":").append(stats.totalXpSpent);
+        out.append(",\"coins\":").append(stats.totalCoinsSpent);
+        out.append(",\"tiers\":{");
+        int[] counts = {stats.commonRolls, stats.uncommonRolls, stats.rareRolls, stats.epicRolls,
+            stats.legendaryRolls, stats.specialRolls, stats.verySpecialRolls};
+        RuneTier[] tiers = RuneTier.values();
+        for (int i = 0; i < tiers.length && i < counts.length; i++) {
+            if (i > 0) out.append(',');
+            RollArchive.quote(tiers[i].name(), out);
+            out.append(':').append(counts[i]);
+        }
+        out.append("},\"firstRoll\":").append(stats.firstRollDate);
+        out.append(",\"lastRoll\":").append(stats.lastRollDate);
+        out.append('}');
+    }
+
+    /**
+     * RFC 4180 field: quoted only when it contains a comma, quote or line break; null is empty.
+     */
+    static StringBuilder csv(String value, StringBuilder out) {
+        if (value == null) return out;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return out.append(value);
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Stops a running export (its partial file is removed) and the export thread.
+     */
+    public void shutdown() {
+        cancelled = true;
+        executor.shutdown();
+    }
+
+    static String describe(Request request) {
+        return request.table.fileName + " as " + request.format.name().toLowerCase(Locale.ROOT)
+            + (request.gzip ? " (gzip)" : "");
+    }
+}
@@ -0,0 +1,424 @@
+package com.bubblecraft.bubblerune;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal in front of the database.
+ *
+ * Every roll is appended here (and given a sequence number) before it is queued for the
+ * database, and a COMMIT marker is appended once its batch is committed. On startup, rolls
+ * without a commit, either in this file or in the storage's own record of committed
+ * sequences, are replayed, so a crash, a locked database or a failed batch loses nothing.
+ *
+ * Records are {@code [int length][byte type][payload][int crc32]}; a torn or corrupt tail is
+ * cut off on open. Appends only go to the OS page cache; a background thread forces them to
+ * disk every {@code syncIntervalMillis}. Once every roll is committed the file is truncated,
+ * and if it grows past {@code compactThresholdBytes} (or twice its size after the last
+ * compaction, if that is larger) it is rewritten with just the pending rolls. The rewrite and
+ * its fsync happen outside the lock, so appends only wait for the final rename.
+ */
+public class RollJournal {
+    private static final byte TYPE_ROLL = 1;
+    private static final byte TYPE_COMMIT = 2;
+    private static final int MAX_RECORD = 64 * 1024;
+
+    private final File file;
+    private final Logger logger;
+    private final long syncIntervalMillis;
+    private final long compactThresholdBytes;
+
+    private volatile FileChannel channel;
+    private volatile boolean dirty;
+    private ScheduledExecutorService syncExecutor;
+
+    // Guarded by this
+    private final TreeMap<Long, RollEntry> pending = new TreeMap<>();
+    private long lastSequence;
+    private long compactions;
+    private long compactAt;
+    private boolean compacting;
+
+    public RollJournal(File file, Logger logger, long syncIntervalMillis, long compactThresholdBytes) {
+        this.file = file;
+        this.logger = logger;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.compactThresholdBytes = Math.max(4096L, compactThresholdBytes);
+        this.compactAt = this.compactThresholdBytes;
+    }
+
+    /**
+     * Reads the journal and returns the rolls that still need writing, oldest first.
+     *
+     * @param committed sequence ranges ({@code [from, to]}) the storage already holds
+     */
+    public synchronized List<RollEntry> open(List<long[]> committed) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create journal folder " + parent);
+        }
+
+        List<long[]> ranges = new ArrayList<>(committed);
+        for (long[] range : committed) {
+            lastSequence = Math.max(lastSequence, range[1]);
+        }
+
+        if (file.exists()) {
+            try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long valid = read(in, ranges);
+                if (valid < in.size()) {
+                    logger.warning("Roll journal has " + (in.size() - valid) + " unreadable trailing byte(s); discarding them");
+                    in.truncate(valid);
+                }
+            }
+        }
+
+        for (long[] range : ranges) {
+            pending.subMap(range[0], true, range[1], true).clear();
+        }
+        List<RollEntry> uncommitted = new ArrayList<>(pending.values());
+        // Start from a file holding only what is still pending
+        swapIn(writeCompacted(uncommitted));
+        return uncommitted;
+    }
+
+    private long read(FileChannel in, List<long[]> ranges) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        long position = 0L;
+        long size = in.size();
+        while (position + 4 <= size) {
+            header.clear();
+            in.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            if (length < 1 || length > MAX_RECORD || position + 4 + length + 4 > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length + 4);
+            in.read(body, position + 4);
+            body.flip();
+            byte[] record = new byte[length];
+            body.get(record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if ((int) crc.getValue() != body.getInt()) {
+                break;
+            }
+
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(record, 1, length - 1));
+            if (record[0] == TYPE_ROLL) {
+                RollEntry entry;
+                try {
+                    entry = readRoll(data);
+                } catch (IllegalArgumentException e) {
+                    // Intact record for a tier that no longer exists: drop just this roll, but
+                    // keep its sequence so it is never handed out again
+                    long sequence = ByteBuffer.wrap(record, 1, 8).getLong();
+                    lastSequence = Math.max(lastSequence, sequence);
+                    logger.warning("Dropping journaled roll #" + sequence + ": " + e.getMessage());
+                    position += 4 + length + 4;
+                    continue;
+                }
+                pending.put(entry.sequence, entry);
+                lastSequence = Math.max(lastSequence, entry.sequence);
+            } else if (record[0] == TYPE_COMMIT) {
+                ranges.add(new long[] {data.readLong(), data.readLong()});
+            } else {
+                break;
+            }
+            position += 4 + length + 4;
+        }
+        return position;
+    }
+
+    /**
+     * Starts the background fsync task.
+     */
+    public void startSync() {
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "BubbleRune-JournalSync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(10L, syncIntervalMillis);
+        syncExecutor.scheduleWithFixedDelay(this::sync, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Journals a roll and returns it stamped with its sequence number.
+     */
+    public synchronized RollEntry append(RollEntry entry) throws IOException {
+        RollEntry journaled = entry.withSequence(lastSequence + 1);
+        write(channel, rollRecord(journaled));
+        dirty = true;
+        lastSequence = journaled.sequence;
+        pending.put(journaled.sequence, journaled);
+        return journaled;
+    }
+
+    /**
+     * Marks a batch as stored in the database and compacts the file if worthwhile.
+     *
+     * @return true if nothing is pending any more (the journal was emptied)
+     */
+    public boolean commit(List<RollEntry> batch) throws IOException {
+        List<RollEntry> snapshot;
+        synchronized (this) {
+            List<long[]> runs = sequenceRuns(batch);
+            if (runs.isEmpty()) {
+                return pending.isEmpty();
+            }
+            for (long[] run : runs) {
+                pending.subMap(run[0], true, run[1], true).clear();
+            }
+
+            if (pending.isEmpty()) {
+                channel.truncate(0L);
+                dirty = true;
+                compactAt = compactThresholdBytes;
+                compactions++;
+                return true;
+            }
+            for (long[] run : runs) {
+                write(channel, commitRecord(run));
+            }
+            dirty = true;
+            if (compacting || channel.size() <= compactAt) {
+                return false;
+            }
+            compacting = true;
+            snapshot = new ArrayList<>(pending.values());
+        }
+
+        try {
+            swapIn(writeCompacted(snapshot), snapshot);
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Contiguous sequence ranges ({@code [from, to]}) covered by a batch, ignoring unjournaled rolls.
+     */
+    public static List<long[]> sequenceRuns(List<RollEntry> batch) {
+        long[] sequences = new long[batch.size()];
+        int count = 0;
+        for (RollEntry entry : batch) {
+            if (entry.sequence > 0) sequences[count++] = entry.sequence;
+        }
+        Arrays.sort(sequences, 0, count);
+        List<long[]> runs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long from = sequences[i];
+            while (i + 1 < count && sequences[i + 1] <= sequences[i] + 1) i++;
+            runs.add(new long[] {from, sequences[i]});
+        }
+        return runs;
+    }
+
+    private static void write(FileChannel target, byte[] record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + record.length + 4);
+        buffer.putInt(record.length).put(record).putInt((int) crc.getValue()).flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private static byte[] rollRecord(RollEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(TYPE_ROLL);
+        writeRoll(data, entry);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] commitRecord(long[] run) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(17);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(TYPE_COMMIT);
+        data.writeLong(run[0]);
+        data.writeLong(run[1]);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the given rolls to a fresh temporary file and forces it to disk. Needs no lock.
+     */
+    private File writeCompacted(List<RollEntry> rolls) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (RollEntry entry : rolls) {
+                write(out, rollRecord(entry));
+            }
+            out.force(true);
+        }
+        return temp;
+    }
+
+    /**
+     * Replaces the journal with a file from {@link #writeCompacted} that already holds everything
+     * pending.
+     */
+    private synchronized void swapIn(File temp) throws IOException {
+        swapIn(temp, null);
+    }
+
+    /**
+     * Replaces the journal with a compacted file written from {@code snapshot}, first appending
+     * what changed since: rolls journaled after the snapshot, and commits of snapshot rolls.
+     * Those few records reach disk with the next periodic sync, like any append.
+     */
+    private synchronized void swapIn(File temp, List<RollEntry> snapshot) throws IOException {
+        if (snapshot != null) {
+            List<RollEntry> committed = new ArrayList<>();
+            for (RollEntry entry : snapshot) {
+                if (!pending.containsKey(entry.sequence)) committed.add(entry);
+            }
+            long newest = snapshot.isEmpty() ? 0L : snapshot.get(snapshot.size() - 1).sequence;
+            try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                for (RollEntry entry : pending.tailMap(newest, false).values()) {
+                    write(out, rollRecord(entry));
+                }
+                for (long[] run : sequenceRuns(committed)) {
+                    write(out, commitRecord(run));
+                }
+            }
+        }
+
+        if (channel != null) {
+            channel.close();
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            compactions++;
+        } finally {
+            // On a failed move this reopens the old file, which still holds every record
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+            dirty = true;
+        }
+        compactAt = Math.max(compactThresholdBytes, channel.size() * 2);
+    }
+
+    /**
+     * Forces appended records to disk. Runs outside the lock so appends never wait on fsync.
+     */
+    public void sync() {
+        if (!dirty) return;
+        dirty = false;
+        FileChannel current = channel;
+        try {
+            if (current != null) {
+                current.force(false);
+            }
+        } catch (ClosedChannelException e) {
+            // Swapped out by a compaction, which forces the new file itself
+        } catch (IOException e) {
+            dirty = true;
+            logger.log(Level.WARNING, "Failed to sync roll journal", e);
+        }
+    }
+
+    public void close() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+        synchronized (this) {
+            if (channel == null) return;
+            try {
+                channel.force(true);
+                channel.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to close roll journal", e);
+            }
+            channel = null;
+        }
+    }
+
+    private static void writeRoll(DataOutputStream out, RollEntry entry) throws IOException {
+        out.writeLong(entry.sequence);
+        out.writeLong(entry.uuid.getMostSignificantBits());
+        out.writeLong(entry.uuid.getLeastSignificantBits());
+        out.writeUTF(entry.playerName);
+        out.writeUTF(entry.tier.name());
+        out.writeUTF(entry.enchantId);
+        out.writeUTF(entry.enchantName);
+        out.writeInt(entry.enchantLevel);
+        out.writeInt(entry.xpCost);
+        out.writeInt(entry.coinCost);
+        out.writeBoolean(entry.world != null);
+        if (entry.world != null) {
+            out.writeUTF(entry.world);
+        }
+        out.writeDouble(entry.x);
+        out.writeDouble(entry.y);
+        out.writeDouble(entry.z);
+        out.writeLong(entry.timestamp);
+    }
+
+    private static RollEntry readRoll(DataInputStream in) throws IOException {
+        long sequence = in.readLong();
+        UUID uuid = new UUID(in.readLong(), in.readLong());
+        String playerName = in.readUTF();
+        RuneTier tier = RuneTier.valueOf(in.readUTF());
+        String enchantId = in.readUTF();
+        String enchantName = in.readUTF();
+        int enchantLevel = in.readInt();
+        int xpCost = in.readInt();
+        int coinCost = in.readInt();
+        String world = in.readBoolean() ? in.readUTF() : null;
+        return new RollEntry(uuid, playerName, tier, enchantId, enchantName, enchantLevel, xpCost, coinCost,
+            world, in.readDouble(), in.readDouble(), in.readDouble(), in.readLong(), sequence);
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized long getCompactionCount() {
+        return compactions;
+    }
+
+    public long getSizeBytes() {
+        return file.length();
+    }
+
+    /**
+     * Lowest sequence still waiting for the database, or the next sequence if none are.
+     */
+    public synchronized long getLowestPendingSequence() {
+        return pending.isEmpty() ? lastSequence + 1 : pending.firstKey();
+    }
+}
@@ -0,0 +1,221 @@
+package com.bubblecraft.bubblerune;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind queue for roll persistence.
+ *
+ * Rolls are handed off into a bounded queue and written by one dedicated thread in groups,
+ * one transaction per group, so a burst of rolls costs a single commit instead of one per roll.
+ * A group is flushed once it reaches {@code flushSize} entries or once the oldest entry has
+ * waited {@code flushIntervalMillis}, whichever comes first.
+ */
+public class RollWriteQueue {
+
+    /**
+     * Writes a group of rolls in a single transaction.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void writeBatch(List<RollEntry> batch) throws SQLException;
+    }
+
+    private final Logger logger;
+    private final BatchWriter writer;
+    private final BlockingQueue<RollEntry> queue;
+    private final int capacity;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Backpressure / throughput metrics
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+    private volatile int lastBatchSize = 0;
+    private volatile long lastBatchMillis = 0L;
+
+    public RollWriteQueue(Logger logger, BatchWriter writer, int capacity, int flushSize,
+                          long flushIntervalMillis, long offerTimeoutMillis) {
+        this.logger = logger;
+        this.writer = writer;
+        this.capacity = Math.max(1, capacity);
+        this.flushSize = Math.max(1, Math.min(flushSize, this.capacity));
+        this.flushIntervalMillis = Math.max(1L, flushIntervalMillis);
+        this.offerTimeoutMillis = Math.max(0L, offerTimeoutMillis);
+        this.queue = new ArrayBlockingQueue<>(this.capacity);
+        this.thread = new Thread(this::run, "BubbleRune-RollWriter");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Queues a roll for writing. Never blocks longer than the configured offer timeout.
+     *
+     * @return false if the queue is full or shut down and the roll was not accepted
+     */
+    public boolean submit(RollEntry entry) {
+        if (!running) {
+            rejected.increment();
+            return false;
+        }
+
+        boolean accepted;
+        try {
+            accepted = offerTimeoutMillis > 0
+                ? queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)
+                : queue.offer(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+
+        if (!accepted) {
+            rejected.increment();
+            long total = rejected.sum();
+            if (total == 1 || total % 100 == 0) {
+                logger.warning("Roll write queue is full (" + capacity + "); " + total + " roll(s) rejected so far.");
+            }
+            return false;
+        }
+
+        enqueued.increment();
+        int depth = queue.size();
+        int prev;
+        while (depth > (prev = highWaterMark.get())) {
+            if (highWaterMark.compareAndSet(prev, depth)) break;
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting new rolls, writes everything still queued and waits for the writer thread.
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        try {
+            thread.join(Math.max(1L, timeoutMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warning("Roll writer did not finish within " + timeoutMillis + "ms; "
+                + queue.size() + " roll(s) still pending.");
+        }
+    }
+
+    private void run() {
+        List<RollEntry> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                RollEntry first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Only shutdown interrupts us; fall through and flush what we have.
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Tops the batch up until it is full or the flush interval since the first entry has elapsed.
+     */
+    private void collect(List<RollEntry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < flushSize) {
+            queue.drainTo(batch, flushSize - batch.size());
+            if (batch.size() >= flushSize || !running) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            RollEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<RollEntry> batch) {
+        long start = System.nanoTime();
+        try {
+            writer.writeBatch(batch);
+            written.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            logger.log(Level.SEVERE, "Failed to write " + batch.size() + " roll(s) to database", e);
+        }
+        batches.increment();
+        lastBatchSize = batch.size();
+        lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public long getLastBatchMillis() {
+        return lastBatchMillis;
+    }
+}
@@ -26,11 +26,8 @@ public class RuneGUIListener implements Listener {
         if (!player.isOnline()) return;
         
         try {
-            String guiTitle = plugin.getConfig().getString("gui.title", "&5&lRune Table - Choose Your Tier");
-            String plainTitle = net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer.plainText()
-                .serialize(event.getView().title());
-            
-            if (!plainTitle.contains("Rune Table")) return;
+            RuneSettings settings = runeService.getSettings();
+            if (!settings.guiTitle.equals(event.getView().title())) return;
             
             event.setCancelled(true);
             
@@ -44,10 +41,22 @@ public class RuneGUIListener implements Listener {
                 return;
             }
             
+            // Get table location from metadata
+            Location tableLocation = null;
+            if (player.hasMetadata("runetable_location")) {
+                for (MetadataValue value : player.getMetadata("runetable_location")) {
+                    if (value.getOwningPlugin() == plugin) {
+                        tableLocation = (Location) value.value();
+                        break;
+                    }
+                }
+            }
+            
             // Check cooldown
-            if (plugin.getConfig().getBoolean("cooldown.enabled", true)) {
-                if (plugin.getCooldownManager().isOnCooldown(player.getUniqueId())) {
-                    long remaining = plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId());
+            int tableIndex = plugin.getRuneTableIndex(tableLocation);
+            if (settings.cooldownEnabled) {
+                if (plugin.getCooldownManager().isOnCooldown(player.getUniqueId(), tableIndex)) {
+                    long remaining = plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId(), tableIndex);
                     String msg = plugin.getMessage("messages.cooldown", 
                         "&cYou must wait %seconds% seconds before using the rune table again!");
                     msg = msg.replace("%seconds%", String.valueOf(remaining));
@@ -59,12 +68,17 @@ public class RuneGUIListener implements Listener {
 
             RuneTier chosenTier = runeService.getRandomAffordableTier(player);
             if (chosenTier == null) {
-                int minCost = runeService.getTierMinXpCost(RuneTier.COMMON);
-                int coinCost = 0;
-                if (runeService.isBubbleCoinEconomyAvailable()) {
-                    coinCost = plugin.getConfig().getInt("economy.bubbleCoinCosts.common",
-                        plugin.getConfig().getInt("economy.bubbleCoinCost", 1));
+                long tierCooldown = runeService.getShortestAffordableTierCooldown(player);
+                if (tierCooldown > 0) {
+                    String msg = plugin.getMessage("messages.tierCooldown",
+                        "&cEvery tier you can afford is on cooldown! Try again in %seconds% seconds.");
+                    player.sendMessage(TextFormatter.format(msg.replace("%seconds%", String.valueOf(tierCooldown))));
+                    player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
+                    return;
                 }
+                RuneSettings.TierSettings common = settings.tier(RuneTier.COMMON);
+                int minCost = common.minXpCost;
+                int coinCost = runeService.isBubbleCoinEconomyAvailable() ? common.coinCost : 0;
                 int playerXp = ExperienceUtil.getTotalExperience(player);
                 String msg = plugin.getMessage("messages.notEnoughXp",
                     "&cYou need at least %cost_xp% XP and %cost_coins% BubbleCoins to roll a %tier% rune!");
@@ -77,27 +91,12 @@ public class RuneGUIListener implements Listener {
                 return;
             }
             
-            // Get table location from metadata
-            Location tableLocation = null;
-            if (player.hasMetadata("runetable_location")) {
-                for (MetadataValue value : player.getMetadata("runetable_location")) {
-                    if (value.getOwningPlugin() == plugin) {
-                        tableLocation = (Location) value.value();
-                        break;
-                    }
-                }
-            }
-            
             // Close GUI and grant chosen rune tier
             player.closeInventory();
 
             // Crate-like "rolling" delay (configurable)
-            boolean gambleEnabled = plugin.getConfig().getBoolean("gambleRoll.enabled", true);
-            long delayTicks = plugin.getConfig().getLong("gambleRoll.delayTicks", 40L);
-            if (delayTicks < 0L) delayTicks = 0L;
-
-            if (gambleEnabled && delayTicks > 0L) {
-                if (plugin.getConfig().getBoolean("sounds.enabled", true)) {
+            if (settings.gambleEnabled && settings.gambleDelayTicks > 0L) {
+                if (settings.soundsEnabled) {
                     player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.7f, 1.2f);
                 }
                 String rollingMsg = plugin.getMessage(
@@ -110,11 +109,11 @@ public class RuneGUIListener implements Listener {
                 RuneTier finalChosenTier = chosenTier;
                 Bukkit.getScheduler().runTaskLater(plugin, () -> {
                     if (!player.isOnline()) return;
-                    if (plugin.getConfig().getBoolean("sounds.enabled", true)) {
+                    if (settings.soundsEnabled) {
                         player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.7f, 1.6f);
                     }
                     runeService.grantRune(player, finalTableLocation, finalChosenTier);
-                }, delayTicks);
+                }, settings.gambleDelayTicks);
             } else {
                 runeService.grantRune(player, tableLocation, chosenTier);
             }
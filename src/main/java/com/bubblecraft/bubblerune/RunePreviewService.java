@@ -7,9 +7,6 @@ import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class RunePreviewService {
     private final BubbleRunePlugin plugin;
     
@@ -21,55 +18,33 @@ public class RunePreviewService {
      * Creates a preview rune that shows the tier but not the enchantment.
      * Enhanced with better validation and error handling.
      */
-    public ItemStack createPreviewRune(RuneTier tier, String enchantId) {
+    public ItemStack createPreviewRune(RuneSettings settings, RuneTier tier, String enchantId) {
         if (tier == null || enchantId == null || enchantId.isEmpty()) {
             plugin.getLogger().warning("Invalid tier or enchantId for preview rune");
             return null;
         }
         
-        org.bukkit.configuration.file.FileConfiguration runesConfig = plugin.getRunesConfig();
-        
-        // Get material from global settings with validation
-        String materialName = runesConfig.getString("global.material", "PAPER");
-        Material material = Material.matchMaterial(materialName.toUpperCase());
-        if (material == null || !material.isItem()) {
-            plugin.getLogger().warning("Invalid material '" + materialName + "', using PAPER");
-            material = Material.PAPER;
-        }
+        RuneSettings.TierSettings tierSettings = settings.tier(tier);
         
-        ItemStack item = new ItemStack(material);
+        // Material was validated when runes.yml was loaded
+        ItemStack item = new ItemStack(settings.previewMaterial);
         ItemMeta meta = item.getItemMeta();
         if (meta == null) {
             plugin.getLogger().severe("Failed to get ItemMeta for preview rune");
             return item;
         }
         
-        // Set display name from preview settings (supports both legacy & and MiniMessage <>)
-        // Use Adventure Component API to properly render MiniMessage formatting
-        String name = runesConfig.getString("preview.name", "&e&l? %tier% Rune ?");
-        name = name.replace("%tier%", tier.name());
-        meta.displayName(TextFormatter.toComponent(name));
+        // Name and lore from preview settings, parsed into components when runes.yml was loaded
+        meta.displayName(tierSettings.previewName);
+        meta.lore(tierSettings.previewLore);
         
-        // Set lore from preview settings (supports both legacy & and MiniMessage <>)
-        List<net.kyori.adventure.text.Component> lore = new ArrayList<>();
-        List<String> configLore = runesConfig.getStringList("preview.lore");
-        for (String line : configLore) {
-            line = line.replace("%tier%", tier.name());
-            lore.add(TextFormatter.toComponent(line));
-        }
-        meta.lore(lore);
-        
-        // Set custom model data from preview settings or tier-specific
-        int customModelData = runesConfig.getInt("preview.customModelData", 0);
-        if (customModelData == 0) {
-            customModelData = runesConfig.getInt("tiers." + tier.name().toLowerCase() + ".customModelData", 0);
-        }
-        if (customModelData > 0) {
-            meta.setCustomModelData(customModelData);
+        // Custom model data from preview settings or tier-specific
+        if (tierSettings.previewCustomModelData > 0) {
+            meta.setCustomModelData(tierSettings.previewCustomModelData);
         }
         
         // Add glow effect if enabled
-        if (runesConfig.getBoolean("preview.glow", true)) {
+        if (settings.previewGlow) {
             meta.addEnchant(Enchantment.UNBREAKING, 1, true);
             meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
         }
@@ -0,0 +1,66 @@
+package com.bubblecraft.bubblerune;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called on the main thread after a player has paid for and received a rune, once the roll has
+ * been handed to the database. Informational only; the roll has already happened.
+ */
+public class RuneRolledEvent extends PlayerEvent {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final RuneTier tier;
+    private final String enchantId;
+    private final int xpCost;
+    private final int coinCost;
+    private final Location tableLocation;
+
+    public RuneRolledEvent(@NotNull Player player, @NotNull RuneTier tier, String enchantId, int xpCost, int coinCost,
+                           Location tableLocation) {
+        super(player);
+        this.tier = tier;
+        this.enchantId = enchantId;
+        this.xpCost = xpCost;
+        this.coinCost = coinCost;
+        this.tableLocation = tableLocation;
+    }
+
+    public @NotNull RuneTier getTier() {
+        return tier;
+    }
+
+    /**
+     * Enchant on the rune, or null if none could be resolved.
+     */
+    public String getEnchantId() {
+        return enchantId;
+    }
+
+    public int getXpCost() {
+        return xpCost;
+    }
+
+    public int getCoinCost() {
+        return coinCost;
+    }
+
+    /**
+     * Rune table the roll was made at, or null if it was not made at a table.
+     */
+    public Location getTableLocation() {
+        return tableLocation;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -1,8 +1,6 @@
 package com.bubblecraft.bubblerune;
 
 import org.bukkit.*;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Firework;
 import org.bukkit.entity.Player;
@@ -15,16 +13,13 @@ import org.bukkit.plugin.Plugin;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class RuneService {
     private final BubbleRunePlugin plugin;
-    private final Random random = new Random();
-    private volatile NavigableMap<Double, RuneTier> tierWeights = new TreeMap<>();
-    private volatile int minXp;
-    private volatile int maxXp;
-    private final Map<RuneTier, List<String>> tierEnchants = new EnumMap<>(RuneTier.class);
+    // Replaced as a whole on reload; read once per operation
+    private volatile RuneSettings settings;
     private RunePreviewService previewService;
-    private final Object reloadLock = new Object();
     private boolean coinsEngineAvailable = false;
     private Object coinsEngineAPI = null;
     private volatile boolean coinsEngineIncompatibleLogged = false;
@@ -36,52 +31,37 @@ public class RuneService {
         reload();
     }
 
-    private double getXpCostMultiplier() {
-        double multiplier = plugin.getConfig().getDouble("xpCost.multiplier", 1.0);
-        if (Double.isNaN(multiplier) || Double.isInfinite(multiplier)) return 1.0;
-        return Math.max(0.0, multiplier);
-    }
-
-    private int applyXpMultiplier(int baseCost) {
-        if (baseCost <= 0) return 0;
-        double multiplier = getXpCostMultiplier();
-        long scaled = Math.round(baseCost * multiplier);
-        if (scaled <= 0) return 0;
-        if (scaled > Integer.MAX_VALUE) return Integer.MAX_VALUE;
-        return (int) scaled;
+    /**
+     * Current config snapshot. Read it once and use that instance for the whole operation.
+     */
+    public RuneSettings getSettings() {
+        return settings;
     }
 
     /**
      * Returns the configured minimum XP cost for a tier (after multiplier).
      */
     public int getTierMinXpCost(RuneTier tier) {
-        FileConfiguration config = plugin.getConfig();
-        String tierPath = "tiers." + tier.name().toLowerCase();
-        int min = config.getInt(tierPath + ".xpCost.min", minXp);
-        if (min < 0) min = 0;
-        return applyXpMultiplier(min);
+        return settings.tier(tier).minXpCost;
     }
 
     /**
      * Returns the configured maximum XP cost for a tier (after multiplier).
      */
     public int getTierMaxXpCost(RuneTier tier) {
-        FileConfiguration config = plugin.getConfig();
-        String tierPath = "tiers." + tier.name().toLowerCase();
-        int max = config.getInt(tierPath + ".xpCost.max", maxXp);
-        if (max < 0) max = 0;
-        return applyXpMultiplier(max);
+        return settings.tier(tier).maxXpCost;
     }
 
     /**
      * Returns the highest tier the player can currently afford.
-     * Considers XP minimums and (if enabled/available) per-tier BubbleCoin costs.
+     * Considers XP minimums, (if enabled/available) per-tier BubbleCoin costs and tier cooldowns.
      */
     public RuneTier getBestAffordableTier(Player player) {
         if (player == null) return null;
 
+        RuneSettings current = settings;
         int playerXp = ExperienceUtil.getTotalExperience(player);
-        boolean coinsAvailable = isBubbleCoinEconomyAvailable();
+        boolean coinsAvailable = isBubbleCoinEnabled(current);
         double playerCoins = coinsAvailable ? getPlayerCoins(player) : 0.0;
 
         RuneTier[] descending = {
@@ -95,15 +75,16 @@ public class RuneService {
         };
 
         for (RuneTier tier : descending) {
-            int minXp = getTierMinXpCost(tier);
-            if (playerXp < minXp) continue;
+            RuneSettings.TierSettings tierSettings = current.tier(tier);
+            if (playerXp < tierSettings.minXpCost) continue;
 
             if (coinsAvailable) {
-                String coinPath = "economy.bubbleCoinCosts." + tier.name().toLowerCase();
-                int coinCost = plugin.getConfig().getInt(coinPath, plugin.getConfig().getInt("economy.bubbleCoinCost", 1));
+                int coinCost = tierSettings.coinCost;
                 if (coinCost > 0 && playerCoins < coinCost) continue;
             }
 
+            if (current.cooldownEnabled && plugin.getCooldownManager().isTierOnCooldown(player.getUniqueId(), tier)) continue;
+
             return tier;
         }
 
@@ -112,13 +93,14 @@ public class RuneService {
 
     /**
      * Returns a random tier the player can currently afford.
-     * Considers XP minimums and (if enabled/available) per-tier BubbleCoin costs.
+     * Considers XP minimums, (if enabled/available) per-tier BubbleCoin costs and tier cooldowns.
      */
     public RuneTier getRandomAffordableTier(Player player) {
         if (player == null) return null;
 
+        RuneSettings current = settings;
         int playerXp = ExperienceUtil.getTotalExperience(player);
-        boolean coinsAvailable = isBubbleCoinEconomyAvailable();
+        boolean coinsAvailable = isBubbleCoinEnabled(current);
         double playerCoins = coinsAvailable ? getPlayerCoins(player) : 0.0;
 
         RuneTier[] all = {
@@ -133,73 +115,55 @@ public class RuneService {
 
         List<RuneTier> affordable = new ArrayList<>();
         for (RuneTier tier : all) {
-            int minXp = getTierMinXpCost(tier);
-            if (playerXp < minXp) continue;
+            RuneSettings.TierSettings tierSettings = current.tier(tier);
+            if (playerXp < tierSettings.minXpCost) continue;
 
             if (coinsAvailable) {
-                String coinPath = "economy.bubbleCoinCosts." + tier.name().toLowerCase();
-                int coinCost = plugin.getConfig().getInt(coinPath, plugin.getConfig().getInt("economy.bubbleCoinCost", 1));
+                int coinCost = tierSettings.coinCost;
                 if (coinCost > 0 && playerCoins < coinCost) continue;
             }
 
+            if (current.cooldownEnabled && plugin.getCooldownManager().isTierOnCooldown(player.getUniqueId(), tier)) continue;
+
             affordable.add(tier);
         }
 
         if (affordable.isEmpty()) return null;
-        return affordable.get(random.nextInt(affordable.size()));
+        return affordable.get(ThreadLocalRandom.current().nextInt(affordable.size()));
     }
 
-    public void reload() {
-        synchronized (reloadLock) {
-            FileConfiguration config = plugin.getConfig();
-            ConfigurationSection tiers = config.getConfigurationSection("tiers");
-            
-            // Create new maps to avoid concurrent modification
-            NavigableMap<Double, RuneTier> newTierWeights = new TreeMap<>();
-            Map<RuneTier, List<String>> newTierEnchants = new EnumMap<>(RuneTier.class);
-            double total = 0.0;
-            if (tiers != null) {
-                for (String key : tiers.getKeys(false)) {
-                    RuneTier tier;
-                    try {
-                        tier = RuneTier.valueOf(key.toUpperCase());
-                    } catch (IllegalArgumentException ex) {
-                        continue;
-                    }
-                    double weight = tiers.getDouble(key + ".weight", 1.0);
-                    if (weight <= 0) continue;
-                    total += weight;
-                    newTierWeights.put(total, tier);
+    /**
+     * Seconds until the first tier the player can afford comes off its tier cooldown, or 0 if
+     * none of them is on one. Tells apart the two reasons {@link #getRandomAffordableTier} can
+     * return null.
+     */
+    public long getShortestAffordableTierCooldown(Player player) {
+        if (player == null) return 0L;
 
-                    List<String> enchants = tiers.getStringList(key + ".enchants");
-                    newTierEnchants.put(tier, new ArrayList<>(enchants)); // Defensive copy
-                }
-            }
-            if (newTierWeights.isEmpty()) {
-                total = 0.0;
-                total += 60;
-                newTierWeights.put(total, RuneTier.COMMON);
-                total += 25;
-                newTierWeights.put(total, RuneTier.UNCOMMON);
-                total += 10;
-                newTierWeights.put(total, RuneTier.RARE);
-                total += 5;
-                newTierWeights.put(total, RuneTier.LEGENDARY);
-            }
+        RuneSettings current = settings;
+        if (!current.cooldownEnabled) return 0L;
+        int playerXp = ExperienceUtil.getTotalExperience(player);
+        boolean coinsAvailable = isBubbleCoinEnabled(current);
+        double playerCoins = coinsAvailable ? getPlayerCoins(player) : 0.0;
 
-            // Legacy global XP cost (deprecated - kept for backwards compatibility)
-            int newMinXp = config.getInt("xpCost.min", 1000);
-            int newMaxXp = config.getInt("xpCost.max", 10000);
-            if (newMinXp < 0) newMinXp = 0;
-            if (newMaxXp < newMinXp) newMaxXp = newMinXp;
-            
-            // Atomic replacement
-            this.tierWeights = newTierWeights;
-            this.tierEnchants.clear();
-            this.tierEnchants.putAll(newTierEnchants);
-            this.minXp = newMinXp;
-            this.maxXp = newMaxXp;
+        long shortest = 0L;
+        for (RuneTier tier : RuneTier.values()) {
+            RuneSettings.TierSettings tierSettings = current.tier(tier);
+            if (playerXp < tierSettings.minXpCost) continue;
+            if (coinsAvailable && tierSettings.coinCost > 0 && playerCoins < tierSettings.coinCost) continue;
+
+            if (!plugin.getCooldownManager().isTierOnCooldown(player.getUniqueId(), tier)) continue;
+            // At least 1 so a tier with under a second left never reads as "not on cooldown"
+            long remaining = Math.max(1L, plugin.getCooldownManager().getRemainingTierCooldown(player.getUniqueId(), tier));
+            if (shortest == 0L || remaining < shortest) {
+                shortest = remaining;
+            }
         }
+        return shortest;
+    }
+
+    public void reload() {
+        this.settings = RuneSettings.load(plugin.getConfig(), plugin.getRunesConfig(), plugin.getLogger());
     }
 
     /**
@@ -208,29 +172,12 @@ public class RuneService {
      * Otherwise falls back to legacy global xpCost settings.
      */
     public int getRandomXpCost(RuneTier tier) {
-        FileConfiguration config = plugin.getConfig();
-        String tierPath = "tiers." + tier.name().toLowerCase();
-        
-        // Check if tier-specific XP cost is configured
-        if (config.contains(tierPath + ".xpCost")) {
-            int min = config.getInt(tierPath + ".xpCost.min", minXp);
-            int max = config.getInt(tierPath + ".xpCost.max", maxXp);
-            if (min < 0) min = 0;
-            if (max < min) max = min;
-
-            int rolled;
-            if (min == max) {
-                rolled = min;
-            } else {
-                rolled = min + random.nextInt(max - min + 1);
-            }
-
-            return applyXpMultiplier(rolled);
-        }
-        
-        // Fall back to legacy global setting
-        if (minXp == maxXp) return applyXpMultiplier(minXp);
-        return applyXpMultiplier(minXp + random.nextInt(maxXp - minXp + 1));
+        RuneSettings current = settings;
+        RuneSettings.TierSettings tierSettings = current.tier(tier);
+        int min = tierSettings.baseMinXp;
+        int max = tierSettings.baseMaxXp;
+        int rolled = min == max ? min : min + ThreadLocalRandom.current().nextInt(max - min + 1);
+        return current.applyXpMultiplier(rolled);
     }
 
     /**
@@ -239,8 +186,11 @@ public class RuneService {
      */
     @Deprecated
     public int getRandomXpCost() {
-        if (minXp == maxXp) return minXp;
-        return minXp + random.nextInt(maxXp - minXp + 1);
+        RuneSettings current = settings;
+        int min = current.legacyMinXp;
+        int max = current.legacyMaxXp;
+        if (min == max) return min;
+        return min + ThreadLocalRandom.current().nextInt(max - min + 1);
     }
 
     /**
@@ -267,50 +217,26 @@ public class RuneService {
     
     /**
      * Rolls a random tier based on weights.
-     * Uses weighted random selection algorithm.
+     * Samples the alias table built from tier weights on reload, in constant time.
      * @deprecated Use getAffordableTier() instead for deterministic tier selection
      */
     @Deprecated
     public RuneTier rollTier() {
-        if (tierWeights.isEmpty()) {
-            plugin.getLogger().warning("Tier weights are empty! Using COMMON as fallback.");
-            return RuneTier.COMMON;
-        }
-        
-        double total = tierWeights.lastKey();
-        double r = random.nextDouble() * total;
-        
-        Map.Entry<Double, RuneTier> entry = tierWeights.higherEntry(r);
-        if (entry == null) {
-            // Fallback to highest tier if something goes wrong
-            return tierWeights.lastEntry().getValue();
-        }
-        
-        return entry.getValue();
+        return settings.getTierTable().sample();
     }
     
     /**
      * Rolls a tier with luck modifier.
-     * Higher luck increases chance of better tiers.
+     * Higher luck increases chance of better tiers: the result is distributed as the best of
+     * 1 + 3 * luck rolls (so full luck matches the best of four), drawn with a single random
+     * number so any luck value costs the same as a plain roll.
      * @param luckModifier 0.0 to 1.0, where 1.0 = maximum luck
      */
     public RuneTier rollTierWithLuck(double luckModifier) {
-        if (luckModifier <= 0) return rollTier();
-        
-        luckModifier = Math.min(1.0, Math.max(0.0, luckModifier));
+        if (!(luckModifier > 0)) return rollTier();
         
-        // Roll multiple times and take the best result
-        int extraRolls = (int) (luckModifier * 3);
-        RuneTier best = rollTier();
-        
-        for (int i = 0; i < extraRolls; i++) {
-            RuneTier current = rollTier();
-            if (current.ordinal() > best.ordinal()) {
-                best = current;
-            }
-        }
-        
-        return best;
+        luckModifier = Math.min(1.0, luckModifier);
+        return settings.getTierTable().sampleBest(1.0 + luckModifier * 3.0);
     }
 
     /**
@@ -324,18 +250,20 @@ public class RuneService {
             return;
         }
 
+        RuneSettings current = settings;
+        RuneSettings.TierSettings tierSettings = current.tier(chosenTier);
         int currentXp = ExperienceUtil.getTotalExperience(player);
-        int minCost = getTierMinXpCost(chosenTier);
+        int minCost = tierSettings.minXpCost;
 
         if (currentXp < minCost) {
-            handleNotEnoughXp(player, chosenTier, minCost);
+            handleNotEnoughXp(current, player, chosenTier, minCost);
             return;
         }
 
-        int cost = rollAffordableXpCost(currentXp, chosenTier, minCost);
-        int coinCost = getBubbleCoinCost(chosenTier);
+        int cost = rollAffordableXpCost(currentXp, tierSettings);
+        int coinCost = tierSettings.coinCost;
 
-        if (!validateCoinAffordability(player, coinCost)) {
+        if (!validateCoinAffordability(current, player, coinCost)) {
             return;
         }
 
@@ -344,13 +272,13 @@ public class RuneService {
         }
 
         boolean coinsDeducted = deductXpAndCoins(player, currentXp, cost, coinCost);
-        if (coinCost > 0 && isBubbleCoinEnabled() && !coinsDeducted) {
+        if (coinCost > 0 && isBubbleCoinEnabled(current) && !coinsDeducted) {
             return;
         }
 
         plugin.getStatsManager().recordXpSpent(player.getUniqueId(), cost);
 
-        RuneCreation creation = createRuneWithRefunds(player, chosenTier, currentXp, coinsDeducted, coinCost);
+        RuneCreation creation = createRuneWithRefunds(current, player, chosenTier, currentXp, coinsDeducted, coinCost);
         if (creation == null) {
             return;
         }
@@ -359,27 +287,30 @@ public class RuneService {
         player.getInventory().addItem(creation.rune);
 
         // Spawn enhanced tier-specific particles
-        if (plugin.getConfig().getBoolean("particles.enabled", true) && tableLocation != null) {
-            spawnEnhancedParticles(tableLocation, chosenTier);
+        if (current.particlesEnabled && tableLocation != null) {
+            spawnEnhancedParticles(tableLocation, chosenTier, current.particleCount);
         }
 
         sendRuneReceivedMessage(player, chosenTier, cost, coinCost, creation.enchantId);
-        playSuccessSounds(player, chosenTier);
-        triggerFireworksAndBroadcasts(player, chosenTier);
+        playSuccessSounds(current, player, chosenTier);
+        triggerFireworksAndBroadcasts(current, player, chosenTier);
 
-        plugin.getStatsManager().recordRoll(player.getUniqueId(), chosenTier);
+        plugin.getStatsManager().recordRoll(player.getUniqueId(), player.getName(), chosenTier);
         recordRollToDatabaseAsync(player, chosenTier, creation.enchantId, creation.rune, cost, coinCost, tableLocation);
+        Bukkit.getPluginManager().callEvent(new RuneRolledEvent(player, chosenTier, creation.enchantId, cost, coinCost,
+            tableLocation));
 
-        if (plugin.getConfig().getBoolean("milestones.enabled", true)) {
-            checkMilestones(player);
+        if (current.milestonesEnabled) {
+            checkMilestones(current, player);
         }
 
         if (plugin.getQuestListener() != null) {
             plugin.getQuestListener().onRuneRoll(player, chosenTier);
         }
 
-        if (plugin.getConfig().getBoolean("cooldown.enabled", true)) {
-            plugin.getCooldownManager().setCooldown(player.getUniqueId());
+        if (current.cooldownEnabled) {
+            plugin.getCooldownManager().setCooldown(player.getUniqueId(), chosenTier,
+                plugin.getRuneTableIndex(tableLocation));
         }
     }
 
@@ -399,8 +330,8 @@ public class RuneService {
         return true;
     }
 
-    private void handleNotEnoughXp(Player player, RuneTier chosenTier, int minCost) {
-        int coinCost = getBubbleCoinCost(chosenTier);
+    private void handleNotEnoughXp(RuneSettings current, Player player, RuneTier chosenTier, int minCost) {
+        int coinCost = current.tier(chosenTier).coinCost;
         String template = plugin.getMessage(
             "messages.notEnoughXp",
             "&cYou need at least %cost_xp% XP and %cost_coins% BubbleCoins to roll a %tier% rune!"
@@ -412,13 +343,14 @@ public class RuneService {
             .replace("%tier%", chosenTier.name().toLowerCase()));
         player.sendMessage(msg);
 
-        if (plugin.getConfig().getBoolean("sounds.enabled", true)) {
+        if (current.soundsEnabled) {
             player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 0.8f);
         }
     }
 
-    private int rollAffordableXpCost(int currentXp, RuneTier chosenTier, int minCost) {
-        int maxCost = getTierMaxXpCost(chosenTier);
+    private int rollAffordableXpCost(int currentXp, RuneSettings.TierSettings tierSettings) {
+        int minCost = tierSettings.minXpCost;
+        int maxCost = tierSettings.maxXpCost;
         if (maxCost < minCost) {
             maxCost = minCost;
         }
@@ -428,17 +360,17 @@ public class RuneService {
             return minCost;
         }
 
-        return minCost + random.nextInt(effectiveMaxCost - minCost + 1);
+        return minCost + ThreadLocalRandom.current().nextInt(effectiveMaxCost - minCost + 1);
     }
 
-    private boolean validateCoinAffordability(Player player, int coinCost) {
-        if (isBubbleCoinEnabled() && coinCost > 0 && !hasEnoughCoins(player, coinCost)) {
+    private boolean validateCoinAffordability(RuneSettings current, Player player, int coinCost) {
+        if (isBubbleCoinEnabled(current) && coinCost > 0 && !hasEnoughCoins(player, coinCost)) {
             String template = plugin.getMessage(
                 "messages.notEnoughCoins",
                 "&cYou need %cost_coins% BubbleCoins to roll a rune!"
             );
             player.sendMessage(TextFormatter.format(template.replace("%cost_coins%", String.valueOf(coinCost))));
-            if (plugin.getConfig().getBoolean("sounds.enabled", true)) {
+            if (current.soundsEnabled) {
                 player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 0.8f);
             }
             return false;
@@ -497,21 +429,21 @@ public class RuneService {
         }
     }
 
-    private RuneCreation createRuneWithRefunds(Player player, RuneTier chosenTier, int refundXp, boolean coinsDeducted, int coinCost) {
+    private RuneCreation createRuneWithRefunds(RuneSettings current, Player player, RuneTier chosenTier, int refundXp, boolean coinsDeducted, int coinCost) {
         ItemStack rune;
         String enchantId = null;
 
         try {
-            if (plugin.getConfig().getBoolean("runePreview.enabled", true)) {
-                enchantId = getRandomEnchantIdForTier(chosenTier);
+            if (current.runePreviewEnabled) {
+                enchantId = randomEnchant(current.tier(chosenTier));
                 if (enchantId == null) {
                     plugin.getLogger().warning("No enchantments available for tier: " + chosenTier);
                     refundAfterFailedCreation(player, refundXp, coinsDeducted, coinCost);
                     return null;
                 }
-                rune = previewService.createPreviewRune(chosenTier, enchantId);
+                rune = previewService.createPreviewRune(current, chosenTier, enchantId);
             } else {
-                rune = createRuneItem(chosenTier);
+                rune = createRuneItem(current, chosenTier);
             }
 
             if (rune == null) {
@@ -554,8 +486,8 @@ public class RuneService {
         player.sendMessage(message);
     }
 
-    private void playSuccessSounds(Player player, RuneTier chosenTier) {
-        if (!plugin.getConfig().getBoolean("sounds.enabled", true)) {
+    private void playSuccessSounds(RuneSettings current, Player player, RuneTier chosenTier) {
+        if (!current.soundsEnabled) {
             return;
         }
 
@@ -571,15 +503,15 @@ public class RuneService {
         }
     }
 
-    private void triggerFireworksAndBroadcasts(Player player, RuneTier chosenTier) {
+    private void triggerFireworksAndBroadcasts(RuneSettings current, Player player, RuneTier chosenTier) {
         boolean isHighTier = chosenTier == RuneTier.LEGENDARY || chosenTier == RuneTier.SPECIAL || chosenTier == RuneTier.VERYSPECIAL;
 
-        if (isHighTier && plugin.getConfig().getBoolean("fireworks.enabled", true)) {
+        if (isHighTier && current.fireworksEnabled) {
             spawnFirework(player, chosenTier);
         }
 
-        if (isHighTier && plugin.getConfig().getBoolean("broadcasts.enabled", true)) {
-            broadcastRoll(player, chosenTier);
+        if (isHighTier && current.broadcastsEnabled) {
+            broadcastRoll(current, player, chosenTier);
         }
     }
 
@@ -620,41 +552,25 @@ public class RuneService {
     }
 
     public ItemStack createRuneItem(RuneTier tier) {
-        org.bukkit.configuration.file.FileConfiguration runesConfig = plugin.getRunesConfig();
-        String tierPath = "tiers." + tier.name().toLowerCase();
-        
-        // Get material from global settings
-        String materialName = runesConfig.getString("global.material", "PAPER");
-        Material material = Material.matchMaterial(materialName.toUpperCase());
-        if (material == null || material.isAir()) {
-            material = Material.PAPER;
-        }
-        ItemStack item = new ItemStack(material);
+        return createRuneItem(settings, tier);
+    }
+
+    private ItemStack createRuneItem(RuneSettings current, RuneTier tier) {
+        RuneSettings.TierSettings tierSettings = current.tier(tier);
+        ItemStack item = new ItemStack(current.runeMaterial);
         ItemMeta meta = item.getItemMeta();
         if (meta != null) {
-            // Set display name from runes.yml (supports both legacy & and MiniMessage <>)
-            // Use Adventure Component API to properly render MiniMessage formatting
-            String name = runesConfig.getString(tierPath + ".name", "&f" + tier.name() + " Rune");
-            meta.displayName(TextFormatter.toComponent(name));
-
-            // Set lore from runes.yml (supports both legacy & and MiniMessage <>)
-            // Use Component API to properly render gradients and advanced formatting
-            List<net.kyori.adventure.text.Component> lore = new ArrayList<>();
-            List<String> configLore = runesConfig.getStringList(tierPath + ".lore");
-            for (String line : configLore) {
-                line = line.replace("%tier%", tier.name());
-                lore.add(TextFormatter.toComponent(line));
-            }
-            meta.lore(lore);
+            // Name and lore come from runes.yml, parsed into components when the config was loaded
+            meta.displayName(tierSettings.runeName);
+            meta.lore(tierSettings.runeLore);
 
             // Set custom model data from runes.yml
-            int customModelData = runesConfig.getInt(tierPath + ".customModelData", 0);
-            if (customModelData > 0) {
-                meta.setCustomModelData(customModelData);
+            if (tierSettings.customModelData > 0) {
+                meta.setCustomModelData(tierSettings.customModelData);
             }
             
             // Add glow effect if enabled
-            if (runesConfig.getBoolean("global.glow", true)) {
+            if (current.runeGlow) {
                 meta.addEnchant(Enchantment.UNBREAKING, 1, true);
                 meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
             }
@@ -669,23 +585,22 @@ public class RuneService {
     }
 
     public String getRandomEnchantIdForTier(RuneTier tier) {
-        List<String> list = tierEnchants.getOrDefault(tier, Collections.emptyList());
-        if (list.isEmpty()) {
-            return null;
-        }
-        return list.get(random.nextInt(list.size()));
+        return randomEnchant(settings.tier(tier));
+    }
+
+    private String randomEnchant(RuneSettings.TierSettings tierSettings) {
+        return tierSettings.enchants.sample();
     }
     
     /**
      * Spawns enhanced particle effects with spiral animation
      */
-    private void spawnEnhancedParticles(Location tableLocation, RuneTier tier) {
+    private void spawnEnhancedParticles(Location tableLocation, RuneTier tier, int particleCount) {
         if (tableLocation == null || tableLocation.getWorld() == null) return;
         
         final Location center = tableLocation.clone().add(0.5, 1.2, 0.5);
         final World world = tableLocation.getWorld();
         final Particle.DustOptions dustOptions = getTierDustColor(tier);
-        final int particleCount = plugin.getConfig().getInt("particles.count", 50);
         final boolean spiralEffect = tier.ordinal() >= RuneTier.RARE.ordinal();
         
         // Immediate burst
@@ -863,50 +778,36 @@ public class RuneService {
         });
     }
     
-    private void checkMilestones(Player player) {
+    private void checkMilestones(RuneSettings current, Player player) {
         if (player == null || !player.isOnline()) return;
         
-        org.bukkit.configuration.ConfigurationSection milestones = plugin.getConfig().getConfigurationSection("milestones.rewards");
-        if (milestones == null) return;
-        
-        int playerRolls = plugin.getStatsManager().getPlayerRolls(player.getUniqueId());
-        
-        for (String milestoneStr : milestones.getKeys(false)) {
+        for (RuneSettings.Milestone milestone : current.getMilestones()) {
             try {
-                int milestone = Integer.parseInt(milestoneStr);
-                if (plugin.getStatsManager().shouldTriggerMilestone(player.getUniqueId(), milestone)) {
-                    try {
-                        String tierName = plugin.getConfig().getString("milestones.rewards." + milestone + ".tier", "RARE");
-                        String message = plugin.getConfig().getString("milestones.rewards." + milestone + ".message", 
-                            "&a&lMilestone! &eYou've rolled &f" + milestone + " &erunes!");
-                        
-                        RuneTier rewardTier = RuneTier.valueOf(tierName.toUpperCase());
-                        ItemStack reward = createRuneItem(rewardTier);
-                        if (reward == null) {
-                            plugin.getLogger().warning("Failed to create milestone reward for tier: " + tierName);
-                            continue;
-                        }
-                        
-                        player.getInventory().addItem(reward);
-                        player.sendMessage(TextFormatter.format(message));
-                        player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
-                        
-                        // Spawn celebration particles on main thread
-                        if (player.getWorld() != null) {
-                            player.getWorld().spawnParticle(Particle.TOTEM_OF_UNDYING, 
-                                player.getLocation().add(0, 1, 0), 50, 0.5, 0.5, 0.5, 0.1);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        plugin.getLogger().warning("Invalid milestone reward configuration: " + e.getMessage());
-                    } catch (Exception e) {
-                        plugin.getLogger().severe("Error processing milestone " + milestone + ": " + e.getMessage());
-                        e.printStackTrace();
+                if (plugin.getStatsManager().shouldTriggerMilestone(player.getUniqueId(), milestone.rolls)) {
+                    if (milestone.rewardTier == null) {
+                        plugin.getLogger().warning("Invalid milestone reward configuration: unknown tier " + milestone.rewardTierName);
+                        continue;
+                    }
+
+                    ItemStack reward = createRuneItem(current, milestone.rewardTier);
+                    if (reward == null) {
+                        plugin.getLogger().warning("Failed to create milestone reward for tier: " + milestone.rewardTierName);
+                        continue;
+                    }
+                    
+                    player.getInventory().addItem(reward);
+                    player.sendMessage(TextFormatter.format(milestone.message));
+                    player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
+                    
+                    // Spawn celebration particles on main thread
+                    if (player.getWorld() != null) {
+                        player.getWorld().spawnParticle(Particle.TOTEM_OF_UNDYING, 
+                            player.getLocation().add(0, 1, 0), 50, 0.5, 0.5, 0.5, 0.1);
                     }
                 }
-            } catch (NumberFormatException e) {
-                // Skip non-numeric keys
             } catch (Exception e) {
-                plugin.getLogger().severe("Unexpected error in milestone check: " + e.getMessage());
+                plugin.getLogger().severe("Error processing milestone " + milestone.rolls + ": " + e.getMessage());
+                e.printStackTrace();
             }
         }
     }
@@ -914,7 +815,7 @@ public class RuneService {
     /**
      * Broadcasts rare rune rolls to all players using Component API
      */
-    private void broadcastRoll(Player player, RuneTier tier) {
+    private void broadcastRoll(RuneSettings current, Player player, RuneTier tier) {
         String template = plugin.getMessage("messages.broadcast", 
             "&6&l✦ &e%player% &6rolled a &f%tier% &6rune! &6&l✦");
         String message = template
@@ -926,7 +827,7 @@ public class RuneService {
         plugin.getServer().broadcast(component);
         
         // Play announcement sound for all nearby players
-        if (plugin.getConfig().getBoolean("sounds.enabled", true)) {
+        if (current.soundsEnabled) {
             Location playerLoc = player.getLocation();
             double radius = 50.0;
             for (Player nearby : player.getWorld().getPlayers()) {
@@ -1074,36 +975,20 @@ public class RuneService {
     public boolean isBubbleCoinEconomyAvailable() {
         return isBubbleCoinEnabled();
     }
+
+    private boolean isBubbleCoinEnabled(RuneSettings current) {
+        return current.bubbleCoinConfigured && coinsEngineAvailable;
+    }
     
     /**
      * Checks if BubbleCoin economy is enabled and available
      */
     private boolean isBubbleCoinEnabled() {
-        return plugin.getConfig().getBoolean("economy.bubbleCoinEnabled", true)
-            && "coinsengine".equalsIgnoreCase(plugin.getConfig().getString("economy.provider", "coinsengine"))
-            && coinsEngineAvailable;
+        return isBubbleCoinEnabled(settings);
     }
 
     private String getEconomyCurrencyId() {
-        // New config key
-        String currency = plugin.getConfig().getString("economy.currencyId", null);
-        if (currency != null && !currency.isBlank()) return currency;
-
-        // Backwards compatible key
-        return plugin.getConfig().getString("economy.bubbleCoinCurrency", "bubblecoin");
-    }
-    
-    /**
-     * Gets the BubbleCoin cost for rolling a rune
-     */
-    private int getBubbleCoinCost(RuneTier tier) {
-        // Check for per-tier cost first (new format)
-        String tierPath = "economy.bubbleCoinCosts." + tier.name().toLowerCase();
-        if (plugin.getConfig().contains(tierPath)) {
-            return plugin.getConfig().getInt(tierPath, 1);
-        }
-        // Fallback to global cost (legacy format)
-        return plugin.getConfig().getInt("economy.bubbleCoinCost", 1);
+        return settings.currencyId;
     }
     
     /**
@@ -0,0 +1,328 @@
+package com.bubblecraft.bubblerune;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Immutable view of config.yml and runes.yml for the roll path and the rune table GUI.
+ *
+ * Built once on load and on /bubblerune reload, then published by {@link RuneService} through a
+ * single volatile field. Rolls and GUI renders read final fields and per-tier records indexed by
+ * {@link RuneTier#ordinal()} instead of concatenating paths and walking the YAML tree; a roll that
+ * started before a reload finishes with the snapshot it read.
+ */
+public final class RuneSettings {
+
+    /**
+     * Everything configured for one tier. XP costs are already clamped and multiplied; rune names
+     * and lore are already parsed into components with {@code %tier%} filled in.
+     */
+    public static final class TierSettings {
+        public final RuneTier tier;
+        /** Cost range a roll is drawn from, before the multiplier. */
+        public final int baseMinXp;
+        public final int baseMaxXp;
+        /** Cost range shown and checked, after the multiplier. */
+        public final int minXpCost;
+        public final int maxXpCost;
+        public final int coinCost;
+        /** Enchant ids weighted by {@code tiers.<tier>.enchants}; empty if none are configured. */
+        public final AliasTable<String> enchants;
+        public final Component runeName;
+        public final List<Component> runeLore;
+        public final int customModelData;
+        public final Component previewName;
+        public final List<Component> previewLore;
+        public final int previewCustomModelData;
+
+        TierSettings(RuneTier tier, int baseMinXp, int baseMaxXp, int minXpCost, int maxXpCost, int coinCost,
+                     AliasTable<String> enchants, Component runeName, List<Component> runeLore, int customModelData,
+                     Component previewName, List<Component> previewLore, int previewCustomModelData) {
+            this.tier = tier;
+            this.baseMinXp = baseMinXp;
+            this.baseMaxXp = baseMaxXp;
+            this.minXpCost = minXpCost;
+            this.maxXpCost = maxXpCost;
+            this.coinCost = coinCost;
+            this.enchants = enchants;
+            this.runeName = runeName;
+            this.runeLore = runeLore;
+            this.customModelData = customModelData;
+            this.previewName = previewName;
+            this.previewLore = previewLore;
+            this.previewCustomModelData = previewCustomModelData;
+        }
+    }
+
+    /**
+     * One {@code milestones.rewards} entry; {@code rewardTier} is null if the tier name is invalid.
+     */
+    public static final class Milestone {
+        public final int rolls;
+        public final String rewardTierName;
+        public final RuneTier rewardTier;
+        public final String message;
+
+        Milestone(int rolls, String rewardTierName, RuneTier rewardTier, String message) {
+            this.rolls = rolls;
+            this.rewardTierName = rewardTierName;
+            this.rewardTier = rewardTier;
+            this.message = message;
+        }
+    }
+
+    /** Master switch ({@code enabled}); when off, rune tables refuse to open. */
+    public final boolean enabled;
+    public final Component guiTitle;
+    public final boolean soundsEnabled;
+    public final boolean particlesEnabled;
+    public final int particleCount;
+    public final boolean fireworksEnabled;
+    public final boolean broadcastsEnabled;
+    public final boolean milestonesEnabled;
+    public final boolean cooldownEnabled;
+    public final boolean runePreviewEnabled;
+    /** Crate-like delay between clicking roll and receiving the rune; never negative. */
+    public final boolean gambleEnabled;
+    public final long gambleDelayTicks;
+    /** {@code economy.bubbleCoinEnabled} with CoinsEngine as provider; the plugin must still be hooked. */
+    public final boolean bubbleCoinConfigured;
+    public final String currencyId;
+    public final double xpMultiplier;
+    /** Legacy global {@code xpCost.min/max}, used by tiers without their own range. */
+    public final int legacyMinXp;
+    public final int legacyMaxXp;
+    public final Material runeMaterial;
+    public final boolean runeGlow;
+    public final Material previewMaterial;
+    public final boolean previewGlow;
+
+    private final TierSettings[] tiers;
+    private final AliasTable<RuneTier> tierTable;
+    private final List<Milestone> milestones;
+
+    private RuneSettings(FileConfiguration config, FileConfiguration runes, Logger logger) {
+        enabled = config.getBoolean("enabled", true);
+        guiTitle = TextFormatter.toComponent(config.getString("gui.title", "&5&lRune Table - Choose Your Tier"));
+        soundsEnabled = config.getBoolean("sounds.enabled", true);
+        particlesEnabled = config.getBoolean("particles.enabled", true);
+        particleCount = config.getInt("particles.count", 50);
+        fireworksEnabled = config.getBoolean("fireworks.enabled", true);
+        broadcastsEnabled = config.getBoolean("broadcasts.enabled", true);
+        milestonesEnabled = config.getBoolean("milestones.enabled", true);
+        cooldownEnabled = config.getBoolean("cooldown.enabled", true);
+        runePreviewEnabled = config.getBoolean("runePreview.enabled", true);
+        gambleEnabled = config.getBoolean("gambleRoll.enabled", true);
+        gambleDelayTicks = Math.max(0L, config.getLong("gambleRoll.delayTicks", 40L));
+
+        bubbleCoinConfigured = config.getBoolean("economy.bubbleCoinEnabled", true)
+            && "coinsengine".equalsIgnoreCase(config.getString("economy.provider", "coinsengine"));
+        // New key first, then the backwards compatible one
+        String currency = config.getString("economy.currencyId", null);
+        currencyId = currency != null && !currency.isBlank()
+            ? currency
+            : config.getString("economy.bubbleCoinCurrency", "bubblecoin");
+
+        double multiplier = config.getDouble("xpCost.multiplier", 1.0);
+        xpMultiplier = Double.isNaN(multiplier) || Double.isInfinite(multiplier) ? 1.0 : Math.max(0.0, multiplier);
+        // Legacy global XP cost (deprecated - kept for backwards compatibility)
+        legacyMinXp = Math.max(0, config.getInt("xpCost.min", 1000));
+        legacyMaxXp = Math.max(legacyMinXp, config.getInt("xpCost.max", 10000));
+
+        String materialName = runes.getString("global.material", "PAPER");
+        Material material = Material.matchMaterial(materialName.toUpperCase());
+        runeMaterial = material == null || material.isAir() ? Material.PAPER : material;
+        if (material == null || !material.isItem()) {
+            logger.warning("Invalid material '" + materialName + "', using PAPER");
+            previewMaterial = Material.PAPER;
+        } else {
+            previewMaterial = material;
+        }
+        runeGlow = runes.getBoolean("global.glow", true);
+        previewGlow = runes.getBoolean("preview.glow", true);
+
+        tierTable = loadTierTable(config);
+        tiers = loadTiers(config, runes, logger);
+        milestones = Collections.unmodifiableList(loadMilestones(config));
+    }
+
+    /**
+     * Compiles the current configs. A missing runes.yml counts as empty.
+     */
+    public static RuneSettings load(FileConfiguration config, FileConfiguration runes, Logger logger) {
+        return new RuneSettings(config, runes != null ? runes : new YamlConfiguration(), logger);
+    }
+
+    public TierSettings tier(RuneTier tier) {
+        return tiers[tier.ordinal()];
+    }
+
+    /**
+     * Tiers by {@code tiers.<tier>.weight}, for the legacy weighted roll. Never empty; values are
+     * in tier order, which {@link AliasTable#sampleBest} relies on for luck.
+     */
+    public AliasTable<RuneTier> getTierTable() {
+        return tierTable;
+    }
+
+    public List<Milestone> getMilestones() {
+        return milestones;
+    }
+
+    public int applyXpMultiplier(int baseCost) {
+        if (baseCost <= 0) return 0;
+        long scaled = Math.round(baseCost * xpMultiplier);
+        if (scaled <= 0) return 0;
+        if (scaled > Integer.MAX_VALUE) return Integer.MAX_VALUE;
+        return (int) scaled;
+    }
+
+    private static AliasTable<RuneTier> loadTierTable(FileConfiguration config) {
+        double[] weights = new double[RuneTier.values().length];
+        ConfigurationSection section = config.getConfigurationSection("tiers");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                RuneTier tier;
+                try {
+                    tier = RuneTier.valueOf(key.toUpperCase());
+                } catch (IllegalArgumentException ex) {
+                    continue;
+                }
+                double weight = section.getDouble(key + ".weight", 1.0);
+                if (weight <= 0 || Double.isInfinite(weight)) continue;
+                weights[tier.ordinal()] += weight;
+            }
+        }
+
+        List<RuneTier> tiers = new ArrayList<>();
+        List<Double> tierWeights = new ArrayList<>();
+        for (RuneTier tier : RuneTier.values()) {
+            if (weights[tier.ordinal()] > 0) {
+                tiers.add(tier);
+                tierWeights.add(weights[tier.ordinal()]);
+            }
+        }
+        if (tiers.isEmpty()) {
+            tiers = List.of(RuneTier.COMMON, RuneTier.UNCOMMON, RuneTier.RARE, RuneTier.LEGENDARY);
+            tierWeights = List.of(60.0, 25.0, 10.0, 5.0);
+        }
+        return new AliasTable<>(tiers, toArray(tierWeights));
+    }
+
+    /**
+     * Enchant pool for one tier. {@code enchants} is either a list of ids (equal weights) or a
+     * section mapping each id to its weight.
+     */
+    private static AliasTable<String> loadEnchantPool(FileConfiguration config, String path, Logger logger) {
+        List<String> ids = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        ConfigurationSection section = config.getConfigurationSection(path);
+        if (section != null) {
+            for (String enchantId : section.getKeys(false)) {
+                double weight = section.getDouble(enchantId, 0.0);
+                if (!(weight > 0) || Double.isInfinite(weight)) {
+                    logger.warning("Ignoring enchant '" + enchantId + "' in " + path + ": weight must be a positive number");
+                    continue;
+                }
+                ids.add(enchantId);
+                weights.add(weight);
+            }
+        } else {
+            for (String enchantId : config.getStringList(path)) {
+                if (enchantId == null || enchantId.isBlank()) continue;
+                ids.add(enchantId);
+                weights.add(1.0);
+            }
+        }
+        return ids.isEmpty() ? AliasTable.empty() : new AliasTable<>(ids, toArray(weights));
+    }
+
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private TierSettings[] loadTiers(FileConfiguration config, FileConfiguration runes, Logger logger) {
+        int defaultCoinCost = config.getInt("economy.bubbleCoinCost", 1);
+        int previewModelData = runes.getInt("preview.customModelData", 0);
+        String previewNameTemplate = runes.getString("preview.name", "&e&l? %tier% Rune ?");
+        List<String> previewLoreTemplate = runes.getStringList("preview.lore");
+
+        RuneTier[] values = RuneTier.values();
+        TierSettings[] compiled = new TierSettings[values.length];
+        for (RuneTier tier : values) {
+            String tierPath = "tiers." + tier.getConfigKey();
+
+            int min = Math.max(0, config.getInt(tierPath + ".xpCost.min", legacyMinXp));
+            int max = Math.max(0, config.getInt(tierPath + ".xpCost.max", legacyMaxXp));
+            int baseMin = legacyMinXp;
+            int baseMax = legacyMaxXp;
+            if (config.contains(tierPath + ".xpCost")) {
+                baseMin = min;
+                baseMax = Math.max(min, max);
+            }
+
+            String coinPath = "economy.bubbleCoinCosts." + tier.getConfigKey();
+            int coinCost = config.contains(coinPath) ? config.getInt(coinPath, 1) : defaultCoinCost;
+
+            AliasTable<String> enchantPool = loadEnchantPool(config, tierPath + ".enchants", logger);
+
+            Component runeName = TextFormatter.toComponent(runes.getString(tierPath + ".name", "&f" + tier.name() + " Rune"));
+            int customModelData = runes.getInt(tierPath + ".customModelData", 0);
+
+            compiled[tier.ordinal()] = new TierSettings(tier, baseMin, baseMax,
+                applyXpMultiplier(min), applyXpMultiplier(max), coinCost,
+                enchantPool,
+                runeName, components(runes.getStringList(tierPath + ".lore"), tier), customModelData,
+                TextFormatter.toComponent(previewNameTemplate.replace("%tier%", tier.name())),
+                components(previewLoreTemplate, tier),
+                previewModelData != 0 ? previewModelData : customModelData);
+        }
+        return compiled;
+    }
+
+    private static List<Milestone> loadMilestones(FileConfiguration config) {
+        List<Milestone> loaded = new ArrayList<>();
+        ConfigurationSection rewards = config.getConfigurationSection("milestones.rewards");
+        if (rewards == null) return loaded;
+        for (String key : rewards.getKeys(false)) {
+            int rolls;
+            try {
+                rolls = Integer.parseInt(key);
+            } catch (NumberFormatException e) {
+                continue; // Skip non-numeric keys
+            }
+            String tierName = rewards.getString(key + ".tier", "RARE");
+            RuneTier tier;
+            try {
+                tier = RuneTier.valueOf(tierName.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                tier = null;
+            }
+            String message = rewards.getString(key + ".message",
+                "&a&lMilestone! &eYou've rolled &f" + rolls + " &erunes!");
+            loaded.add(new Milestone(rolls, tierName, tier, message));
+        }
+        return loaded;
+    }
+
+    private static List<Component> components(List<String> lines, RuneTier tier) {
+        List<Component> parsed = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            parsed.add(TextFormatter.toComponent(line.replace("%tier%", tier.name())));
+        }
+        return Collections.unmodifiableList(parsed);
+    }
+}
@@ -0,0 +1,299 @@
+package com.bubblecraft.bubblerune;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persistence backend for roll history and player statistics.
+ *
+ * Implementations: {@link SqliteRuneStorage} (default), {@link H2RuneStorage} and
+ * {@link InMemoryRuneStorage}. {@link DatabaseManager} fronts whichever one is configured
+ * under {@code database.backend} with the write-behind queue and the in-memory rank index.
+ */
+public interface RuneStorage {
+
+    /**
+     * Short backend name for logs and /bubblerune dbstats.
+     */
+    String getName();
+
+    /**
+     * Open connections and create the schema. Called once before any other method.
+     */
+    void open() throws SQLException;
+
+    /**
+     * Persist a group of rolls atomically: either every roll (and its aggregate updates) is
+     * stored or none are.
+     */
+    void recordRolls(List<RollEntry> rolls) throws SQLException;
+
+    /**
+     * Stats for one player, or null if they have never rolled.
+     */
+    PlayerStats getPlayerStats(UUID playerId) throws SQLException;
+
+    /**
+     * Players ordered by total rolls, highest first.
+     */
+    default List<PlayerStats> getTopPlayers(int limit) throws SQLException {
+        return getTopPlayers(null, limit);
+    }
+
+    /**
+     * Next leaderboard page: players ranked after {@code after} (null for the first page), ordered
+     * by total rolls descending, then by UUID. Costs the same at any depth.
+     */
+    List<PlayerStats> getTopPlayers(PlayerCursor after, int limit) throws SQLException;
+
+    /**
+     * The {@code limit} players with the highest {@code metric}, then by UUID. Unlike
+     * {@link #getTopPlayers(PlayerCursor, int)} this may sort the whole table; it seeds the
+     * in-memory {@link Leaderboard}s and is not meant for request paths.
+     */
+    List<PlayerStats> getTopPlayersBy(Leaderboard.Metric metric, int limit) throws SQLException;
+
+    /**
+     * A player's most recent rolls, newest first.
+     */
+    default List<RollRecord> getRecentRolls(UUID playerId, int limit) throws SQLException {
+        return getRecentRolls(playerId, null, limit);
+    }
+
+    /**
+     * Next history page: the player's rolls older than {@code before} (null for the newest),
+     * ordered by timestamp then id, newest first. Costs the same at any depth.
+     */
+    List<RollRecord> getRecentRolls(UUID playerId, RollCursor before, int limit) throws SQLException;
+
+    GlobalStats getGlobalStats() throws SQLException;
+
+    /**
+     * Rolls per tier, including rolls already folded into the archive aggregates.
+     */
+    Map<RuneTier, Integer> getTierDistribution() throws SQLException;
+
+    /**
+     * Distinct players who rolled on any day from {@code from} to {@code to} inclusive (server
+     * time zone). Backends may return an estimate.
+     */
+    long getUniquePlayers(LocalDate from, LocalDate to) throws SQLException;
+
+    /**
+     * Players whose row was written at or after {@code sinceMillis} (storage clock), in no
+     * particular order. Used to patch cached snapshots with only what changed.
+     */
+    List<PlayerStats> getPlayersUpdatedSince(long sinceMillis) throws SQLException;
+
+    /**
+     * 1 + number of players with strictly more rolls, or null if the player has no stats.
+     */
+    Integer getPlayerRank(UUID playerId) throws SQLException;
+
+    /**
+     * Total rolls per player, used to seed the in-memory {@link RankIndex}.
+     */
+    Map<UUID, Integer> loadRollCounts() throws SQLException;
+
+    /**
+     * Oldest live rolls with a timestamp before the cutoff, oldest first.
+     */
+    List<RollRecord> getRollsBefore(long cutoffMillis, int limit) throws SQLException;
+
+    /**
+     * Next export chunk: players with a UUID after {@code after} (null to start) in the byte order
+     * of their 16-byte key. Unlike the leaderboard order this does not move while players roll.
+     */
+    List<PlayerStats> getPlayersAfter(UUID after, int limit) throws SQLException;
+
+    /**
+     * Next export chunk: live rolls with {@code fromMillis <= timestamp < toMillis} after
+     * {@code after} (null to start), ordered by timestamp then id, oldest first.
+     */
+    List<RollRecord> getRollsBetween(long fromMillis, long toMillis, RollCursor after, int limit) throws SQLException;
+
+    /**
+     * Folds the given rolls into the per-month tier aggregates and deletes them from the live
+     * history, in one transaction.
+     */
+    void archiveRolls(List<RollRecord> rolls) throws SQLException;
+
+    /**
+     * {@link RollJournal} sequence ranges ({@code [from, to]}) whose rolls this storage holds.
+     * Storages that record them do so in the same transaction as the rolls, so a roll is never
+     * replayed twice. The default records nothing and needs no journal.
+     */
+    default List<long[]> getCommittedJournalRanges() throws SQLException {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Forgets committed ranges ending below {@code sequence}, always keeping the newest so
+     * sequence numbers stay monotonic.
+     */
+    default void pruneJournalCommits(long sequence) throws SQLException {
+    }
+
+    /**
+     * Write-behind queue in front of this storage, or null if writes go straight through.
+     */
+    default RollWriteQueue getWriteQueue() {
+        return null;
+    }
+
+    /**
+     * Background retention job pruning this storage, or null if none is running.
+     */
+    default RetentionJob getRetentionJob() {
+        return null;
+    }
+
+    void close();
+
+    /**
+     * Player statistics data class
+     */
+    class PlayerStats {
+        public final UUID uuid;
+        public final String playerName;
+        public final int totalRolls;
+        public final int totalXpSpent;
+        public final int totalCoinsSpent;
+        public final int commonRolls;
+        public final int uncommonRolls;
+        public final int rareRolls;
+        public final int epicRolls;
+        public final int legendaryRolls;
+        public final int specialRolls;
+        public final int verySpecialRolls;
+        public final long firstRollDate;
+        public final long lastRollDate;
+
+        public PlayerStats(UUID uuid, String playerName, int totalRolls, int totalXpSpent, int totalCoinsSpent,
+                          int commonRolls, int uncommonRolls, int rareRolls, int epicRolls, int legendaryRolls,
+                          int specialRolls, int verySpecialRolls, long firstRollDate, long lastRollDate) {
+            this.uuid = uuid;
+            this.playerName = playerName;
+            this.totalRolls = totalRolls;
+            this.totalXpSpent = totalXpSpent;
+            this.totalCoinsSpent = totalCoinsSpent;
+            this.commonRolls = commonRolls;
+            this.uncommonRolls = uncommonRolls;
+            this.rareRolls = rareRolls;
+            this.epicRolls = epicRolls;
+            this.legendaryRolls = legendaryRolls;
+            this.specialRolls = specialRolls;
+            this.verySpecialRolls = verySpecialRolls;
+            this.firstRollDate = firstRollDate;
+            this.lastRollDate = lastRollDate;
+        }
+    }
+
+    /**
+     * Roll record data class
+     */
+    class RollRecord {
+        public final int id;
+        public final UUID uuid;
+        public final String playerName;
+        public final RuneTier tier;
+        public final String enchantId;
+        public final String enchantName;
+        public final int enchantLevel;
+        public final int xpCost;
+        public final int coinCost;
+        public final long timestamp;
+        public final String world;
+        public final double x;
+        public final double y;
+        public final double z;
+
+        public RollRecord(int id, UUID uuid, String playerName, RuneTier tier, String enchantId,
+                         String enchantName, int enchantLevel, int xpCost, int coinCost, long timestamp) {
+            this(id, uuid, playerName, tier, enchantId, enchantName, enchantLevel, xpCost, coinCost, timestamp,
+                null, 0, 0, 0);
+        }
+
+        public RollRecord(int id, UUID uuid, String playerName, RuneTier tier, String enchantId,
+                         String enchantName, int enchantLevel, int xpCost, int coinCost, long timestamp,
+                         String world, double x, double y, double z) {
+            this.id = id;
+            this.uuid = uuid;
+            this.playerName = playerName;
+            this.tier = tier;
+            this.enchantId = enchantId;
+            this.enchantName = enchantName;
+            this.enchantLevel = enchantLevel;
+            this.xpCost = xpCost;
+            this.coinCost = coinCost;
+            this.timestamp = timestamp;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    /**
+     * Leaderboard position to continue from: the last row of the previous page.
+     */
+    final class PlayerCursor {
+        public final int totalRolls;
+        public final UUID uuid;
+
+        public PlayerCursor(int totalRolls, UUID uuid) {
+            this.totalRolls = totalRolls;
+            this.uuid = uuid;
+        }
+
+        public static PlayerCursor of(PlayerStats stats) {
+            return new PlayerCursor(stats.totalRolls, stats.uuid);
+        }
+
+        /**
+         * Leaderboard tie-break: UUIDs in the byte order of their 16-byte key.
+         */
+        public static int compareUuids(UUID a, UUID b) {
+            int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+            return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * History position to continue from: the last row of the previous page.
+     */
+    final class RollCursor {
+        public final long timestamp;
+        public final int id;
+
+        public RollCursor(long timestamp, int id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+
+        public static RollCursor of(RollRecord roll) {
+            return new RollCursor(roll.timestamp, roll.id);
+        }
+    }
+
+    /**
+     * Global statistics data class
+     */
+    class GlobalStats {
+        public final int totalRolls;
+        public final int totalXpSpent;
+        public final int totalCoinsSpent;
+        public final int uniquePlayers;
+
+        public GlobalStats(int totalRolls, int totalXpSpent, int totalCoinsSpent, int uniquePlayers) {
+            this.totalRolls = totalRolls;
+            this.totalXpSpent = totalXpSpent;
+            this.totalCoinsSpent = totalCoinsSpent;
+            this.uniquePlayers = uniquePlayers;
+        }
+    }
+}
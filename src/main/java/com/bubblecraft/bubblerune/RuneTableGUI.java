@@ -10,6 +10,7 @@ import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class RuneTableGUI {
     private final BubbleRunePlugin plugin;
@@ -19,8 +20,8 @@ public class RuneTableGUI {
     }
     
     public void openGUI(Player player, Location tableLocation) {
-        Inventory gui = Bukkit.createInventory(null, 27, TextFormatter.toComponent(
-            plugin.getConfig().getString("gui.title", "&5&lRune Table - Choose Your Tier")));
+        RuneSettings settings = plugin.getRuneService().getSettings();
+        Inventory gui = Bukkit.createInventory(null, 27, settings.guiTitle);
         
         // Fill with glass panes
         ItemStack glass = new ItemStack(Material.BLACK_STAINED_GLASS_PANE);
@@ -34,8 +35,10 @@ public class RuneTableGUI {
         }
         
         int playerXp = ExperienceUtil.getTotalExperience(player);
-        boolean onCooldown = plugin.getConfig().getBoolean("cooldown.enabled", true) && 
-                           plugin.getCooldownManager().isOnCooldown(player.getUniqueId());
+        boolean cooldownsEnabled = settings.cooldownEnabled;
+        CooldownManager cooldowns = plugin.getCooldownManager();
+        int tableIndex = plugin.getRuneTableIndex(tableLocation);
+        boolean onCooldown = cooldownsEnabled && cooldowns.isOnCooldown(player.getUniqueId(), tableIndex);
         
         // Create tier selection buttons
         RuneTier[] tiers = {RuneTier.COMMON, RuneTier.UNCOMMON, RuneTier.RARE, RuneTier.EPIC, 
@@ -44,12 +47,13 @@ public class RuneTableGUI {
         
         for (int i = 0; i < tiers.length; i++) {
             RuneTier tier = tiers[i];
-            ItemStack tierButton = createTierButton(tier, playerXp, onCooldown);
+            long tierCooldown = cooldownsEnabled ? cooldowns.getRemainingTierCooldown(player.getUniqueId(), tier) : 0L;
+            ItemStack tierButton = createTierButton(settings, tier, playerXp, onCooldown, tierCooldown);
             gui.setItem(slots[i], tierButton);
         }
 
         // Primary action button at bottom middle
-        ItemStack getRuneButton = createGetRuneButton(player, playerXp, onCooldown);
+        ItemStack getRuneButton = createGetRuneButton(player, playerXp, onCooldown, tableIndex);
         gui.setItem(22, getRuneButton);
         
         // Optional info item moved to bottom right (avoids conflicting with Get Rune)
@@ -69,7 +73,7 @@ public class RuneTableGUI {
             }
 
             if (onCooldown) {
-                long remaining = plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId());
+                long remaining = cooldowns.getRemainingCooldown(player.getUniqueId(), tableIndex);
                 infoLore.add("");
                 infoLore.add(TextFormatter.format("&cCooldown: &f" + remaining + "s"));
             }
@@ -89,10 +93,11 @@ public class RuneTableGUI {
     /**
      * Creates a clickable tier selection button
      */
-    private ItemStack createTierButton(RuneTier tier, int playerXp, boolean onCooldown) {
-        String tierPath = "tiers." + tier.name().toLowerCase();
-        int minCost = plugin.getRuneService().getTierMinXpCost(tier);
-        int maxCost = plugin.getRuneService().getTierMaxXpCost(tier);
+    private ItemStack createTierButton(RuneSettings settings, RuneTier tier, int playerXp, boolean onCooldown,
+                                       long tierCooldown) {
+        RuneSettings.TierSettings tierSettings = settings.tier(tier);
+        int minCost = tierSettings.minXpCost;
+        int maxCost = tierSettings.maxXpCost;
         if (maxCost < minCost) maxCost = minCost;
         
         boolean canAfford = playerXp >= minCost;
@@ -101,7 +106,7 @@ public class RuneTableGUI {
         Material material;
         String color = getTierColor(tier);
         
-        if (onCooldown) {
+        if (onCooldown || tierCooldown > 0) {
             material = Material.RED_STAINED_GLASS_PANE;
         } else if (!canAfford) {
             material = Material.GRAY_STAINED_GLASS_PANE;
@@ -129,6 +134,9 @@ public class RuneTableGUI {
             if (onCooldown) {
                 lore.add(TextFormatter.format("&cOn Cooldown!"));
                 lore.add(TextFormatter.format("&7Wait before rolling again"));
+            } else if (tierCooldown > 0) {
+                lore.add(TextFormatter.format("&cTier On Cooldown!"));
+                lore.add(TextFormatter.format("&7Back in the pool in &f" + tierCooldown + "s"));
             } else if (!canAfford) {
                 lore.add(TextFormatter.format("&cNot Enough XP!"));
                 lore.add(TextFormatter.format("&7Required: &e" + minCost + " XP"));
@@ -140,8 +148,7 @@ public class RuneTableGUI {
                 
                 // Show BubbleCoin cost if enabled and available
                 if (plugin.getRuneService().isBubbleCoinEconomyAvailable()) {
-                    String coinPath = "economy.bubbleCoinCosts." + tier.name().toLowerCase();
-                    int coinCost = plugin.getConfig().getInt(coinPath, plugin.getConfig().getInt("economy.bubbleCoinCost", 1));
+                    int coinCost = tierSettings.coinCost;
                     if (coinCost > 0) {
                         lore.add(TextFormatter.format("&7Coin Cost: &e" + coinCost + " BubbleCoin" + (coinCost > 1 ? "s" : "")));
                     }
@@ -150,13 +157,14 @@ public class RuneTableGUI {
                 lore.add(TextFormatter.format("&7You have: &e" + playerXp + " XP"));
                 
                 // Show possible runes (enchant pool) for this tier
-                List<String> enchants = plugin.getConfig().getStringList(tierPath + ".enchants");
+                AliasTable<String> enchants = tierSettings.enchants;
                 if (!enchants.isEmpty()) {
                     lore.add("");
                     lore.add(TextFormatter.format("&7Potential Runes (&f" + enchants.size() + "&7):"));
-                    for (String enchantId : enchants) {
-                        if (enchantId == null || enchantId.isBlank()) continue;
-                        lore.add(TextFormatter.format("&8- &f" + enchantId));
+                    List<String> enchantIds = enchants.getValues();
+                    for (int i = 0; i < enchantIds.size(); i++) {
+                        String chance = String.format(Locale.ROOT, "%.1f%%", enchants.getShare(i) * 100);
+                        lore.add(TextFormatter.format("&8- &f" + enchantIds.get(i) + " &7(" + chance + ")"));
                     }
                 }
             }
@@ -164,7 +172,7 @@ public class RuneTableGUI {
             meta.setLore(lore);
             
             // Add glow effect if affordable
-            if (canAfford && !onCooldown) {
+            if (canAfford && !onCooldown && tierCooldown <= 0) {
                 meta.addEnchant(Enchantment.UNBREAKING, 1, true);
                 meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
             }
@@ -175,7 +183,7 @@ public class RuneTableGUI {
         return button;
     }
 
-    private ItemStack createGetRuneButton(Player player, int playerXp, boolean onCooldown) {
+    private ItemStack createGetRuneButton(Player player, int playerXp, boolean onCooldown, int tableIndex) {
         RuneTier bestTier = plugin.getRuneService().getBestAffordableTier(player);
         boolean canRoll = !onCooldown && bestTier != null;
 
@@ -195,7 +203,7 @@ public class RuneTableGUI {
 
             List<String> lore = new ArrayList<>();
             if (onCooldown) {
-                long remaining = plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId());
+                long remaining = plugin.getCooldownManager().getRemainingCooldown(player.getUniqueId(), tableIndex);
                 lore.add(TextFormatter.format("&cOn Cooldown!"));
                 lore.add(TextFormatter.format("&7Wait &f" + remaining + "s &7and try again."));
             } else if (!canRoll) {
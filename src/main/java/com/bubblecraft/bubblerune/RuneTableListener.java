@@ -7,17 +7,16 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.block.Action;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class RuneTableListener implements Listener {
     private final BubbleRunePlugin plugin;
     private final RuneTableGUI gui;
-    private final Map<UUID, Long> lastInteract = new ConcurrentHashMap<>();
+    private final UuidLongMap lastInteract = new UuidLongMap();
     private static final long INTERACT_COOLDOWN = 500; // 0.5 second spam protection
 
     public RuneTableListener(BubbleRunePlugin plugin, RuneTableGUI gui) {
@@ -39,8 +38,8 @@ public class RuneTableListener implements Listener {
         // Spam protection - prevent rapid clicking
         UUID playerId = player.getUniqueId();
         long now = System.currentTimeMillis();
-        Long lastClick = lastInteract.get(playerId);
-        if (lastClick != null && (now - lastClick) < INTERACT_COOLDOWN) {
+        long lastClick = lastInteract.get(playerId, Long.MIN_VALUE);
+        if (lastClick != Long.MIN_VALUE && (now - lastClick) < INTERACT_COOLDOWN) {
             return; // Silently ignore spam clicks
         }
         lastInteract.put(playerId, now);
@@ -49,30 +48,20 @@ public class RuneTableListener implements Listener {
         if (runeTables == null || runeTables.isEmpty()) return;
 
         // Check if clicked block matches any registered rune table
-        Location clickedLoc = block.getLocation();
-        boolean isRuneTable = false;
-        
+        int tableIndex;
         try {
-            for (Location tableLoc : runeTables) {
-                if (tableLoc == null || tableLoc.getWorld() == null) continue;
-                if (clickedLoc.getWorld().equals(tableLoc.getWorld()) &&
-                    clickedLoc.getBlockX() == tableLoc.getBlockX() &&
-                    clickedLoc.getBlockY() == tableLoc.getBlockY() &&
-                    clickedLoc.getBlockZ() == tableLoc.getBlockZ()) {
-                    isRuneTable = true;
-                    break;
-                }
-            }
+            tableIndex = plugin.getRuneTableIndex(block.getLocation());
         } catch (Exception e) {
             plugin.getLogger().warning("Error checking rune table locations: " + e.getMessage());
             return;
         }
         
-        if (!isRuneTable) return;
+        if (tableIndex == CooldownManager.NO_TABLE) return;
 
         event.setCancelled(true);
         
-        if (!plugin.getConfig().getBoolean("enabled", true)) {
+        RuneSettings settings = plugin.getRuneService().getSettings();
+        if (!settings.enabled) {
             player.sendMessage(TextFormatter.format(plugin.getMessage(
                 "messages.pluginDisabled",
                 "&cBubbleRune is currently disabled.")));
@@ -81,16 +70,16 @@ public class RuneTableListener implements Listener {
         
         // Check cooldown
         CooldownManager cooldown = plugin.getCooldownManager();
-        if (plugin.getConfig().getBoolean("cooldown.enabled", true)) {
-            if (cooldown.isOnCooldown(player.getUniqueId())) {
-                long remaining = cooldown.getRemainingCooldown(player.getUniqueId());
+        if (settings.cooldownEnabled) {
+            if (cooldown.isOnCooldown(player.getUniqueId(), tableIndex)) {
+                long remaining = cooldown.getRemainingCooldown(player.getUniqueId(), tableIndex);
                 String msg = plugin.getMessage("messages.cooldown", 
                     "&cYou must wait %seconds% seconds before using the rune table again!");
                 msg = msg.replace("%seconds%", String.valueOf(remaining));
                 player.sendMessage(TextFormatter.format(msg));
                 
                 // Play deny sound
-                if (plugin.getConfig().getBoolean("sounds.enabled", true)) {
+                if (settings.soundsEnabled) {
                     player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 1.0f, 1.0f);
                 }
                 return;
@@ -99,4 +88,9 @@ public class RuneTableListener implements Listener {
 
         gui.openGUI(player, block.getLocation());
     }
-}
\ No newline at end of file
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        lastInteract.remove(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,31 @@
+package com.bubblecraft.bubblerune;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * One numbered step in the database schema history. Versions are applied in ascending order
+ * and recorded in {@code schema_version}; a step must leave the schema at its version.
+ *
+ * A step runs in one transaction with its version record and must not change auto-commit. It
+ * may still end up partly applied: a step may commit intermediate work itself, and some drivers
+ * (H2) commit on every DDL statement. Steps must therefore be safe to run again from any point
+ * they can be interrupted at.
+ */
+public final class SchemaMigration {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    public final int version;
+    public final String description;
+    public final Step step;
+
+    public SchemaMigration(int version, String description, Step step) {
+        this.version = version;
+        this.description = description;
+        this.step = step;
+    }
+}
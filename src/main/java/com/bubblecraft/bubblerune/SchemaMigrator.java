@@ -0,0 +1,120 @@
+package com.bubblecraft.bubblerune;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Brings a database up to the latest {@link SchemaMigration}.
+ *
+ * Databases created before versioning existed have the original tables but no
+ * {@code schema_version}; every step is replayed on them, starting with the idempotent v1.
+ */
+public final class SchemaMigrator {
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Applies every migration newer than the database's current version.
+     *
+     * @return the version the database was at before migrating (0 for a new database,
+     *         1 for one created before versioning)
+     */
+    public static int migrate(Connection conn, List<SchemaMigration> migrations, Logger logger) throws SQLException {
+        boolean versioned = tableExists(conn, "schema_version");
+        if (!versioned) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE schema_version (version INTEGER PRIMARY KEY, description VARCHAR(200), applied_at BIGINT)");
+            }
+        }
+
+        // Pre-versioning databases already have the v1 tables; the v1 step only creates
+        // what is missing, so they simply replay every step from the start.
+        int current = versioned ? currentVersion(conn) : 0;
+        boolean existing = versioned ? current > 0 : tableExists(conn, "player_stats");
+        int start = !versioned && existing ? 1 : current;
+
+        for (SchemaMigration migration : migrations) {
+            if (migration.version <= current) continue;
+            if (existing) {
+                logger.info("Migrating database schema to v" + migration.version + ": " + migration.description);
+            }
+            long began = System.currentTimeMillis();
+            apply(conn, migration);
+            current = migration.version;
+            if (existing) {
+                logger.info("Schema v" + migration.version + " applied in " + (System.currentTimeMillis() - began) + "ms");
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Runs the step and writes its version row in one transaction, so a crash can never leave a
+     * finished step unrecorded (or a recorded one unfinished) where the driver rolls DDL back.
+     */
+    private static void apply(Connection conn, SchemaMigration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            migration.step.apply(conn);
+            record(conn, migration.version, migration.description);
+            conn.commit();
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void record(Connection conn, int version, String description) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+            stmt.setInt(1, version);
+            stmt.setString(2, description);
+            stmt.setLong(3, System.currentTimeMillis());
+            stmt.executeUpdate();
+        }
+    }
+
+    static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(null, null, "%", "%")) {
+            while (rs.next()) {
+                if (table.equalsIgnoreCase(rs.getString("TABLE_NAME"))
+                        && column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static boolean tableExists(Connection conn, String table) throws SQLException {
+        // No type filter: drivers disagree on the name ("TABLE" vs "BASE TABLE")
+        try (ResultSet rs = conn.getMetaData().getTables(null, null, "%", null)) {
+            while (rs.next()) {
+                if (table.equalsIgnoreCase(rs.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,104 @@
+package com.bubblecraft.bubblerune;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small fixed pool of query-only SQLite connections.
+ *
+ * Only useful with WAL journaling: readers then see the last committed snapshot and never
+ * wait on the writer connection (or on each other).
+ */
+public class SqliteReaderPool implements AutoCloseable {
+
+    /**
+     * A unit of read work run against a borrowed connection.
+     */
+    @FunctionalInterface
+    public interface SqlFunction<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+
+    private final BlockingQueue<Connection> idle;
+    private final List<Connection> all = new ArrayList<>();
+    private final long borrowTimeoutMillis;
+    private volatile boolean closed = false;
+
+    public SqliteReaderPool(String url, int size, List<String> pragmas, long borrowTimeoutMillis) throws SQLException {
+        int poolSize = Math.max(1, size);
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        this.borrowTimeoutMillis = Math.max(1L, borrowTimeoutMillis);
+
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                Connection connection = DriverManager.getConnection(url);
+                all.add(connection);
+                try (Statement stmt = connection.createStatement()) {
+                    for (String pragma : pragmas) {
+                        stmt.execute(pragma);
+                    }
+                    stmt.execute("PRAGMA query_only = true");
+                }
+                idle.add(connection);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a read against a pooled connection, waiting up to the borrow timeout for one to free up.
+     */
+    public <T> T withConnection(SqlFunction<T> work) throws SQLException {
+        if (closed) {
+            throw new SQLException("Reader pool is closed");
+        }
+
+        Connection connection;
+        try {
+            connection = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a reader connection", e);
+        }
+        if (connection == null) {
+            throw new SQLException("Timed out after " + borrowTimeoutMillis + "ms waiting for a reader connection");
+        }
+
+        try {
+            return work.apply(connection);
+        } finally {
+            idle.offer(connection);
+        }
+    }
+
+    public int getSize() {
+        return all.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Connection connection : all) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // Best effort on shutdown
+            }
+        }
+        all.clear();
+        idle.clear();
+    }
+}
@@ -0,0 +1,283 @@
+package com.bubblecraft.bubblerune;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * SQLite backend (the default). With WAL enabled, reads go through a {@link SqliteReaderPool}
+ * and passive checkpoints run in the background.
+ */
+public class SqliteRuneStorage extends JdbcRuneStorage {
+
+    /**
+     * Tunables from {@code database.sqlite.*}.
+     */
+    public static class Settings {
+        public boolean wal = true;
+        public int readerPoolSize = 3;
+        public long readerTimeoutMillis = 5000L;
+        public int busyTimeoutMillis = 5000;
+        public String synchronous = null;
+        public int cacheSizeKb = 8192;
+        public long mmapSizeBytes = 0L;
+        public int walAutocheckpoint = 1000;
+        public long checkpointIntervalSeconds = 60L;
+
+        public static Settings fromConfig(org.bukkit.configuration.ConfigurationSection cfg) {
+            Settings settings = new Settings();
+            if (cfg == null) return settings;
+            settings.wal = cfg.getBoolean("wal", settings.wal);
+            settings.readerPoolSize = cfg.getInt("readerPoolSize", settings.readerPoolSize);
+            settings.readerTimeoutMillis = cfg.getLong("readerTimeoutMillis", settings.readerTimeoutMillis);
+            settings.busyTimeoutMillis = cfg.getInt("busyTimeoutMillis", settings.busyTimeoutMillis);
+            settings.synchronous = cfg.getString("synchronous", settings.synchronous);
+            settings.cacheSizeKb = cfg.getInt("cacheSizeKb", settings.cacheSizeKb);
+            settings.mmapSizeBytes = cfg.getLong("mmapSizeBytes", settings.mmapSizeBytes);
+            settings.walAutocheckpoint = cfg.getInt("walAutocheckpoint", settings.walAutocheckpoint);
+            settings.checkpointIntervalSeconds = cfg.getLong("checkpointIntervalSeconds", settings.checkpointIntervalSeconds);
+            return settings;
+        }
+    }
+
+    private final String url;
+    private final Settings settings;
+    private SqliteReaderPool readerPool;
+    private ScheduledExecutorService checkpointExecutor;
+
+    public SqliteRuneStorage(String url, Settings settings, Logger logger) {
+        super(logger);
+        this.url = url;
+        this.settings = settings;
+    }
+
+    @Override
+    public String getName() {
+        return settings.wal ? "SQLite (WAL)" : "SQLite";
+    }
+
+    @Override
+    protected Connection openConnection() throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite JDBC driver not found", e);
+        }
+        Connection conn = DriverManager.getConnection(url);
+        applyPragmas(conn, writerPragmas());
+        return conn;
+    }
+
+    @Override
+    protected String textType() {
+        return "TEXT";
+    }
+
+    @Override
+    protected String realType() {
+        return "REAL";
+    }
+
+    @Override
+    protected String blobType() {
+        return "BLOB";
+    }
+
+    @Override
+    protected String bytesType() {
+        return "BLOB";
+    }
+
+    @Override
+    protected String autoIncrementKey() {
+        return "INTEGER PRIMARY KEY AUTOINCREMENT";
+    }
+
+    @Override
+    protected String keyedTableOptions() {
+        // The 16-byte key is the row; no separate rowid b-tree to maintain
+        return " WITHOUT ROWID";
+    }
+
+    @Override
+    protected void afterMigrations(int previousVersion) throws SQLException {
+        if (previousVersion == 1) {
+            // The old text-keyed tables were dropped; give their pages back to the filesystem
+            logger.info("Compacting database after migration...");
+            execute("VACUUM");
+        }
+    }
+
+    @Override
+    protected String upsertPlayerSql() {
+        return "INSERT INTO player_stats (uuid, player_name, total_rolls, total_xp_spent, total_coins_spent, " +
+            joinTierColumns("%c") + ", first_roll_date, last_roll_date, updated_at) " +
+            "VALUES (?, ?, 1, ?, ?, " + joinTierColumns("?") + ", ?, ?, ?) " +
+            "ON CONFLICT(uuid) DO UPDATE SET " +
+            "player_name = excluded.player_name, " +
+            "total_rolls = total_rolls + 1, " +
+            "total_xp_spent = total_xp_spent + excluded.total_xp_spent, " +
+            "total_coins_spent = total_coins_spent + excluded.total_coins_spent, " +
+            joinTierColumns("%c = %c + excluded.%c") + ", " +
+            "last_roll_date = excluded.last_roll_date, " +
+            "updated_at = excluded.updated_at";
+    }
+
+    @Override
+    protected String upsertDailySql() {
+        return "INSERT INTO daily_stats (date, total_rolls, total_xp_spent, total_coins_spent, unique_players, " +
+            joinTierColumns("%c") + ") " +
+            "VALUES (?, 1, ?, ?, 1, " + joinTierColumns("?") + ") " +
+            "ON CONFLICT(date) DO UPDATE SET " +
+            "total_rolls = total_rolls + 1, " +
+            "total_xp_spent = total_xp_spent + excluded.total_xp_spent, " +
+            "total_coins_spent = total_coins_spent + excluded.total_coins_spent, " +
+            joinTierColumns("%c = %c + excluded.%c");
+    }
+
+    @Override
+    protected String upsertArchiveTotalsSql() {
+        return "INSERT INTO archived_tier_totals (roll_month, tier, rolls, xp_spent, coins_spent) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT(roll_month, tier) DO UPDATE SET " +
+            "rolls = rolls + excluded.rolls, " +
+            "xp_spent = xp_spent + excluded.xp_spent, " +
+            "coins_spent = coins_spent + excluded.coins_spent";
+    }
+
+    @Override
+    protected String upsertTierTotalsSql() {
+        return "INSERT INTO tier_totals (tier, rolls, xp_spent, coins_spent) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT(tier) DO UPDATE SET " +
+            "rolls = rolls + excluded.rolls, " +
+            "xp_spent = xp_spent + excluded.xp_spent, " +
+            "coins_spent = coins_spent + excluded.coins_spent";
+    }
+
+    @Override
+    protected void afterOpen() throws SQLException {
+        if (settings.wal) {
+            readerPool = new SqliteReaderPool(url, settings.readerPoolSize, commonPragmas(), settings.readerTimeoutMillis);
+            startCheckpointTask();
+        }
+    }
+
+    private List<String> commonPragmas() {
+        List<String> pragmas = new ArrayList<>();
+        pragmas.add("PRAGMA busy_timeout = " + Math.max(0, settings.busyTimeoutMillis));
+        // Negative cache_size is in KiB rather than pages
+        pragmas.add("PRAGMA cache_size = -" + Math.max(64, settings.cacheSizeKb));
+        pragmas.add("PRAGMA mmap_size = " + Math.max(0L, settings.mmapSizeBytes));
+        return pragmas;
+    }
+
+    private List<String> writerPragmas() {
+        List<String> pragmas = commonPragmas();
+        if (settings.wal) {
+            pragmas.add("PRAGMA journal_mode = WAL");
+            pragmas.add("PRAGMA wal_autocheckpoint = " + Math.max(0, settings.walAutocheckpoint));
+        }
+        String synchronous = settings.synchronous != null
+            ? settings.synchronous.toUpperCase(Locale.ROOT)
+            : (settings.wal ? "NORMAL" : "FULL");
+        if (!Arrays.asList("OFF", "NORMAL", "FULL", "EXTRA").contains(synchronous)) {
+            logger.warning("Invalid database.sqlite.synchronous '" + synchronous + "', using NORMAL");
+            synchronous = "NORMAL";
+        }
+        pragmas.add("PRAGMA synchronous = " + synchronous);
+        return pragmas;
+    }
+
+    private static void applyPragmas(Connection conn, List<String> pragmas) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : pragmas) {
+                stmt.execute(pragma);
+            }
+        }
+    }
+
+    /**
+     * Runs passive WAL checkpoints off the writer thread so the WAL file does not grow unbounded
+     * between automatic checkpoints.
+     */
+    private void startCheckpointTask() {
+        long interval = settings.checkpointIntervalSeconds;
+        if (interval <= 0L) return;
+
+        checkpointExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "BubbleRune-WalCheckpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        checkpointExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint("PASSIVE");
+            } catch (SQLException e) {
+                logger.warning("WAL checkpoint failed: " + e.getMessage());
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    private void checkpoint(String mode) throws SQLException {
+        synchronized (lock) {
+            if (connection == null || connection.isClosed()) return;
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA wal_checkpoint(" + mode + ")");
+            }
+        }
+    }
+
+    /**
+     * Runs a read on a pooled reader connection when WAL is enabled, otherwise on the
+     * shared connection under the write lock.
+     */
+    @Override
+    protected <T> T read(SqliteReaderPool.SqlFunction<T> work) throws SQLException {
+        SqliteReaderPool pool = readerPool;
+        if (pool != null) {
+            return pool.withConnection(work);
+        }
+        return super.read(work);
+    }
+
+    /**
+     * Reader pool, or null when WAL mode is disabled.
+     */
+    public SqliteReaderPool getReaderPool() {
+        return readerPool;
+    }
+
+    @Override
+    protected void beforeClose(Connection conn) {
+        if (settings.wal) {
+            // Fold the WAL back into data.db so backups only need the main file
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            } catch (SQLException e) {
+                logger.warning("Final WAL checkpoint failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (checkpointExecutor != null) {
+            checkpointExecutor.shutdownNow();
+            checkpointExecutor = null;
+        }
+        if (readerPool != null) {
+            readerPool.close();
+            readerPool = null;
+        }
+        super.close();
+    }
+}
@@ -1,113 +1,138 @@
 package com.bubblecraft.bubblerune;
 
-import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
-
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
+/**
+ * In-memory roll counters, read from placeholder and command threads while the main thread
+ * records rolls.
+ *
+ * Server-wide totals are {@link LongAdder}s so concurrent rolls and reads never contend on one
+ * field. Each player has a {@link PlayerCounters} holding atomics, with tier counts in an
+ * {@link AtomicIntegerArray} indexed by tier ordinal; it is created on the player's first roll,
+ * after which recording a roll boxes nothing and allocates nothing.
+ *
+ * The top 10 is a {@link Leaderboard} offered each roll, holding the name the player rolled
+ * under, so leaderboard placeholders are an array read with no sorting and no player lookups.
+ */
 public class StatsManager {
-    private final Map<UUID, Integer> playerRolls = new ConcurrentHashMap<>();
-    private final Map<RuneTier, Integer> tierCounts = new EnumMap<>(RuneTier.class);
-    private final Map<UUID, Map<RuneTier, Integer>> playerTierCounts = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> playerXpSpent = new ConcurrentHashMap<>();
-    private int totalRolls = 0;
+    private static final RuneTier[] TIERS = RuneTier.values();
+
+    private final Map<UUID, PlayerCounters> players = new ConcurrentHashMap<>();
+    private final LongAdder totalRolls = new LongAdder();
+    private final LongAdder[] tierCounts = new LongAdder[TIERS.length];
+    // Players per roll count; each player's own count lives in their PlayerCounters
+    private final RollCountRanks rollCounts = new RollCountRanks();
+    private final Leaderboard topPlayers = new Leaderboard(Leaderboard.Metric.ROLLS, 10);
+
+    private static final class PlayerCounters {
+        final AtomicInteger rolls = new AtomicInteger();
+        final AtomicIntegerArray tierRolls = new AtomicIntegerArray(TIERS.length);
+        final AtomicInteger xpSpent = new AtomicInteger();
+        // Name at the last roll, so leaderboards never look players up
+        volatile String name;
+    }
 
     public StatsManager() {
-        for (RuneTier tier : RuneTier.values()) {
-            tierCounts.put(tier, 0);
+        for (int i = 0; i < tierCounts.length; i++) {
+            tierCounts[i] = new LongAdder();
         }
     }
 
+    private PlayerCounters counters(UUID playerId) {
+        PlayerCounters counters = players.get(playerId);
+        return counters != null ? counters : players.computeIfAbsent(playerId, id -> new PlayerCounters());
+    }
+
     public void recordRoll(UUID playerId, RuneTier tier) {
-        int previousRolls = playerRolls.getOrDefault(playerId, 0);
-        playerRolls.merge(playerId, 1, Integer::sum);
-        tierCounts.merge(tier, 1, Integer::sum);
-        totalRolls++;
-        
-        // Track per-player tier counts
-        playerTierCounts.computeIfAbsent(playerId, k -> new EnumMap<>(RuneTier.class))
-                       .merge(tier, 1, Integer::sum);
+        recordRoll(playerId, null, tier);
+    }
+
+    /**
+     * Only rolls that enter or move within the top 10 allocate (a new board array).
+     */
+    public void recordRoll(UUID playerId, String playerName, RuneTier tier) {
+        PlayerCounters counters = counters(playerId);
+        if (playerName != null) {
+            counters.name = playerName;
+        }
+        int rolls = counters.rolls.incrementAndGet();
+        counters.tierRolls.incrementAndGet(tier.ordinal());
+        totalRolls.increment();
+        tierCounts[tier.ordinal()].increment();
+        rollCounts.move(rolls - 1, rolls);
+        topPlayers.offer(playerId, counters.name, rolls);
     }
     
     public boolean shouldTriggerMilestone(UUID playerId, int milestone) {
-        int currentRolls = playerRolls.getOrDefault(playerId, 0);
+        int currentRolls = getPlayerRolls(playerId);
         int previousRolls = currentRolls - 1;
         return currentRolls == milestone && previousRolls < milestone;
     }
     
     public void recordXpSpent(UUID playerId, int xp) {
-        playerXpSpent.merge(playerId, xp, Integer::sum);
+        counters(playerId).xpSpent.addAndGet(xp);
     }
 
     public int getPlayerRolls(UUID playerId) {
-        return playerRolls.getOrDefault(playerId, 0);
+        PlayerCounters counters = players.get(playerId);
+        return counters != null ? counters.rolls.get() : 0;
     }
 
     public int getTotalRolls() {
-        return totalRolls;
+        return totalRolls.intValue();
     }
 
     public int getTierCount(RuneTier tier) {
-        return tierCounts.getOrDefault(tier, 0);
+        return tierCounts[tier.ordinal()].intValue();
     }
     
     public int getPlayerTierCount(UUID playerId, RuneTier tier) {
-        return playerTierCounts.getOrDefault(playerId, Collections.emptyMap())
-                              .getOrDefault(tier, 0);
+        PlayerCounters counters = players.get(playerId);
+        return counters != null ? counters.tierRolls.get(tier.ordinal()) : 0;
     }
     
     public int getTotalXpSpent(UUID playerId) {
-        return playerXpSpent.getOrDefault(playerId, 0);
+        PlayerCounters counters = players.get(playerId);
+        return counters != null ? counters.xpSpent.get() : 0;
     }
     
     // Leaderboard methods
     public List<Map.Entry<UUID, Integer>> getTopPlayers(int limit) {
-        return playerRolls.entrySet().stream()
+        return players.entrySet().stream()
+                .map(e -> (Map.Entry<UUID, Integer>) new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue().rolls.get()))
                 .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
                 .limit(limit)
                 .collect(Collectors.toList());
     }
     
     public String getTopPlayerName(int position) {
-        List<Map.Entry<UUID, Integer>> top = getTopPlayers(10);
-        if (position < 1 || position > top.size()) return "N/A";
-        
-        UUID playerId = top.get(position - 1).getKey();
-        OfflinePlayer player = Bukkit.getOfflinePlayer(playerId);
-        return player.getName() != null ? player.getName() : "Unknown";
+        Leaderboard.Entry entry = topPlayers.get(position);
+        if (entry == null) return "N/A";
+        return entry.playerName != null ? entry.playerName : "Unknown";
     }
     
     public int getTopPlayerRolls(int position) {
-        List<Map.Entry<UUID, Integer>> top = getTopPlayers(10);
-        if (position < 1 || position > top.size()) return 0;
-        return top.get(position - 1).getValue();
+        Leaderboard.Entry entry = topPlayers.get(position);
+        return entry != null ? (int) entry.value : 0;
     }
     
     public int getPlayerRank(UUID playerId) {
-        List<Map.Entry<UUID, Integer>> sorted = playerRolls.entrySet().stream()
-                .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
-                .collect(Collectors.toList());
-        
-        for (int i = 0; i < sorted.size(); i++) {
-            if (sorted.get(i).getKey().equals(playerId)) {
-                return i + 1;
-            }
-        }
-        return sorted.size() + 1;
+        return rollCounts.getRankForCount(getPlayerRolls(playerId));
     }
     
     public String getRarestRuneObtained(UUID playerId) {
-        Map<RuneTier, Integer> playerTiers = playerTierCounts.getOrDefault(playerId, Collections.emptyMap());
-        
+        PlayerCounters counters = players.get(playerId);
+        if (counters == null) return "None";
+
         // Check from rarest to most common
-        RuneTier[] tiers = {RuneTier.VERYSPECIAL, RuneTier.SPECIAL, RuneTier.LEGENDARY, 
-                           RuneTier.EPIC, RuneTier.RARE, RuneTier.UNCOMMON, RuneTier.COMMON};
-        
-        for (RuneTier tier : tiers) {
-            if (playerTiers.getOrDefault(tier, 0) > 0) {
-                return tier.name();
+        for (int i = TIERS.length - 1; i >= 0; i--) {
+            if (counters.tierRolls.get(i) > 0) {
+                return TIERS[i].name();
             }
         }
         
@@ -115,13 +140,12 @@ public class StatsManager {
     }
 
     public void reset() {
-        playerRolls.clear();
-        tierCounts.clear();
-        playerTierCounts.clear();
-        playerXpSpent.clear();
-        totalRolls = 0;
-        for (RuneTier tier : RuneTier.values()) {
-            tierCounts.put(tier, 0);
+        players.clear();
+        rollCounts.clear();
+        topPlayers.clear();
+        totalRolls.reset();
+        for (LongAdder count : tierCounts) {
+            count.reset();
         }
     }
 }
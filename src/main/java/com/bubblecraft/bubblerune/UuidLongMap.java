@@ -0,0 +1,297 @@
+package com.bubblecraft.bubblerune;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Concurrent map from player UUID to a primitive long, for per-player tables that would
+ * otherwise hold a {@code ConcurrentHashMap<UUID, Long>}.
+ *
+ * Keys are stored as their two longs and values as longs in parallel arrays with linear probing,
+ * so an entry costs 24 bytes of array slots instead of a hash node, a UUID and a boxed value.
+ * Removal shifts the following run back rather than leaving tombstones. Writers take a
+ * {@link StampedLock} write lock; readers probe under an optimistic stamp and only fall back to
+ * the read lock if a write overlapped.
+ *
+ * The nil UUID (both halves zero) marks empty slots and is kept in a separate field.
+ */
+public class UuidLongMap {
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Arrays swapped as one reference, so a reader never pairs arrays of different sizes.
+     */
+    private static final class Table {
+        final long[] most;
+        final long[] least;
+        final long[] values;
+        final int mask;
+
+        Table(int capacity) {
+            most = new long[capacity];
+            least = new long[capacity];
+            values = new long[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private Table table = new Table(MIN_CAPACITY);
+    private int size;
+    private boolean hasNilKey;
+    private long nilValue;
+
+    public long get(UUID key, long missing) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            long value = find(most, least, missing);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(most, least, missing);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(UUID key) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            boolean found = contains(most, least);
+            if (lock.validate(stamp)) {
+                return found;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return contains(most, least);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(UUID key, long value) {
+        long stamp = lock.writeLock();
+        try {
+            insert(key.getMostSignificantBits(), key.getLeastSignificantBits(), value, false);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the value (a missing key counts as 0) and returns the new value.
+     */
+    public long addAndGet(UUID key, long delta) {
+        long stamp = lock.writeLock();
+        try {
+            return insert(key.getMostSignificantBits(), key.getLeastSignificantBits(), delta, true);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(UUID key) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            if (most == 0L && least == 0L) {
+                boolean had = hasNilKey;
+                if (had) size--;
+                hasNilKey = false;
+                return had;
+            }
+            Table t = table;
+            int slot = slotOf(t, most, least);
+            if (slot < 0) return false;
+            deleteSlot(t, slot);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Visits every value under the read lock; writers wait until it returns.
+     */
+    public void forEachValue(LongConsumer consumer) {
+        long stamp = lock.readLock();
+        try {
+            Table t = table;
+            for (int i = 0; i < t.values.length; i++) {
+                if (t.most[i] != 0L || t.least[i] != 0L) {
+                    consumer.accept(t.values[i]);
+                }
+            }
+            if (hasNilKey) {
+                consumer.accept(nilValue);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(MIN_CAPACITY);
+            size = 0;
+            hasNilKey = false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private long find(long most, long least, long missing) {
+        if (most == 0L && least == 0L) {
+            return hasNilKey ? nilValue : missing;
+        }
+        Table t = table;
+        int slot = hash(most, least) & t.mask;
+        // Bounded so a probe racing a writer cannot spin; validation rejects its result
+        for (int probes = 0; probes <= t.mask; probes++) {
+            long m = t.most[slot];
+            long l = t.least[slot];
+            if (m == most && l == least) return t.values[slot];
+            if (m == 0L && l == 0L) return missing;
+            slot = (slot + 1) & t.mask;
+        }
+        return missing;
+    }
+
+    private boolean contains(long most, long least) {
+        if (most == 0L && least == 0L) return hasNilKey;
+        Table t = table;
+        int slot = hash(most, least) & t.mask;
+        for (int probes = 0; probes <= t.mask; probes++) {
+            long m = t.most[slot];
+            long l = t.least[slot];
+            if (m == most && l == least) return true;
+            if (m == 0L && l == 0L) return false;
+            slot = (slot + 1) & t.mask;
+        }
+        return false;
+    }
+
+    private long insert(long most, long least, long value, boolean add) {
+        if (most == 0L && least == 0L) {
+            if (!hasNilKey) {
+                hasNilKey = true;
+                nilValue = 0L;
+                size++;
+            }
+            nilValue = add ? nilValue + value : value;
+            return nilValue;
+        }
+        Table t = table;
+        int slot = hash(most, least) & t.mask;
+        while (true) {
+            long m = t.most[slot];
+            long l = t.least[slot];
+            if (m == most && l == least) {
+                t.values[slot] = add ? t.values[slot] + value : value;
+                return t.values[slot];
+            }
+            if (m == 0L && l == 0L) break;
+            slot = (slot + 1) & t.mask;
+        }
+        // Keep the load factor at or below 1/2 so probe runs stay short
+        if ((size + 1) * 2 > t.values.length) {
+            table = resized(t, t.values.length * 2);
+            place(table, most, least, value);
+        } else {
+            t.most[slot] = most;
+            t.least[slot] = least;
+            t.values[slot] = value;
+        }
+        size++;
+        return value;
+    }
+
+    private static int slotOf(Table t, long most, long least) {
+        int slot = hash(most, least) & t.mask;
+        while (true) {
+            long m = t.most[slot];
+            long l = t.least[slot];
+            if (m == most && l == least) return slot;
+            if (m == 0L && l == 0L) return -1;
+            slot = (slot + 1) & t.mask;
+        }
+    }
+
+    /**
+     * Backward-shift deletion: entries after the hole that probed past it move up, so lookups
+     * never need tombstones.
+     */
+    private static void deleteSlot(Table t, int slot) {
+        int hole = slot;
+        int next = (hole + 1) & t.mask;
+        while (t.most[next] != 0L || t.least[next] != 0L) {
+            int home = hash(t.most[next], t.least[next]) & t.mask;
+            // Move the entry unless its home lies cyclically in (hole, next]
+            boolean reachable = hole <= next ? (home > hole && home <= next) : (home > hole || home <= next);
+            if (!reachable) {
+                t.most[hole] = t.most[next];
+                t.least[hole] = t.least[next];
+                t.values[hole] = t.values[next];
+                hole = next;
+            }
+            next = (next + 1) & t.mask;
+        }
+        t.most[hole] = 0L;
+        t.least[hole] = 0L;
+        t.values[hole] = 0L;
+    }
+
+    private static Table resized(Table old, int capacity) {
+        if (capacity == old.values.length) return old;
+        Table grown = new Table(capacity);
+        for (int i = 0; i < old.values.length; i++) {
+            if (old.most[i] != 0L || old.least[i] != 0L) {
+                place(grown, old.most[i], old.least[i], old.values[i]);
+            }
+        }
+        return grown;
+    }
+
+    private static void place(Table t, long most, long least, long value) {
+        int slot = hash(most, least) & t.mask;
+        while (t.most[slot] != 0L || t.least[slot] != 0L) {
+            slot = (slot + 1) & t.mask;
+        }
+        t.most[slot] = most;
+        t.least[slot] = least;
+        t.values[slot] = value;
+    }
+
+    /**
+     * Version 4 UUIDs are random, but offline-mode UUIDs are name hashes with fixed version
+     * bits; mixing both halves spreads either kind.
+     */
+    private static int hash(long most, long least) {
+        long h = most * 0x9E3779B97F4A7C15L ^ least;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
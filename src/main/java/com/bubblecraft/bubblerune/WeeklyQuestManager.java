@@ -11,12 +11,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class WeeklyQuestManager {
     private final BubbleRunePlugin plugin;
-    private final Map<UUID, Map<String, Integer>> playerProgress = new ConcurrentHashMap<>();
-    private final Map<UUID, Set<String>> completedQuests = new ConcurrentHashMap<>();
+    // Per quest id: each player's progress in the low 32 bits, plus COMPLETED once rewarded
+    private final Map<String, UuidLongMap> questProgress = new ConcurrentHashMap<>();
+    private static final long COMPLETED = 1L << 32;
     private long questResetTime = 0;
+    // Configured quest ids; read by placeholders on every request, so rebuilt only on reload
+    private volatile List<String> questIds = Collections.emptyList();
     
     public WeeklyQuestManager(BubbleRunePlugin plugin) {
         this.plugin = plugin;
+        reloadQuestIds();
         calculateNextReset();
         startResetTask();
     }
@@ -51,8 +55,7 @@ public class WeeklyQuestManager {
     }
     
     private void resetAllQuests() {
-        playerProgress.clear();
-        completedQuests.clear();
+        questProgress.clear();
         plugin.getLogger().info("Weekly rune quests have been reset!");
         
         // Notify online players
@@ -64,15 +67,15 @@ public class WeeklyQuestManager {
     }
     
     public void incrementProgress(UUID playerId, String questId, int amount) {
-        playerProgress.computeIfAbsent(playerId, k -> new ConcurrentHashMap<>())
-                    .merge(questId, amount, Integer::sum);
+        UuidLongMap progress = questProgress.computeIfAbsent(questId, k -> new UuidLongMap());
+        long state = progress.addAndGet(playerId, amount);
         
-        checkQuestCompletion(playerId, questId);
+        checkQuestCompletion(playerId, questId, progress, state);
     }
     
-    private void checkQuestCompletion(UUID playerId, String questId) {
+    private void checkQuestCompletion(UUID playerId, String questId, UuidLongMap progress, long state) {
         // Skip if already completed
-        if (completedQuests.getOrDefault(playerId, Collections.emptySet()).contains(questId)) {
+        if ((state & COMPLETED) != 0) {
             return;
         }
         
@@ -80,16 +83,15 @@ public class WeeklyQuestManager {
         if (quest == null) return;
         
         int required = quest.getInt("required", 0);
-        int current = playerProgress.getOrDefault(playerId, Collections.emptyMap()).getOrDefault(questId, 0);
+        int current = (int) state;
         
         if (current >= required) {
+            progress.addAndGet(playerId, COMPLETED);
             completeQuest(playerId, questId);
         }
     }
     
     private void completeQuest(UUID playerId, String questId) {
-        completedQuests.computeIfAbsent(playerId, k -> ConcurrentHashMap.newKeySet()).add(questId);
-        
         Player player = Bukkit.getPlayer(playerId);
         if (player == null) return;
         
@@ -125,11 +127,13 @@ public class WeeklyQuestManager {
     }
     
     public int getProgress(UUID playerId, String questId) {
-        return playerProgress.getOrDefault(playerId, Collections.emptyMap()).getOrDefault(questId, 0);
+        UuidLongMap progress = questProgress.get(questId);
+        return progress != null ? (int) progress.get(playerId, 0L) : 0;
     }
     
     public boolean isCompleted(UUID playerId, String questId) {
-        return completedQuests.getOrDefault(playerId, Collections.emptySet()).contains(questId);
+        UuidLongMap progress = questProgress.get(questId);
+        return progress != null && (progress.get(playerId, 0L) & COMPLETED) != 0;
     }
     
     public long getTimeUntilReset() {
@@ -150,9 +154,17 @@ public class WeeklyQuestManager {
         }
     }
     
+    /**
+     * Configured quest ids, as of the last {@link #reloadQuestIds()}. The list is unmodifiable.
+     */
     public List<String> getAllQuestIds() {
+        return questIds;
+    }
+
+    public void reloadQuestIds() {
         ConfigurationSection questsSection = plugin.getConfig().getConfigurationSection("weeklyQuests.quests");
-        if (questsSection == null) return Collections.emptyList();
-        return new ArrayList<>(questsSection.getKeys(false));
+        questIds = questsSection == null
+            ? Collections.emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(questsSection.getKeys(false)));
     }
 }
@@ -0,0 +1,67 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasTableTest {
+
+    @Test
+    void samples_matchWeights() {
+        // Spread like the default tier weights, down to a 0.2 sliver
+        double[] weights = {60, 40, 25, 10, 4, 0.8, 0.2};
+        AliasTable<Integer> table = new AliasTable<>(List.of(0, 1, 2, 3, 4, 5, 6), weights);
+        double total = 140.0;
+
+        SplittableRandom random = new SplittableRandom(42);
+        int draws = 2_000_000;
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample(random)]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            double expected = weights[i] / total;
+            assertEquals(expected, table.getShare(i), 1e-12);
+            // Within 5 standard deviations of the binomial count
+            double sigma = Math.sqrt(draws * expected * (1 - expected));
+            assertEquals(draws * expected, counts[i], 5 * sigma, "value " + i);
+        }
+    }
+
+    @Test
+    void sampleBest_matchesMaxOfDraws() {
+        double[] weights = {60, 25, 10, 5};
+        AliasTable<Integer> table = new AliasTable<>(List.of(0, 1, 2, 3), weights);
+        SplittableRandom random = new SplittableRandom(7);
+        int draws = 1_000_000;
+
+        // P(best <= i) = F(i)^k, for whole and fractional k alike
+        for (double k : new double[] {1.0, 2.5, 4.0}) {
+            int[] counts = new int[weights.length];
+            for (int i = 0; i < draws; i++) {
+                counts[table.sampleBest(k, random)]++;
+            }
+            double below = 0.0;
+            double cumulative = 0.0;
+            for (int i = 0; i < weights.length; i++) {
+                cumulative += weights[i] / 100.0;
+                double expected = Math.pow(cumulative, k) - below;
+                below = Math.pow(cumulative, k);
+                double sigma = Math.sqrt(draws * expected * (1 - expected));
+                assertEquals(draws * expected, counts[i], 5 * sigma + 1, "k=" + k + " value " + i);
+            }
+        }
+    }
+
+    @Test
+    void emptyAndInvalidTables() {
+        assertNull(AliasTable.<String>empty().sample());
+        assertNull(AliasTable.<String>empty().sampleBest(3.0));
+        assertEquals("only", new AliasTable<>(List.of("only"), new double[] {3}).sample());
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable<>(List.of("a", "b"), new double[] {1, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable<>(List.of("a"), new double[] {1, 2}));
+    }
+}
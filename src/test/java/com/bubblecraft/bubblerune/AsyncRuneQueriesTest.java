@@ -0,0 +1,70 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncRuneQueriesTest {
+
+    @Test
+    void concurrentQueries_areCappedAtMaxConcurrent() throws Exception {
+        AsyncRuneQueries queries = new AsyncRuneQueries(new InMemoryRuneStorage(), Runnable::run, 2, 100, 5000L);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(queries.submit(storage -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return 1;
+            }));
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(1, future.get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(peak.get() <= 2, "peak " + peak.get());
+        assertEquals(20, queries.getCompletedCount());
+        queries.shutdown(1000L);
+    }
+
+    @Test
+    void slowQuery_timesOutAndExcessQueries_areRejected() throws Exception {
+        AsyncRuneQueries queries = new AsyncRuneQueries(new InMemoryRuneStorage(), Runnable::run, 1, 2, 100L);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> slow = queries.submit(storage -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        CompletableFuture<Object> waiting = queries.submit(storage -> null);
+        CompletableFuture<Object> rejected = queries.submit(storage -> null);
+
+        ExecutionException busy = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, busy.getCause());
+        ExecutionException timeout = assertThrows(ExecutionException.class, () -> slow.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, timeout.getCause());
+        assertThrows(ExecutionException.class, () -> waiting.get(1, TimeUnit.SECONDS));
+        assertEquals(1, queries.getRejectedCount());
+
+        release.countDown();
+        queries.shutdown(1000L);
+    }
+}
@@ -0,0 +1,87 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CooldownManagerTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void wheel_expiresEntriesWithinOneTick() {
+        // Start near the overflow point: nanoTime values only have meaning as differences
+        AtomicLong clock = new AtomicLong(Long.MAX_VALUE - 300 * SECOND);
+        CooldownManager manager = new CooldownManager(30, clock::get);
+
+        UUID[] players = new UUID[5000];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = UUID.randomUUID();
+            manager.setCooldown(players[i]);
+            clock.addAndGet(SECOND / 1000);
+        }
+        assertEquals(players.length, manager.getTrackedCount());
+        assertTrue(manager.isOnCooldown(players[0]));
+        assertEquals(29, manager.getRemainingCooldown(players[players.length - 1]));
+
+        // Renewed just before it would expire: the old wheel entry must not drop it
+        clock.addAndGet(24 * SECOND);
+        manager.setCooldown(players[1]);
+
+        for (int second = 0; second < 8; second++) {
+            clock.addAndGet(SECOND);
+            manager.cleanupExpired();
+        }
+        assertEquals(1, manager.getTrackedCount());
+        assertFalse(manager.isOnCooldown(players[0]));
+        assertTrue(manager.isOnCooldown(players[1]));
+
+        // A stall longer than a full rotation still clears everything in one pass
+        clock.addAndGet(3600 * SECOND);
+        manager.cleanupExpired();
+        assertEquals(0, manager.getTrackedCount());
+        assertEquals(0, manager.getRemainingCooldown(players[1]));
+    }
+
+    @Test
+    void tierAndTableCooldowns_areSeparateSlots() {
+        AtomicLong clock = new AtomicLong();
+        CooldownManager manager = new CooldownManager(10, clock::get);
+        int[] tiers = new int[RuneTier.values().length];
+        tiers[RuneTier.VERYSPECIAL.ordinal()] = 600;
+        manager.configure(10, tiers, new int[] {0, 120});
+
+        UUID player = UUID.randomUUID();
+        manager.setCooldown(player, RuneTier.VERYSPECIAL, 1);
+        assertTrue(manager.isOnCooldown(player));
+        assertEquals(120, manager.getRemainingCooldown(player, 1));
+
+        clock.addAndGet(30 * SECOND);
+        assertFalse(manager.isOnCooldown(player, 0));
+        assertTrue(manager.isOnCooldown(player, 1));
+        assertTrue(manager.isTierOnCooldown(player, RuneTier.VERYSPECIAL));
+        assertFalse(manager.isTierOnCooldown(player, RuneTier.COMMON));
+
+        // A cheaper roll restarts the floor but never shortens the running tier cooldown
+        manager.setCooldown(player, RuneTier.COMMON, 0);
+        assertEquals(10, manager.getRemainingCooldown(player));
+        assertEquals(570, manager.getRemainingTierCooldown(player, RuneTier.VERYSPECIAL));
+
+        for (int second = 0; second < 600; second++) {
+            clock.addAndGet(SECOND);
+            manager.cleanupExpired();
+        }
+        assertEquals(0, manager.getTrackedCount());
+    }
+
+    @Test
+    void zeroCooldown_tracksNothing() {
+        CooldownManager manager = new CooldownManager(0, () -> 0L);
+        UUID player = UUID.randomUUID();
+        manager.setCooldown(player);
+        assertFalse(manager.isOnCooldown(player));
+        assertEquals(0, manager.getTrackedCount());
+    }
+}
@@ -0,0 +1,66 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_isExactForSmallCountsAndCloseForLargeOnes() {
+        Random random = new Random(1);
+        HyperLogLog sketch = new HyperLogLog();
+        assertEquals(0, sketch.estimate());
+
+        for (int i = 0; i < 100; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            sketch.add(id);
+            sketch.add(id);
+        }
+        assertEquals(100, sketch.estimate(), 2);
+
+        for (int i = 0; i < 99_900; i++) {
+            sketch.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        assertEquals(100_000, sketch.estimate(), 100_000 * 0.05);
+    }
+
+    @Test
+    void merge_countsTheUnion() {
+        Random random = new Random(2);
+        UUID[] ids = new UUID[3_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.nameUUIDFromBytes(("player" + random.nextInt()).getBytes());
+        }
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        HyperLogLog all = new HyperLogLog();
+        for (int i = 0; i < ids.length; i++) {
+            // Overlapping halves: 0..1999 and 1000..2999
+            if (i < 2_000) monday.add(ids[i]);
+            if (i >= 1_000) tuesday.add(ids[i]);
+            all.add(ids[i]);
+        }
+
+        monday.merge(tuesday);
+        assertEquals(all.estimate(), monday.estimate());
+        assertEquals(3_000, monday.estimate(), 3_000 * 0.05);
+    }
+
+    @Test
+    void bytes_roundTrip() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 500; i++) {
+            sketch.add(new UUID(0L, i));
+        }
+        HyperLogLog copy = HyperLogLog.fromBytes(sketch.toBytes());
+        assertEquals(sketch.estimate(), copy.estimate());
+        assertArrayEquals(sketch.toBytes(), copy.toBytes());
+
+        assertEquals(0, HyperLogLog.fromBytes(null).estimate());
+        assertEquals(0, HyperLogLog.fromBytes(new byte[] {1, 2, 3}).estimate());
+    }
+}
@@ -0,0 +1,65 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    @Test
+    void offer_keepsTopEntriesInOrder() {
+        UUID a = new UUID(0, 1);
+        UUID b = new UUID(0, 2);
+        UUID c = new UUID(0, 3);
+
+        Leaderboard board = new Leaderboard(Leaderboard.Metric.ROLLS, 2);
+        board.offer(a, "a", 5);
+        board.offer(b, "b", 5);
+        board.offer(c, "c", 4);
+        assertEquals(2, board.size());
+        assertEquals(a, board.get(1).uuid, "Ties are ordered by UUID");
+        assertEquals(b, board.get(2).uuid);
+        assertNull(board.get(3));
+
+        board.offer(c, "c", 6);
+        assertEquals(c, board.get(1).uuid);
+        assertEquals(a, board.get(2).uuid, "Pushed-out entry is dropped");
+
+        board.offer(c, "c", 3);
+        assertEquals(6, board.get(1).value, "A lower value never moves a player down");
+    }
+
+    @Test
+    void offer_randomGrowth_matchesFullSort() {
+        Random random = new Random(17);
+        Map<UUID, Long> values = new HashMap<>();
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        Leaderboard board = new Leaderboard(Leaderboard.Metric.XP_SPENT, 25);
+        for (int i = 0; i < 20_000; i++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            long value = values.merge(player, (long) random.nextInt(50) + 1, Long::sum);
+            board.offer(player, null, value);
+        }
+
+        List<Map.Entry<UUID, Long>> expected = new ArrayList<>(values.entrySet());
+        expected.sort((x, y) -> !x.getValue().equals(y.getValue())
+            ? Long.compare(y.getValue(), x.getValue())
+            : RuneStorage.PlayerCursor.compareUuids(x.getKey(), y.getKey()));
+        assertEquals(25, board.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(expected.get(i).getKey(), board.get(i + 1).uuid);
+            assertEquals(expected.get(i).getValue().longValue(), board.get(i + 1).value);
+        }
+    }
+}
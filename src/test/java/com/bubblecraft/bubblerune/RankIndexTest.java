@@ -0,0 +1,78 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankIndexTest {
+
+    @Test
+    void rank_countsPlayersWithStrictlyMoreRolls() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        RankIndex index = new RankIndex();
+        Map<UUID, Integer> initial = new HashMap<>();
+        initial.put(a, 10);
+        initial.put(b, 5);
+        initial.put(c, 5);
+        index.load(initial);
+
+        assertEquals(1, index.getRank(a));
+        assertEquals(2, index.getRank(b));
+        assertEquals(2, index.getRank(c), "Ties share a rank");
+        assertNull(index.getRank(UUID.randomUUID()));
+        assertEquals(4, index.getRankForCount(0));
+
+        index.increment(c, 6);
+        assertEquals(1, index.getRank(c));
+        assertEquals(2, index.getRank(a));
+        assertEquals(3, index.getRank(b));
+    }
+
+    @Test
+    void increment_pastCapacity_growsAndKeepsRanks() {
+        UUID small = UUID.randomUUID();
+        UUID big = UUID.randomUUID();
+
+        RankIndex index = new RankIndex();
+        index.increment(small, 3);
+        index.increment(big, 5000);
+
+        assertEquals(1, index.getRank(big));
+        assertEquals(2, index.getRank(small));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void matchesBruteForceRanks() {
+        Random random = new Random(42);
+        RankIndex index = new RankIndex();
+        Map<UUID, Integer> reference = new HashMap<>();
+        UUID[] ids = new UUID[200];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+
+        for (int step = 0; step < 5000; step++) {
+            UUID id = ids[random.nextInt(ids.length)];
+            int delta = 1 + random.nextInt(20);
+            index.increment(id, delta);
+            reference.merge(id, delta, Integer::sum);
+        }
+
+        for (Map.Entry<UUID, Integer> entry : reference.entrySet()) {
+            int expected = 1;
+            for (int other : reference.values()) {
+                if (other > entry.getValue()) expected++;
+            }
+            assertEquals(expected, index.getRank(entry.getKey()));
+        }
+    }
+}
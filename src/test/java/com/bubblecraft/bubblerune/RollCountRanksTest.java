@@ -0,0 +1,33 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollCountRanksTest {
+
+    @Test
+    void move_growsAndKeepsRanks() {
+        RollCountRanks ranks = new RollCountRanks();
+        ranks.move(0, 1);
+        ranks.move(0, 1);
+        ranks.move(1, 2);
+        for (int count = 2; count < 3000; count++) {
+            ranks.move(count, count + 1);
+        }
+
+        assertEquals(2, ranks.size());
+        assertEquals(1, ranks.getRankForCount(3000));
+        assertEquals(2, ranks.getRankForCount(1));
+        assertEquals(3, ranks.getRankForCount(0));
+
+        ranks.load(5, feed -> {
+            feed.accept(5);
+            feed.accept(5);
+            feed.accept(2);
+        });
+        assertEquals(3, ranks.size());
+        assertEquals(1, ranks.getRankForCount(5));
+        assertEquals(3, ranks.getRankForCount(2));
+    }
+}
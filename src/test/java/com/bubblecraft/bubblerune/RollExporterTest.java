@@ -0,0 +1,80 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollExporterTest {
+    private static final Logger LOGGER = Logger.getLogger("RollExporterTest");
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void rollsAreExportedInChunksWithinTheDateRange() throws Exception {
+        InMemoryRuneStorage storage = new InMemoryRuneStorage();
+        List<RollEntry> rolls = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            rolls.add(new RollEntry(new UUID(0L, i % 40), "Player, \"" + (i % 40) + "\"", RuneTier.RARE, "sharpness",
+                "Sharpness", 1, 10, 0, i % 2 == 0 ? "world" : null, i, 64, -i, 1_000L * i));
+        }
+        storage.recordRolls(rolls);
+
+        AtomicLong progress = new AtomicLong();
+        RollExporter exporter = new RollExporter(storage, new File(tempDir, "exports"), LOGGER, Runnable::run, 300, 500L);
+        RollExporter.Result result = exporter.export(new RollExporter.Request(RollExporter.Table.ROLLS,
+                RollExporter.Format.CSV, true, 100_000L, 2_100_000L), progress::set)
+            .get(10, TimeUnit.SECONDS);
+
+        assertEquals(2_000, result.rows);
+        assertEquals(2_000, progress.get());
+        assertTrue(result.file.getName().endsWith(".csv.gz"));
+        assertEquals(1, new File(tempDir, "exports").list().length, "No .part file should be left behind");
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(result.file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) lines.add(line);
+        }
+        assertEquals(2_001, lines.size());
+        assertTrue(lines.get(0).startsWith("id,uuid,player,"));
+        assertTrue(lines.get(1).contains(",\"Player, \"\"20\"\"\",RARE,"), lines.get(1));
+        assertTrue(lines.get(2_000).endsWith(",2099000"), lines.get(2_000));
+        exporter.shutdown();
+    }
+
+    @Test
+    void playersAreExportedAsNdjson() throws Exception {
+        InMemoryRuneStorage storage = new InMemoryRuneStorage();
+        for (int i = 0; i < 25; i++) {
+            storage.recordRolls(List.of(new RollEntry(UUID.randomUUID(), "P" + i, RuneTier.EPIC, "mending",
+                "Mending", 1, 10, 5, null, 0, 0, 0, 1_000L)));
+        }
+        RollExporter exporter = new RollExporter(storage, new File(tempDir, "exports"), LOGGER, Runnable::run, 10, 0L);
+        RollExporter.Result result = exporter.export(new RollExporter.Request(RollExporter.Table.PLAYERS,
+                RollExporter.Format.NDJSON, false, Long.MIN_VALUE, Long.MAX_VALUE), null)
+            .get(10, TimeUnit.SECONDS);
+
+        List<String> lines = Files.readAllLines(result.file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(25, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"uuid\":"));
+        assertTrue(lines.get(0).contains("\"EPIC\":1"));
+        exporter.shutdown();
+    }
+}
@@ -0,0 +1,184 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollJournalTest {
+    private static final Logger LOGGER = Logger.getLogger("RollJournalTest");
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void uncommittedRolls_areReplayedAfterACrash() throws Exception {
+        File file = new File(tempDir, "rolls.journal");
+        RollJournal journal = new RollJournal(file, LOGGER, 1000L, 1024L * 1024L);
+        assertTrue(journal.open(Collections.emptyList()).isEmpty());
+
+        List<RollEntry> appended = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            appended.add(journal.append(roll(i, i % 2 == 0 ? "world" : null)));
+        }
+        assertEquals(1L, appended.get(0).sequence);
+        assertEquals(5L, appended.get(4).sequence);
+        assertFalse(journal.commit(appended.subList(0, 2)));
+        // Simulated crash: never closed
+        journal.sync();
+
+        RollJournal reopened = new RollJournal(file, LOGGER, 1000L, 1024L * 1024L);
+        // The storage also recorded sequence 3 before the crash
+        List<RollEntry> replay = reopened.open(Collections.singletonList(new long[] {3L, 3L}));
+        assertEquals(2, replay.size());
+        assertEquals(4L, replay.get(0).sequence);
+        assertEquals(appended.get(3).enchantId, replay.get(0).enchantId);
+        assertNull(replay.get(0).world);
+        assertEquals("world", replay.get(1).world);
+        assertEquals(ALICE, replay.get(1).uuid);
+        assertEquals(appended.get(4).timestamp, replay.get(1).timestamp);
+
+        // Sequences keep increasing after a restart
+        assertEquals(6L, reopened.append(roll(9, null)).sequence);
+        reopened.close();
+    }
+
+    @Test
+    void tornTail_isDiscarded() throws Exception {
+        File file = new File(tempDir, "rolls.journal");
+        RollJournal journal = new RollJournal(file, LOGGER, 1000L, 1024L * 1024L);
+        journal.open(Collections.emptyList());
+        journal.append(roll(1, "world"));
+        journal.append(roll(2, "world"));
+        journal.close();
+
+        // Half-written third record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.writeInt(120);
+            raf.writeByte(1);
+            raf.writeLong(3L);
+        }
+
+        RollJournal reopened = new RollJournal(file, LOGGER, 1000L, 1024L * 1024L);
+        List<RollEntry> replay = reopened.open(Collections.emptyList());
+        assertEquals(2, replay.size());
+        assertEquals(3L, reopened.append(roll(3, "world")).sequence);
+        reopened.close();
+    }
+
+    @Test
+    void rollWithUnknownTier_isSkipped() throws Exception {
+        File file = new File(tempDir, "rolls.journal");
+        RollJournal journal = new RollJournal(file, LOGGER, 1000L, 1024L * 1024L);
+        journal.open(Collections.emptyList());
+        journal.append(roll(1, "world"));
+        journal.close();
+
+        // A CRC-valid record written by a build that had a tier this one does not
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(1);
+        data.writeLong(2L);
+        data.writeLong(ALICE.getMostSignificantBits());
+        data.writeLong(ALICE.getLeastSignificantBits());
+        data.writeUTF("Alice");
+        data.writeUTF("MYTHIC");
+        byte[] record = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.writeInt(record.length);
+            raf.write(record);
+            raf.writeInt((int) crc.getValue());
+        }
+
+        RollJournal reopened = new RollJournal(file, LOGGER, 1000L, 1024L * 1024L);
+        List<RollEntry> replay = reopened.open(Collections.emptyList());
+        assertEquals(1, replay.size());
+        assertEquals(1L, replay.get(0).sequence);
+        // The dropped roll's sequence is not handed out again
+        assertEquals(3L, reopened.append(roll(3, null)).sequence);
+        reopened.close();
+    }
+
+    @Test
+    void fullyCommittedJournal_isEmptiedAndLargeOnesCompacted() throws Exception {
+        File file = new File(tempDir, "rolls.journal");
+        RollJournal journal = new RollJournal(file, LOGGER, 1000L, 4096L);
+        journal.open(Collections.emptyList());
+
+        RollEntry first = journal.append(roll(0, "world"));
+        assertTrue(journal.commit(Collections.singletonList(first)));
+        assertEquals(0L, file.length());
+
+        // One roll stays pending while many are committed around it
+        RollEntry stuck = journal.append(roll(1, "world"));
+        for (int i = 0; i < 200; i++) {
+            assertFalse(journal.commit(Collections.singletonList(journal.append(roll(i, "world")))));
+        }
+        assertTrue(file.length() < 4096L + 200L, "Journal should have been compacted, was " + file.length());
+        assertEquals(1, journal.getPendingCount());
+        journal.close();
+
+        RollJournal reopened = new RollJournal(file, LOGGER, 1000L, 4096L);
+        List<RollEntry> replay = reopened.open(Collections.emptyList());
+        assertEquals(1, replay.size());
+        assertEquals(stuck.sequence, replay.get(0).sequence);
+        reopened.close();
+    }
+
+    @Test
+    void largeBacklog_isNotRewrittenOnEveryCommit() throws Exception {
+        File file = new File(tempDir, "rolls.journal");
+        RollJournal journal = new RollJournal(file, LOGGER, 1000L, 4096L);
+        journal.open(Collections.emptyList());
+
+        // As while the database is down: the pending rolls alone outgrow the threshold
+        List<RollEntry> backlog = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            backlog.add(journal.append(roll(i, "world")));
+        }
+        long before = journal.getCompactionCount();
+        for (int i = 0; i < 100; i++) {
+            journal.commit(Collections.singletonList(journal.append(roll(i, "world"))));
+        }
+        assertTrue(journal.getCompactionCount() - before <= 2,
+            "Compacted " + (journal.getCompactionCount() - before) + " times");
+        journal.close();
+
+        RollJournal reopened = new RollJournal(file, LOGGER, 1000L, 4096L);
+        assertEquals(backlog.size(), reopened.open(Collections.emptyList()).size());
+        reopened.close();
+    }
+
+    @Test
+    void sequenceRuns_groupContiguousSequences() {
+        List<RollEntry> batch = new ArrayList<>();
+        for (long sequence : new long[] {5, 3, 4, 9, 0, 10}) {
+            batch.add(roll(1, null).withSequence(sequence));
+        }
+        List<long[]> runs = RollJournal.sequenceRuns(batch);
+        assertEquals(2, runs.size());
+        assertArrayEquals(new long[] {3L, 5L}, runs.get(0));
+        assertArrayEquals(new long[] {9L, 10L}, runs.get(1));
+    }
+
+    private static RollEntry roll(int i, String world) {
+        return new RollEntry(ALICE, "Alice", RuneTier.values()[i % RuneTier.values().length], "enchant" + i,
+            "Enchant " + i, 1 + i % 5, 10, i, world, i, 64, -i, 1_000L * i);
+    }
+}
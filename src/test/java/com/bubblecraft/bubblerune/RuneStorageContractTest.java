@@ -0,0 +1,285 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the same roll workload through every backend and checks they agree with the
+ * in-memory reference. Write timings are printed so the backends can be compared.
+ */
+class RuneStorageContractTest {
+    private static final Logger LOGGER = Logger.getLogger("RuneStorageContractTest");
+    private static final int PLAYERS = 50;
+    private static final int ROLLS = 5000;
+    private static final int BATCH = 200;
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void sqlite_matchesInMemory() throws Exception {
+        SqliteRuneStorage.Settings settings = new SqliteRuneStorage.Settings();
+        settings.checkpointIntervalSeconds = 0L;
+        String url = "jdbc:sqlite:" + new File(tempDir, "data.db").getAbsolutePath();
+        assertMatchesReference(new SqliteRuneStorage(url, settings, LOGGER));
+    }
+
+    @Test
+    void sqliteWithoutWal_matchesInMemory() throws Exception {
+        SqliteRuneStorage.Settings settings = new SqliteRuneStorage.Settings();
+        settings.wal = false;
+        String url = "jdbc:sqlite:" + new File(tempDir, "data-rollback.db").getAbsolutePath();
+        assertMatchesReference(new SqliteRuneStorage(url, settings, LOGGER));
+    }
+
+    @Test
+    void h2_matchesInMemory() throws Exception {
+        assertMatchesReference(new H2RuneStorage(H2RuneStorage.fileUrl(new File(tempDir, "data-h2")), LOGGER));
+    }
+
+    @Test
+    void dataSurvivesReopen() throws Exception {
+        String url = "jdbc:sqlite:" + new File(tempDir, "reopen.db").getAbsolutePath();
+        List<RollEntry> workload = workload(new Random(7), 20, 300);
+
+        SqliteRuneStorage first = new SqliteRuneStorage(url, new SqliteRuneStorage.Settings(), LOGGER);
+        first.open();
+        first.recordRolls(workload);
+        first.close();
+
+        SqliteRuneStorage second = new SqliteRuneStorage(url, new SqliteRuneStorage.Settings(), LOGGER);
+        second.open();
+        try {
+            assertEquals(300, second.getGlobalStats().totalRolls);
+        } finally {
+            second.close();
+        }
+    }
+
+    private void assertMatchesReference(RuneStorage storage) throws Exception {
+        List<RollEntry> workload = workload(new Random(42), PLAYERS, ROLLS);
+
+        InMemoryRuneStorage reference = new InMemoryRuneStorage();
+        reference.open();
+        long referenceNanos = write(reference, workload);
+
+        storage.open();
+        try {
+            long nanos = write(storage, workload);
+            // FINE keeps the suite quiet; raise the logger level to compare backends
+            LOGGER.fine(() -> String.format("%-14s %d rolls in %d ms (memory baseline %d ms)", storage.getName(), ROLLS,
+                nanos / 1_000_000L, referenceNanos / 1_000_000L));
+
+            RuneStorage.GlobalStats expectedGlobal = reference.getGlobalStats();
+            RuneStorage.GlobalStats actualGlobal = storage.getGlobalStats();
+            assertEquals(expectedGlobal.totalRolls, actualGlobal.totalRolls);
+            assertEquals(expectedGlobal.totalXpSpent, actualGlobal.totalXpSpent);
+            assertEquals(expectedGlobal.totalCoinsSpent, actualGlobal.totalCoinsSpent);
+            assertEquals(expectedGlobal.uniquePlayers, actualGlobal.uniquePlayers);
+
+            assertEquals(reference.getTierDistribution(), storage.getTierDistribution());
+
+            LocalDate first = LocalDate.of(2000, 1, 1);
+            LocalDate last = LocalDate.of(2100, 1, 1);
+            assertEquals(reference.getUniquePlayers(first, last), storage.getUniquePlayers(first, last), 1.0);
+            LocalDate midDay = java.time.Instant.ofEpochMilli(workload.get(ROLLS / 2).timestamp)
+                .atZone(java.time.ZoneId.systemDefault()).toLocalDate();
+            assertEquals(reference.getUniquePlayers(midDay, midDay), storage.getUniquePlayers(midDay, midDay), 1.0);
+
+            Map<UUID, Integer> expectedCounts = reference.loadRollCounts();
+            assertEquals(expectedCounts, storage.loadRollCounts());
+
+            // Delta reads: every player was written by this test, none after now
+            assertEquals(PLAYERS, storage.getPlayersUpdatedSince(0L).size());
+            assertTrue(storage.getPlayersUpdatedSince(System.currentTimeMillis() + 60_000L).isEmpty());
+
+            for (Leaderboard.Metric metric : new Leaderboard.Metric[] {Leaderboard.Metric.XP_SPENT, Leaderboard.Metric.LEGENDARY}) {
+                List<RuneStorage.PlayerStats> expectedTop = reference.getTopPlayersBy(metric, 5);
+                List<RuneStorage.PlayerStats> actualTop = storage.getTopPlayersBy(metric, 5);
+                assertEquals(expectedTop.size(), actualTop.size(), metric.key);
+                for (int i = 0; i < expectedTop.size(); i++) {
+                    assertPlayerEquals(expectedTop.get(i), actualTop.get(i));
+                }
+            }
+
+            for (UUID playerId : expectedCounts.keySet()) {
+                assertPlayerEquals(reference.getPlayerStats(playerId), storage.getPlayerStats(playerId));
+                assertEquals(reference.getPlayerRank(playerId), storage.getPlayerRank(playerId));
+
+                List<RuneStorage.RollRecord> expectedRolls = reference.getRecentRolls(playerId, 10);
+                List<RuneStorage.RollRecord> actualRolls = storage.getRecentRolls(playerId, 10);
+                assertEquals(expectedRolls.size(), actualRolls.size());
+                for (int i = 0; i < expectedRolls.size(); i++) {
+                    assertEquals(expectedRolls.get(i).timestamp, actualRolls.get(i).timestamp);
+                    assertEquals(expectedRolls.get(i).tier, actualRolls.get(i).tier);
+                    assertEquals(expectedRolls.get(i).enchantId, actualRolls.get(i).enchantId);
+                }
+            }
+
+            List<RuneStorage.PlayerStats> top = storage.getTopPlayers(10);
+            assertEquals(10, top.size());
+            for (int i = 1; i < top.size(); i++) {
+                assertTrue(top.get(i - 1).totalRolls >= top.get(i).totalRolls);
+            }
+            assertEquals(reference.getTopPlayers(1).get(0).totalRolls, top.get(0).totalRolls);
+
+            assertPagesMatch(reference, storage, expectedCounts.keySet().iterator().next());
+
+            assertNull(storage.getPlayerStats(UUID.randomUUID()));
+            assertNull(storage.getPlayerRank(UUID.randomUUID()));
+
+            assertRetentionMatchesReference(reference, storage, workload);
+        } finally {
+            storage.close();
+        }
+    }
+
+    /**
+     * Walks every leaderboard page and one player's history page by page through the cursors.
+     */
+    private static void assertPagesMatch(RuneStorage reference, RuneStorage storage, UUID playerId) throws Exception {
+        List<UUID> expectedOrder = new ArrayList<>();
+        for (RuneStorage.PlayerStats stats : reference.getTopPlayers(Integer.MAX_VALUE)) {
+            expectedOrder.add(stats.uuid);
+        }
+        List<UUID> pagedOrder = new ArrayList<>();
+        RuneStorage.PlayerCursor playerCursor = null;
+        while (true) {
+            List<RuneStorage.PlayerStats> page = storage.getTopPlayers(playerCursor, 7);
+            if (page.isEmpty()) break;
+            for (RuneStorage.PlayerStats stats : page) pagedOrder.add(stats.uuid);
+            playerCursor = RuneStorage.PlayerCursor.of(page.get(page.size() - 1));
+        }
+        assertEquals(expectedOrder, pagedOrder);
+
+        List<Integer> expectedIds = new ArrayList<>();
+        for (RuneStorage.RollRecord roll : reference.getRecentRolls(playerId, Integer.MAX_VALUE)) {
+            expectedIds.add(roll.id);
+        }
+        List<Integer> pagedIds = new ArrayList<>();
+        RuneStorage.RollCursor rollCursor = null;
+        while (true) {
+            List<RuneStorage.RollRecord> page = storage.getRecentRolls(playerId, rollCursor, 3);
+            if (page.isEmpty()) break;
+            for (RuneStorage.RollRecord roll : page) pagedIds.add(roll.id);
+            rollCursor = RuneStorage.RollCursor.of(page.get(page.size() - 1));
+        }
+        assertEquals(expectedIds, pagedIds);
+
+        // Export chunks: every player in key order, and a timestamp window of rolls
+        List<UUID> expectedKeys = new ArrayList<>();
+        for (RuneStorage.PlayerStats stats : reference.getPlayersAfter(null, Integer.MAX_VALUE)) {
+            expectedKeys.add(stats.uuid);
+        }
+        List<UUID> chunkedKeys = new ArrayList<>();
+        UUID after = null;
+        while (true) {
+            List<RuneStorage.PlayerStats> chunk = storage.getPlayersAfter(after, 9);
+            if (chunk.isEmpty()) break;
+            for (RuneStorage.PlayerStats stats : chunk) chunkedKeys.add(stats.uuid);
+            after = chunk.get(chunk.size() - 1).uuid;
+        }
+        assertEquals(PLAYERS, chunkedKeys.size());
+        assertEquals(expectedKeys, chunkedKeys);
+
+        List<RuneStorage.RollRecord> all = reference.getRollsBetween(Long.MIN_VALUE, Long.MAX_VALUE, null, Integer.MAX_VALUE);
+        long from = all.get(all.size() / 4).timestamp;
+        long to = all.get(all.size() * 3 / 4).timestamp;
+        List<Integer> expectedWindow = new ArrayList<>();
+        for (RuneStorage.RollRecord roll : reference.getRollsBetween(from, to, null, Integer.MAX_VALUE)) {
+            expectedWindow.add(roll.id);
+        }
+        List<Integer> chunkedWindow = new ArrayList<>();
+        RuneStorage.RollCursor exportCursor = null;
+        while (true) {
+            List<RuneStorage.RollRecord> chunk = storage.getRollsBetween(from, to, exportCursor, 101);
+            if (chunk.isEmpty()) break;
+            for (RuneStorage.RollRecord roll : chunk) chunkedWindow.add(roll.id);
+            exportCursor = RuneStorage.RollCursor.of(chunk.get(chunk.size() - 1));
+        }
+        assertFalse(expectedWindow.isEmpty());
+        assertEquals(expectedWindow, chunkedWindow);
+    }
+
+    private void assertRetentionMatchesReference(RuneStorage reference, RuneStorage storage,
+                                                 List<RollEntry> workload) throws Exception {
+        Map<RuneTier, Integer> before = storage.getTierDistribution();
+        long now = workload.get(workload.size() / 2).timestamp;
+        File folder = new File(tempDir, "archive-" + storage.getName().replaceAll("\\W", ""));
+
+        new RetentionJob(LOGGER, reference, null, 0L, 97, 0L, 0).runOnce(now);
+        int moved = new RetentionJob(LOGGER, storage, new RollArchive(folder), 0L, 97, 0L, 0).runOnce(now);
+
+        int expectedMoved = 0;
+        for (RollEntry entry : workload) {
+            if (entry.timestamp < now) expectedMoved++;
+        }
+        assertEquals(expectedMoved, moved);
+        assertTrue(storage.getRollsBefore(now, 10).isEmpty());
+        assertEquals(before, storage.getTierDistribution(), "Archived rolls still count towards the distribution");
+        assertEquals(reference.getTierDistribution(), storage.getTierDistribution());
+
+        int archivedLines = 0;
+        File[] files = folder.listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            try (java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(
+                    new java.util.zip.GZIPInputStream(new java.io.FileInputStream(file)),
+                    java.nio.charset.StandardCharsets.UTF_8))) {
+                while (reader.readLine() != null) archivedLines++;
+            }
+        }
+        assertEquals(moved, archivedLines);
+    }
+
+    private static void assertPlayerEquals(RuneStorage.PlayerStats expected, RuneStorage.PlayerStats actual) {
+        assertNotNull(actual);
+        assertEquals(expected.playerName, actual.playerName);
+        assertEquals(expected.totalRolls, actual.totalRolls);
+        assertEquals(expected.totalXpSpent, actual.totalXpSpent);
+        assertEquals(expected.totalCoinsSpent, actual.totalCoinsSpent);
+        assertEquals(expected.commonRolls, actual.commonRolls);
+        assertEquals(expected.legendaryRolls, actual.legendaryRolls);
+        assertEquals(expected.verySpecialRolls, actual.verySpecialRolls);
+        assertEquals(expected.firstRollDate, actual.firstRollDate);
+        assertEquals(expected.lastRollDate, actual.lastRollDate);
+    }
+
+    private static long write(RuneStorage storage, List<RollEntry> workload) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < workload.size(); i += BATCH) {
+            storage.recordRolls(workload.subList(i, Math.min(workload.size(), i + BATCH)));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<RollEntry> workload(Random random, int players, int rolls) {
+        UUID[] ids = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        RuneTier[] tiers = RuneTier.values();
+        long time = 1_700_000_000_000L;
+        List<RollEntry> entries = new ArrayList<>(rolls);
+        for (int i = 0; i < rolls; i++) {
+            int player = random.nextInt(players);
+            RuneTier tier = tiers[random.nextInt(tiers.length)];
+            time += random.nextInt(60_000);
+            entries.add(new RollEntry(ids[player], "Player" + player, tier, "enchant_" + random.nextInt(20),
+                "Enchant " + i, 1 + random.nextInt(5), 10 + random.nextInt(100), random.nextInt(50),
+                "world", random.nextInt(1000), 64, random.nextInt(1000), time));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,237 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Opens a database written by a pre-versioning build and checks the data survives the move to
+ * the compact schema.
+ */
+class SchemaMigrationTest {
+    private static final Logger LOGGER = Logger.getLogger("SchemaMigrationTest");
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    // More than one migration chunk
+    private static final int LEGACY_ROLLS = 4500;
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void legacySqliteDatabase_isMigrated() throws Exception {
+        String url = "jdbc:sqlite:" + new File(tempDir, "legacy.db").getAbsolutePath();
+        writeLegacyDatabase(url);
+
+        SqliteRuneStorage.Settings settings = new SqliteRuneStorage.Settings();
+        settings.checkpointIntervalSeconds = 0L;
+        SqliteRuneStorage storage = new SqliteRuneStorage(url, settings, LOGGER);
+        storage.open();
+        try {
+            RuneStorage.PlayerStats alice = storage.getPlayerStats(ALICE);
+            assertNotNull(alice);
+            assertEquals("Alice", alice.playerName);
+            assertEquals(LEGACY_ROLLS, alice.totalRolls);
+            assertEquals(LEGACY_ROLLS, alice.rareRolls);
+            assertEquals(1_000L, alice.firstRollDate);
+            assertEquals(1, storage.getPlayerRank(ALICE));
+            assertEquals(2, storage.getPlayerRank(BOB));
+
+            List<RuneStorage.RollRecord> recent = storage.getRecentRolls(ALICE, 2);
+            assertEquals(LEGACY_ROLLS, recent.get(0).id);
+            assertEquals("Alice", recent.get(0).playerName);
+            assertEquals("sharpness", recent.get(0).enchantId);
+            assertEquals("Sharpness", recent.get(0).enchantName);
+            assertEquals("world_nether", recent.get(0).world);
+            assertNull(storage.getRecentRolls(BOB, 1).get(0).world);
+
+            // Rolls keep their ids and the old row with a broken uuid is dropped
+            assertEquals(LEGACY_ROLLS + 1, storage.getGlobalStats().totalRolls);
+            assertEquals(LEGACY_ROLLS + 1, storage.getRollsBefore(Long.MAX_VALUE, 10_000).size());
+            assertEquals(LEGACY_ROLLS, storage.getTierDistribution().get(RuneTier.RARE));
+            assertEquals(1, storage.getTierDistribution().get(RuneTier.EPIC));
+            // Backfilled from roll_history; the legacy unique_players column was always 1
+            assertEquals(2, storage.getUniquePlayers(LocalDate.of(1969, 12, 31), LocalDate.of(1970, 1, 2)));
+
+            storage.recordRolls(Collections.singletonList(new RollEntry(BOB, "Bob", RuneTier.EPIC, "sharpness",
+                "Sharpness", 5, 10, 0, "world_nether", 0, 64, 0, 9_000_000L)));
+            RuneStorage.RollRecord latest = storage.getRecentRolls(BOB, 1).get(0);
+            assertTrue(latest.id > LEGACY_ROLLS + 1, "New rolls must not reuse migrated ids");
+            assertEquals(2, storage.getPlayerStats(BOB).totalRolls);
+            assertEquals(2, storage.getTierDistribution().get(RuneTier.EPIC));
+        } finally {
+            storage.close();
+        }
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            assertEquals(6, SchemaMigrator.currentVersion(conn));
+            assertFalse(SchemaMigrator.tableExists(conn, "roll_history_v2"));
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM enchants")) {
+                rs.next();
+                assertEquals(2, rs.getInt(1));
+            }
+        }
+
+        // Reopening must not migrate again
+        SqliteRuneStorage reopened = new SqliteRuneStorage(url, settings, LOGGER);
+        reopened.open();
+        try {
+            assertEquals(LEGACY_ROLLS + 2, reopened.getGlobalStats().totalRolls);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void interruptedSwap_isFinishedOnRestart() throws Exception {
+        String url = "jdbc:sqlite:" + new File(tempDir, "swap.db").getAbsolutePath();
+        writeLegacyDatabase(url);
+        SqliteRuneStorage.Settings settings = new SqliteRuneStorage.Settings();
+        settings.checkpointIntervalSeconds = 0L;
+        SqliteRuneStorage storage = new SqliteRuneStorage(url, settings, LOGGER);
+        storage.open();
+        storage.close();
+
+        // As H2 would leave it after committing the roll_history swap and then dying
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE player_stats RENAME TO player_stats_v2");
+            stmt.execute("CREATE TABLE player_stats (uuid TEXT PRIMARY KEY, player_name TEXT NOT NULL, " +
+                "total_rolls INTEGER DEFAULT 0)");
+            stmt.execute("DELETE FROM schema_version WHERE version >= 2");
+        }
+
+        SqliteRuneStorage resumed = new SqliteRuneStorage(url, settings, LOGGER);
+        resumed.open();
+        try {
+            assertEquals(LEGACY_ROLLS, resumed.getPlayerStats(ALICE).totalRolls);
+            assertEquals(1, resumed.getPlayerRank(ALICE));
+            assertEquals(LEGACY_ROLLS + 1, resumed.getRollsBefore(Long.MAX_VALUE, 10_000).size());
+            assertEquals("sharpness", resumed.getRecentRolls(ALICE, 1).get(0).enchantId);
+            // v3 ran a second time: its seed replaces the totals rather than adding to them
+            assertEquals(LEGACY_ROLLS + 1, resumed.getGlobalStats().totalRolls);
+            assertEquals(LEGACY_ROLLS, resumed.getTierDistribution().get(RuneTier.RARE));
+        } finally {
+            resumed.close();
+        }
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            assertEquals(6, SchemaMigrator.currentVersion(conn));
+            assertFalse(SchemaMigrator.tableExists(conn, "player_stats_v2"));
+        }
+    }
+
+    @Test
+    void newH2Database_startsAtLatestVersion() throws Exception {
+        String url = H2RuneStorage.fileUrl(new File(tempDir, "fresh-h2"));
+        H2RuneStorage storage = new H2RuneStorage(url, LOGGER);
+        storage.open();
+        try {
+            storage.recordRolls(Collections.singletonList(new RollEntry(ALICE, "Alice", RuneTier.RARE, "unbreaking",
+                "Unbreaking", 3, 10, 5, null, 0, 0, 0, 1_000L)));
+            assertEquals("unbreaking", storage.getRecentRolls(ALICE, 1).get(0).enchantId);
+
+            storage.recordRolls(Collections.singletonList(new RollEntry(ALICE, "Alice", RuneTier.RARE, "unbreaking",
+                "Unbreaking", 3, 10, 5, null, 0, 0, 0, 2_000L, 7L)));
+            List<long[]> ranges = storage.getCommittedJournalRanges();
+            assertEquals(1, ranges.size());
+            assertArrayEquals(new long[] {7L, 7L}, ranges.get(0));
+        } finally {
+            storage.close();
+        }
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            assertEquals(6, SchemaMigrator.currentVersion(conn));
+        }
+    }
+
+    /**
+     * Tables exactly as the plugin created them before schema versioning.
+     */
+    private static void writeLegacyDatabase(String url) throws Exception {
+        try (Connection conn = DriverManager.getConnection(url)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE player_stats (uuid TEXT PRIMARY KEY, player_name TEXT NOT NULL, " +
+                    "total_rolls INTEGER DEFAULT 0, total_xp_spent INTEGER DEFAULT 0, total_coins_spent INTEGER DEFAULT 0, " +
+                    "common_rolls INTEGER DEFAULT 0, uncommon_rolls INTEGER DEFAULT 0, rare_rolls INTEGER DEFAULT 0, " +
+                    "epic_rolls INTEGER DEFAULT 0, legendary_rolls INTEGER DEFAULT 0, special_rolls INTEGER DEFAULT 0, " +
+                    "veryspecial_rolls INTEGER DEFAULT 0, first_roll_date INTEGER, last_roll_date INTEGER, updated_at INTEGER)");
+                stmt.execute("CREATE TABLE roll_history (id INTEGER PRIMARY KEY AUTOINCREMENT, uuid TEXT NOT NULL, " +
+                    "player_name TEXT NOT NULL, tier TEXT NOT NULL, enchant_id TEXT NOT NULL, enchant_name TEXT NOT NULL, " +
+                    "enchant_level INTEGER NOT NULL, xp_cost INTEGER NOT NULL, coin_cost INTEGER NOT NULL, " +
+                    "location_world TEXT, location_x REAL, location_y REAL, location_z REAL, timestamp INTEGER NOT NULL, " +
+                    "FOREIGN KEY (uuid) REFERENCES player_stats(uuid))");
+                stmt.execute("CREATE TABLE daily_stats (date TEXT PRIMARY KEY, total_rolls INTEGER DEFAULT 0, " +
+                    "total_xp_spent INTEGER DEFAULT 0, total_coins_spent INTEGER DEFAULT 0, unique_players INTEGER DEFAULT 0, " +
+                    "common_rolls INTEGER DEFAULT 0, uncommon_rolls INTEGER DEFAULT 0, rare_rolls INTEGER DEFAULT 0, " +
+                    "epic_rolls INTEGER DEFAULT 0, legendary_rolls INTEGER DEFAULT 0, special_rolls INTEGER DEFAULT 0, " +
+                    "veryspecial_rolls INTEGER DEFAULT 0)");
+                stmt.execute("INSERT INTO player_stats (uuid, player_name, total_rolls, rare_rolls, first_roll_date, " +
+                    "last_roll_date, updated_at) VALUES ('" + ALICE + "', 'Alice', " + LEGACY_ROLLS + ", " + LEGACY_ROLLS +
+                    ", 1000, 5000000, 5000000)");
+                stmt.execute("INSERT INTO player_stats (uuid, player_name, total_rolls, epic_rolls, first_roll_date, " +
+                    "last_roll_date, updated_at) VALUES ('" + BOB + "', 'Bob', 1, 1, 6000000, 6000000, 6000000)");
+                stmt.execute("INSERT INTO player_stats (uuid, player_name, total_rolls) VALUES ('not-a-uuid', 'Ghost', 7)");
+            }
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO roll_history (uuid, player_name, tier, " +
+                    "enchant_id, enchant_name, enchant_level, xp_cost, coin_cost, location_world, location_x, " +
+                    "location_y, location_z, timestamp) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= LEGACY_ROLLS; i++) {
+                    insert.setString(1, ALICE.toString());
+                    insert.setString(2, "Alice");
+                    insert.setString(3, RuneTier.RARE.name());
+                    insert.setString(4, i % 2 == 0 ? "sharpness" : "unbreaking");
+                    insert.setString(5, i % 2 == 0 ? "Sharpness" : "Unbreaking");
+                    insert.setInt(6, 1 + i % 5);
+                    insert.setInt(7, 10);
+                    insert.setInt(8, 0);
+                    insert.setString(9, i % 3 == 0 ? "world_nether" : "world");
+                    insert.setDouble(10, i);
+                    insert.setDouble(11, 64);
+                    insert.setDouble(12, -i);
+                    insert.setLong(13, 1_000L * i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("INSERT INTO roll_history (uuid, player_name, tier, enchant_id, enchant_name, enchant_level, " +
+                    "xp_cost, coin_cost, timestamp) VALUES ('" + BOB + "', 'Bob', 'EPIC', 'sharpness', 'Sharpness', 5, 10, 0, 6000000)");
+                stmt.execute("INSERT INTO roll_history (uuid, player_name, tier, enchant_id, enchant_name, enchant_level, " +
+                    "xp_cost, coin_cost, timestamp) VALUES ('not-a-uuid', 'Ghost', 'COMMON', 'mending', 'Mending', 1, 10, 0, 7000000)");
+            }
+            try (PreparedStatement daily = conn.prepareStatement(
+                    "INSERT INTO daily_stats (date, total_rolls, unique_players) VALUES (?, 1, 1)")) {
+                Set<String> days = new TreeSet<>();
+                for (int i = 1; i <= LEGACY_ROLLS; i++) {
+                    days.add(JdbcRuneStorage.dayOf(1_000L * i));
+                }
+                days.add(JdbcRuneStorage.dayOf(6_000_000L));
+                for (String day : days) {
+                    daily.setString(1, day);
+                    daily.addBatch();
+                }
+                daily.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+}
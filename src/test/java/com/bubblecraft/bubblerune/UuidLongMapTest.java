@@ -0,0 +1,50 @@
+package com.bubblecraft.bubblerune;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidLongMapTest {
+
+    @Test
+    void randomOperations_matchHashMap() {
+        Random random = new Random(7);
+        UUID[] ids = new UUID[500];
+        for (int i = 0; i < ids.length; i++) {
+            // Few distinct high halves so probe runs collide and deletions shift entries
+            ids[i] = new UUID(random.nextInt(4), random.nextLong());
+        }
+        ids[0] = new UUID(0L, 0L);
+
+        UuidLongMap map = new UuidLongMap();
+        Map<UUID, Long> reference = new HashMap<>();
+        for (int step = 0; step < 50_000; step++) {
+            UUID id = ids[random.nextInt(ids.length)];
+            switch (random.nextInt(4)) {
+                case 0:
+                    long value = random.nextLong();
+                    map.put(id, value);
+                    reference.put(id, value);
+                    break;
+                case 1:
+                    assertEquals(reference.merge(id, 3L, Long::sum).longValue(), map.addAndGet(id, 3L));
+                    break;
+                case 2:
+                    assertEquals(reference.remove(id) != null, map.remove(id));
+                    break;
+                default:
+                    assertEquals(reference.getOrDefault(id, -1L).longValue(), map.get(id, -1L));
+                    assertEquals(reference.containsKey(id), map.containsKey(id));
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        for (UUID id : ids) {
+            assertEquals(reference.getOrDefault(id, -1L).longValue(), map.get(id, -1L));
+        }
+    }
+}